@@ -0,0 +1,46 @@
+package benchmark;
+
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import util.UVLParser;
+
+/*
+ * Bundled real world models that are used by the benchmarks.
+ * Every domain provides two region models that are merged with each other.
+ */
+public enum BenchmarkModels {
+    BUSYBOX("uvl/busybox/busybox_1.uvl", "uvl/busybox/busybox_2.uvl"),
+    FINANCE("uvl/finance/finance_2.uvl", "uvl/finance/finance_3.uvl"),
+    SMARTWATCH("uvl/smartwatch/miband1.uvl", "uvl/smartwatch/miband2.uvl"),
+    CDL("uvl/cdl/vrc4373.uvl", "uvl/cdl/vrc4375.uvl"),
+    AUTOMOTIVE("uvl/automotive/automotive02_01.uvl", "uvl/automotive/automotive02_02.uvl");
+
+    private final String filenameA;
+    private final String filenameB;
+
+    BenchmarkModels(final String filenameA, final String filenameB) {
+        this.filenameA = filenameA;
+        this.filenameB = filenameB;
+    }
+
+    public String getFilenameA() {
+        return filenameA;
+    }
+
+    public RecreationModel parseModelA() throws Exception {
+        return UVLParser.parseUVLFile(filenameA, Region.A);
+    }
+
+    public RecreationModel parseModelB() throws Exception {
+        return UVLParser.parseUVLFile(filenameB, Region.B);
+    }
+
+    // parses both models and contextualizes them like the full merge does
+    public RecreationModel[] parseContextualizedModels() throws Exception {
+        RecreationModel modelA = parseModelA();
+        RecreationModel modelB = parseModelB();
+        modelA.contextualizeAllConstraints();
+        modelB.contextualizeAllConstraints();
+        return new RecreationModel[] { modelA, modelB };
+    }
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.recreate.RecreationModel;
+import util.MergeOptions;
+import util.Merger;
+import util.analyse.statistics.MergeStatistics;
+
+/*
+ * Benchmarks the three merge phases separately.
+ * Every phase changes its input model, so the input of each phase is recreated before every invocation
+ * and only the phase itself is measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MergeBenchmark {
+
+    @State(Scope.Thread)
+    public static class UnionState {
+        @Param({ "BUSYBOX", "FINANCE", "SMARTWATCH", "CDL", "AUTOMOTIVE" })
+        private BenchmarkModels models;
+
+        private RecreationModel[] sourceModels;
+
+        @Setup(Level.Invocation)
+        public void setup() throws Exception {
+            sourceModels = models.parseContextualizedModels();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class InconsistencyCheckState {
+        @Param({ "BUSYBOX", "FINANCE", "SMARTWATCH", "CDL", "AUTOMOTIVE" })
+        private BenchmarkModels models;
+
+        @Param({ "false", "true" })
+        private boolean slicing;
+
+        private RecreationModel unionModel;
+
+        @Setup(Level.Invocation)
+        public void setup() throws Exception {
+            unionModel = Merger.union(new MergeStatistics(), models.parseContextualizedModels());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CleanupState {
+        @Param({ "BUSYBOX", "FINANCE", "SMARTWATCH", "CDL", "AUTOMOTIVE" })
+        private BenchmarkModels models;
+
+        @Param({ "false", "true" })
+        private boolean slicing;
+
+        private RecreationModel mergedModel;
+
+        @Setup(Level.Invocation)
+        public void setup() throws Exception {
+            RecreationModel unionModel = Merger.union(new MergeStatistics(), models.parseContextualizedModels());
+            mergedModel = Merger.inconsistencyCheck(new MergeStatistics(), unionModel);
+        }
+    }
+
+    @Benchmark
+    public RecreationModel union(final UnionState state) {
+        return Merger.union(new MergeStatistics(), state.sourceModels);
+    }
+
+    @Benchmark
+    public RecreationModel inconsistencyCheck(final InconsistencyCheckState state) {
+        return Merger.inconsistencyCheck(new MergeStatistics(), state.unionModel,
+                MergeOptions.sequential().withSlicing(state.slicing));
+    }
+
+    @Benchmark
+    public RecreationModel cleanup(final CleanupState state) {
+        return Merger.cleanup(new MergeStatistics(), state.mergedModel,
+                MergeOptions.sequential().withSlicing(state.slicing));
+    }
+}
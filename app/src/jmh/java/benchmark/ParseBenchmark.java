@@ -0,0 +1,43 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import util.UVLParser;
+
+/*
+ * Benchmarks parsing of a UVL file into a {@link RecreationModel}, with a parse tree and in streaming mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({ "BUSYBOX", "FINANCE", "SMARTWATCH", "CDL", "AUTOMOTIVE" })
+    private BenchmarkModels models;
+
+    @Benchmark
+    public RecreationModel parseUVLFile() throws Exception {
+        return models.parseModelA();
+    }
+
+    @Benchmark
+    public RecreationModel parseUVLFileStreaming() throws Exception {
+        return UVLParser.parseUVLFileStreaming(models.getFilenameA(), Region.A);
+    }
+}
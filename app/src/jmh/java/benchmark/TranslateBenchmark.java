@@ -0,0 +1,51 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.choco.ChocoModel;
+import model.choco.EncodingMode;
+import model.recreate.RecreationModel;
+import util.ChocoTranslator;
+
+/*
+ * Benchmarks the translation of a parsed model into a Choco model with both encodings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranslateBenchmark {
+
+    @Param({ "BUSYBOX", "FINANCE", "SMARTWATCH", "CDL", "AUTOMOTIVE" })
+    private BenchmarkModels models;
+
+    @Param({ "REIFIED", "CLAUSAL" })
+    private EncodingMode encodingMode;
+
+    private RecreationModel model;
+
+    @Setup(Level.Trial)
+    public void parse() throws Exception {
+        model = models.parseModelA();
+    }
+
+    @Benchmark
+    public ChocoModel convertToChocoModel() {
+        return ChocoTranslator.convertToChocoModel(model, encodingMode);
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.recreate.RecreationModel;
+import util.Merger;
+import util.Validator;
+
+/*
+ * Benchmarks the validation of a merged model against its source models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValidateBenchmark {
+
+    @Param({ "BUSYBOX", "FINANCE", "SMARTWATCH", "CDL", "AUTOMOTIVE" })
+    private BenchmarkModels models;
+
+    private RecreationModel mergedModel;
+    private RecreationModel[] sourceModels;
+
+    @Setup(Level.Trial)
+    public void merge() throws Exception {
+        sourceModels = new RecreationModel[] { models.parseModelA(), models.parseModelB() };
+        mergedModel = Merger.fullMerge(sourceModels).mergedModel();
+    }
+
+    @Benchmark
+    public int validateMerge() {
+        return Validator.validateMerge(mergedModel, sourceModels);
+    }
+}
@@ -1,14 +1,20 @@
 package model.choco;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
 import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
 
 import lombok.Getter;
 import lombok.Setter;
 import model.recreate.constraints.AbstractConstraint;
 import model.recreate.feature.Feature;
+import model.recreate.feature.FeatureIds;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
@@ -23,28 +29,115 @@ import java.util.HashSet;
 public class ChocoModel {
 
     private Model model; // Choco model
-    private Map<String, BoolVar> features; // Map of boolVar features in the model
+    private BoolVar[] features; // boolVar features in the model, indexed by their slot in this model
+    private int[] slotKeys; // open addressing table from feature id + 1 to slot, 0 marks a free entry
+    private int[] slotValues; // slot of the feature id at the same table entry
+    private BitSet featureIds; // ids of the features in the model
 
     private Region region; // Region Identifier of the model
     private Set<AbstractConstraint> constraints; // Set of AbstractConstraints from which the choco model was created
     private Feature rootFeature; // Root feature of the model
 
+    private Map<ConstraintKey, BoolVar> constraintVars; // Hash-consed boolVars of already translated constraints
+    private Map<List<Integer>, IntVar> sumVars; // Sum variables of group children, keyed by sorted child feature ids
+    private Map<List<Integer>, BoolVar> anySelectedVars; // "some child selected" of group children, same keys
+    private Map<List<Integer>, BoolVar> allSelectedVars; // "every child selected" of group children, same keys
+    private Map<List<Integer>, BoolVar> atMostOneVars; // "at most one child selected" of group children, same keys
+    private IntVar regionSelector; // Id of the selected region feature, the number of regions if none is selected
+    private EncodingMode encodingMode; // Encoding of region gating and group constraints
+    private int[] featureTreeOrder; // Feature ids in depth first order of the feature tree
+    private BitSet regionFeatureIds; // ids of the region root and the region features of the translated model
+    private SolverProfile searchProfile; // Profile the search strategy of the solver is configured with, null if default
+    private IMonitorRestart nogoodRecorder; // Records nogoods on restarts while plugged into the solver, null if none
+
     public ChocoModel(final Region region) {
+        this(region, EncodingMode.REIFIED);
+    }
+
+    public ChocoModel(final Region region, final EncodingMode encodingMode) {
+        this(region, encodingMode, 16);
+    }
+
+    /*
+     * The feature table is sized by the number of features of this model, feature ids are mapped to local
+     * slots, so the table does not grow with the process wide feature id registry.
+     */
+    public ChocoModel(final Region region, final EncodingMode encodingMode, final int expectedFeatures) {
         this.model = new Model();
-        this.features = new HashMap<>();
+        this.encodingMode = encodingMode;
+        this.featureTreeOrder = new int[0];
+        this.features = new BoolVar[Math.max(16, expectedFeatures)];
+        this.slotKeys = new int[tableSize(features.length)];
+        this.slotValues = new int[slotKeys.length];
+        this.featureIds = new BitSet();
+        this.regionFeatureIds = new BitSet();
         this.constraints = new HashSet<>();
+        this.constraintVars = new HashMap<>();
+        this.sumVars = new HashMap<>();
+        this.anySelectedVars = new HashMap<>();
+        this.allSelectedVars = new HashMap<>();
+        this.atMostOneVars = new HashMap<>();
         this.region = region;
     }
 
-    // adds a choco feature for tracking and reusing to the boolVarfeature map
-    public void addFeature(final String name) {
-        final BoolVar newFeature = model.boolVar(name);
-        features.put(name, newFeature);
+    // adds a choco feature for tracking and reusing to the boolVar feature table
+    public void addFeature(final Feature feature) {
+        final int id = feature.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("feature has no id: " + feature.getName());
+        }
+        int slot = slotOf(id);
+        if (slot < 0) {
+            slot = featureIds.cardinality();
+            if (slot == features.length) {
+                features = Arrays.copyOf(features, features.length * 2);
+                rehash(tableSize(features.length));
+            }
+            insertSlot(id, slot);
+            featureIds.set(id);
+        }
+        features[slot] = model.boolVar(feature.getName());
+    }
+
+    // returns the boolVar feature for the given feature id, null if the model does not contain it
+    public BoolVar getFeature(final int id) {
+        final int slot = id >= 0 ? slotOf(id) : -1;
+        return slot < 0 ? null : features[slot];
     }
 
-    // returns the boolVar feature for the given name
+    // returns the boolVar feature for the given feature
+    public BoolVar getFeature(final Feature feature) {
+        return getFeature(feature.getId());
+    }
+
+    // returns the boolVar feature for the given name, hashes the name, prefer the id based lookups
     public BoolVar getFeature(final String name) {
-        return features.get(name);
+        return getFeature(FeatureIds.find(name));
+    }
+
+    public int getNumberOfFeatures() {
+        return featureIds.cardinality();
+    }
+
+    // returns the already translated boolVar for a structurally equal constraint, null if there is none
+    public BoolVar getConstraintVar(final ConstraintKey key) {
+        return key == null ? null : constraintVars.get(key);
+    }
+
+    // remembers the boolVar of a translated constraint, constraints without key are not cached
+    public BoolVar cacheConstraintVar(final ConstraintKey key, final BoolVar constraintVar) {
+        if (key != null) {
+            constraintVars.put(key, constraintVar);
+        }
+        return constraintVar;
+    }
+
+    public IntVar getSumVar(final List<Integer> childIds) {
+        return sumVars.get(childIds);
+    }
+
+    public void cacheSumVar(final List<Integer> childIds, final IntVar sumVar) {
+        sumVars.put(childIds, sumVar);
     }
 
     public void addConstraint(AbstractConstraint constraint) {
@@ -54,4 +147,47 @@ public class ChocoModel {
     public String getRegionString() {
         return region.getRegionString();
     }
+
+    // slot of the feature id in this model, -1 if the model does not contain it
+    private int slotOf(final int id) {
+        final int mask = slotKeys.length - 1;
+        for (int i = mix(id) & mask; slotKeys[i] != 0; i = (i + 1) & mask) {
+            if (slotKeys[i] == id + 1) {
+                return slotValues[i];
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(final int id, final int slot) {
+        final int mask = slotKeys.length - 1;
+        int i = mix(id) & mask;
+        while (slotKeys[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slotKeys[i] = id + 1;
+        slotValues[i] = slot;
+    }
+
+    private void rehash(final int size) {
+        final int[] oldKeys = slotKeys;
+        final int[] oldValues = slotValues;
+        slotKeys = new int[size];
+        slotValues = new int[size];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                insertSlot(oldKeys[i] - 1, oldValues[i]);
+            }
+        }
+    }
+
+    // power of two table with a load factor of at most one half
+    private static int tableSize(final int capacity) {
+        return Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2;
+    }
+
+    private static int mix(final int id) {
+        final int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
 }
\ No newline at end of file
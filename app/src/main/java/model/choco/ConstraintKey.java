@@ -0,0 +1,91 @@
+package model.choco;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.BinaryConstraint;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.constraints.NotConstraint;
+import model.recreate.feature.Feature;
+
+/*
+ * Canonical structural key of a translated constraint, used by {@link ChocoModel} to hash-cons boolVars.
+ * Two constraints with equal keys are translated into the same boolVar.
+ *
+ * operator:                a feature reference, binary operator, NOT or group
+ * operands:                feature names, cardinalities or keys of the subconstraints, commutative operands are ordered
+ * negation:                the boolVar is the negation view of the constraint
+ * contextualizationValue:  region of a contextualized group, only groups are gated by their region inside the encoding
+ */
+public record ConstraintKey(String operator, List<Object> operands, boolean negation, Integer contextualizationValue) {
+
+    private static final String FEATURE = "FEATURE";
+    private static final String NOT = "NOT";
+    private static final String GROUP = "GROUP";
+    private static final String GROUP_LOGIC = "GROUP_LOGIC";
+
+    /*
+     * Returns the key of the constraint without its negation, or null if the constraint can not be cached.
+     * The contextualization value is only part of the key of contextualized groups.
+     */
+    public static ConstraintKey of(final AbstractConstraint constraint, final Integer contextualizationValue) {
+        return switch (constraint) {
+            case FeatureReferenceConstraint frc -> new ConstraintKey(FEATURE, List.of(frc.getFeature().getName()),
+                    false, null);
+            case NotConstraint nc -> ofUnary(NOT, nc.getInner());
+            case BinaryConstraint bc -> ofBinary(bc);
+            case GroupConstraint gc -> new ConstraintKey(GROUP, groupOperands(gc), false, contextualizationValue);
+            default -> null;
+        };
+    }
+
+    // key of the group cardinality logic without region gating and child to parent implications
+    public static ConstraintKey ofGroupLogic(final GroupConstraint gc) {
+        return new ConstraintKey(GROUP_LOGIC, groupOperands(gc), false, null);
+    }
+
+    public ConstraintKey negated() {
+        return new ConstraintKey(operator, operands, !negation, contextualizationValue);
+    }
+
+    private static ConstraintKey ofUnary(final String operator, final Object operand) {
+        ConstraintKey operandKey = ofOperand(operand);
+        return operandKey == null ? null : new ConstraintKey(operator, List.of(operandKey), false, null);
+    }
+
+    private static ConstraintKey ofBinary(final BinaryConstraint bc) {
+        ConstraintKey antecedentKey = ofOperand(bc.getAntecedent());
+        ConstraintKey consequentKey = ofOperand(bc.getConsequent());
+        if (antecedentKey == null || consequentKey == null || bc.getOperator() == null) {
+            return null;
+        }
+
+        // a ∧ b, a ∨ b and a ↔ b are commutative, order the operands to share them independent of their order
+        boolean commutative = bc.getOperator() != BinaryConstraint.LogicalOperator.IMPLIES;
+        if (commutative && antecedentKey.hashCode() > consequentKey.hashCode()) {
+            return new ConstraintKey(bc.getOperator().name(), List.of(consequentKey, antecedentKey), false, null);
+        }
+
+        return new ConstraintKey(bc.getOperator().name(), List.of(antecedentKey, consequentKey), false, null);
+    }
+
+    // nested constraints are translated without their own negation and contextualization
+    private static ConstraintKey ofOperand(final Object operand) {
+        if (!(operand instanceof AbstractConstraint constraint)) {
+            return null;
+        }
+
+        return of(constraint, null);
+    }
+
+    private static List<Object> groupOperands(final GroupConstraint gc) {
+        List<Object> operands = new ArrayList<>();
+        operands.add(gc.getParent().getName());
+        operands.add(gc.getLowerCardinality());
+        operands.add(gc.getUpperCardinality());
+        gc.getChildren().stream().map(Feature::getName).sorted().forEach(operands::add);
+        return List.copyOf(operands);
+    }
+}
@@ -0,0 +1,16 @@
+package model.choco;
+
+/*
+ * Encoding used by the {@link util.ChocoTranslator} for region gating and group constraints.
+ *
+ * REIFIED: region gating with ifThen and group logic with reified arithmetic constraints (default)
+ * CLAUSAL: region gating, child to parent implications and the group logic conditions are emitted as
+ *          clauses through LogOp, the cardinality conditions are boolean views on the sum of the children,
+ *          so the model lands almost entirely in the SAT propagator of Choco
+ *
+ * Both encodings have the same solutions.
+ */
+public enum EncodingMode {
+    REIFIED,
+    CLAUSAL
+}
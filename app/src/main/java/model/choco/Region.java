@@ -1,62 +1,142 @@
 package model.choco;
 
-import lombok.AllArgsConstructor;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import lombok.Getter;
+import model.recreate.feature.FeatureIds;
 
 /*
- * This enum is used to represent the possible regions of a Feature Model
+ * This class is used to represent the possible regions of a Feature Model
  * (in the Form of a {@link RecreationModel} or {@link ChocoModel}).
+ *
+ * Regions are interned: every region name maps to exactly one instance with a compact int id,
+ * ids are handed out in registration order and are never reused. The id is the contextualization
+ * value of constraints, so {@link #byId(int)} resolves a contextualization value back to its region.
+ * The predefined regions keep the ids of the former enum constants.
+ *
+ * The registry lives as long as the JVM: regions and their feature ids (see {@link FeatureIds}) are never
+ * unregistered, because contextualization values of constraints stay valid only as long as their ids do.
+ * Long-running services should therefore reuse a bounded set of region names (e.g. one per slot of a batch)
+ * instead of creating a fresh name per job. The registry knows every region of the process, so whether a
+ * feature of a model is a region feature is decided by the model's own region subtree
+ * (MergerHelper.collectRegionNames) and not by {@link #isRegionName} or {@link #isRegionFeature}.
  */
-@AllArgsConstructor
 @Getter
-public enum Region {
-    A(0),
-    B(1),
-    C(2),
-    D(3),
-    E(4),
-    F(5),
-    G(6),
-    H(7),
-    I(8),
-    UNION(9),
-    TESTING(10),
-    MERGED(11);
+public final class Region implements Comparable<Region> {
+    public static final String REGION_STRING = "Region";
+
+    private static final Map<String, Region> REGIONS_BY_NAME = new ConcurrentHashMap<>();
+    private static volatile Region[] regionsById = new Region[0];
+    private static volatile BitSet regionFeatureIds = new BitSet();
+
+    public static final Region A = of("A");
+    public static final Region B = of("B");
+    public static final Region C = of("C");
+    public static final Region D = of("D");
+    public static final Region E = of("E");
+    public static final Region F = of("F");
+    public static final Region G = of("G");
+    public static final Region H = of("H");
+    public static final Region I = of("I");
+    public static final Region UNION = of("UNION");
+    public static final Region TESTING = of("TESTING");
+    public static final Region MERGED = of("MERGED");
 
     private final int value;
-    public static final String REGION_STRING = "Region";
+    private final String regionString;
+    private final int featureId; // feature id of the region feature
+
+    private Region(final int value, final String regionString) {
+        this.value = value;
+        this.regionString = regionString;
+        this.featureId = FeatureIds.of(regionString);
+    }
+
+    /*
+     * Returns the region with the given name, registering it with the next free id if it is unknown.
+     */
+    public static Region of(final String name) {
+        if (name == null || name.isBlank() || REGION_STRING.equals(name)) {
+            throw new IllegalArgumentException("Invalid region name: " + name);
+        }
+
+        Region region = REGIONS_BY_NAME.get(name);
+        if (region != null) {
+            return region;
+        }
+
+        synchronized (REGIONS_BY_NAME) {
+            return REGIONS_BY_NAME.computeIfAbsent(name, n -> {
+                Region[] current = regionsById;
+                Region[] next = Arrays.copyOf(current, current.length + 1);
+                Region created = new Region(current.length, n);
+                next[current.length] = created;
+                BitSet featureIds = (BitSet) regionFeatureIds.clone();
+                featureIds.set(created.featureId);
+                regionFeatureIds = featureIds;
+                regionsById = next;
+                return created;
+            });
+        }
+    }
 
     /*
-     * Returns the string representation of the region.
+     * Returns the region registered with the given id (contextualization value).
      */
-    public String getRegionString() {
-        switch (getValue()) {
-            case 0:
-                return "A";
-            case 1:
-                return "B";
-            case 2:
-                return "C";
-            case 3:
-                return "D";
-            case 4:
-                return "E";
-            case 5:
-                return "F";
-            case 6:
-                return "G";
-            case 7:
-                return "H";
-            case 8:
-                return "I";
-            case 9:
-                return "UNION";
-            case 10:
-                return "TESTING";
-            case 11:
-                return "MERGED";
-            default:
-                return "err";
+    public static Region byId(final int id) {
+        Region[] current = regionsById;
+        if (id < 0 || id >= current.length) {
+            throw new IllegalArgumentException("Unknown region id: " + id);
         }
+        return current[id];
+    }
+
+    // returns true if a region with the given id is registered
+    public static boolean isRegistered(final int id) {
+        return id >= 0 && id < regionsById.length;
+    }
+
+    // returns true if the given name is the name of a region registered anywhere in the process
+    public static boolean isRegionName(final String name) {
+        return name != null && REGIONS_BY_NAME.containsKey(name);
+    }
+
+    // returns true if the given feature id is the id of the feature of a region registered anywhere in the process
+    public static boolean isRegionFeature(final int featureId) {
+        return featureId >= 0 && regionFeatureIds.get(featureId);
+    }
+
+    /*
+     * Returns a snapshot of all registered regions ordered by id.
+     */
+    public static List<Region> values() {
+        return List.of(regionsById);
+    }
+
+    // returns the number of registered regions
+    public static int count() {
+        return regionsById.length;
+    }
+
+    public int ordinal() {
+        return value;
+    }
+
+    public String name() {
+        return regionString;
+    }
+
+    @Override
+    public int compareTo(final Region other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        return regionString;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package model.choco;
+
+/*
+ * Search configuration of the Choco solver for consistency checks.
+ *
+ * branching:          DEFAULT keeps the default search of Choco,
+ *                     FEATURE_TREE branches on the features in depth first order of the feature tree
+ *                     (root, region features, then the children of every feature),
+ *                     ACTIVITY uses activity based search
+ * preferDeselection:  the feature tree branching tries to deselect a feature first, the other branchings
+ *                     choose their values themselves and reject it
+ * restarts:           Luby restarts on the number of fails
+ * nogoods:            records nogoods from restarts, only valid as long as no constraint is unposted
+ *
+ * Profiles only change how a solution is searched, never whether one exists.
+ */
+public record SolverProfile(Branching branching, boolean preferDeselection, boolean restarts, boolean nogoods) {
+
+    public enum Branching {
+        DEFAULT,
+        FEATURE_TREE,
+        ACTIVITY
+    }
+
+    public SolverProfile {
+        if (branching == null) {
+            throw new IllegalArgumentException("branching must not be null");
+        }
+        if (preferDeselection && branching != Branching.FEATURE_TREE) {
+            throw new IllegalArgumentException("preferDeselection requires the feature tree branching, got " + branching);
+        }
+        if (nogoods && !restarts) {
+            throw new IllegalArgumentException("nogoods are recorded from restarts, restarts must be enabled");
+        }
+    }
+
+    public static SolverProfile defaultProfile() {
+        return new SolverProfile(Branching.DEFAULT, false, false, false);
+    }
+
+    public static SolverProfile featureTree() {
+        return new SolverProfile(Branching.FEATURE_TREE, true, false, false);
+    }
+
+    public static SolverProfile activity() {
+        return new SolverProfile(Branching.ACTIVITY, false, true, true);
+    }
+
+    // the same profile for models whose constraints are posted and unposted between two solves
+    public SolverProfile withoutNogoods() {
+        return nogoods ? new SolverProfile(branching, preferDeselection, restarts, false) : this;
+    }
+
+    public boolean isDefault() {
+        return branching == Branching.DEFAULT && !restarts;
+    }
+}
@@ -0,0 +1,612 @@
+package model.recreate;
+
+import java.util.AbstractSequentialList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.BinaryConstraint;
+import model.recreate.constraints.ComparisonConstraint;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.constraints.NotConstraint;
+import model.recreate.constraints.OrNegationConstraint;
+import model.recreate.feature.Feature;
+
+/*
+ * Constraint list of a {@link RecreationModel} with secondary indexes.
+ *
+ * The constraints are kept in a doubly linked list and every constraint knows its node, so removing a constraint
+ * (also through an iterator) is O(1) instead of shifting an array. Next to the order the list maintains
+ *
+ * - the constraints referencing a feature, group constraints reference their parent and children
+ * - the group constraints by parent and by child
+ * - the number of feature tree, custom and cross-tree constraints and of contextualized constraints per region
+ *
+ * The indexes are updated incrementally by every change of the list. The feature and group indexes are built
+ * on their first query, lists that are never queried (e.g. slices and copies) only pay for the counts.
+ * A node keeps the flags it was counted with, so the counts only change through add, set (also replaceAll and
+ * iterators) and remove. A constraint whose flags were changed in place is counted again by setting it again.
+ * The operands of a constraint are not changed once it is part of a model, see {@link AbstractConstraint}.
+ *
+ * {@link #featuresOf(AbstractConstraint)} is the feature walker of the index and is shared by every class
+ * that needs the features of a constraint.
+ *
+ * Positional access walks from the closest of the first, the last and the last accessed node, so loops over
+ * increasing indexes stay linear. Concurrent reads are safe as long as nobody changes the list, reads never
+ * write the maps of the list, the feature index is built once under the lock of the list.
+ */
+public class ConstraintList extends AbstractSequentialList<AbstractConstraint> {
+    private static final int[] NO_IDS = new int[0];
+
+    private final Node header = new Node(null);
+    private int size = 0;
+    private volatile Position lastAccessed = null;
+
+    // node of every constraint that is contained once, constraints contained more than once are looked up by a scan
+    private final Map<AbstractConstraint, Integer> occurrences = new IdentityHashMap<>();
+    private final Map<AbstractConstraint, Node> nodesByConstraint = new IdentityHashMap<>();
+
+    private final Map<Integer, Set<Node>> nodesByFeature = new HashMap<>();
+    private final Map<Integer, Set<Node>> groupsByParent = new HashMap<>();
+    private final Map<Integer, Set<Node>> groupsByChild = new HashMap<>();
+
+    private volatile boolean featuresIndexed = false;
+
+    private int featureTreeConstraints = 0;
+    private int customConstraints = 0;
+    private int crossTreeConstraints = 0;
+    private final Map<Integer, Integer> contextualizedPerRegion = new HashMap<>();
+    private final Map<Integer, Integer> contextualizedCrossTreePerRegion = new HashMap<>();
+
+    public ConstraintList() {
+        header.next = header;
+        header.prev = header;
+    }
+
+    public ConstraintList(final Collection<? extends AbstractConstraint> constraints) {
+        this();
+        addAll(constraints);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(final AbstractConstraint constraint) {
+        linkBefore(constraint, header);
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        Node node = find(o);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof AbstractConstraint && occurrences.containsKey(o);
+    }
+
+    @Override
+    public AbstractConstraint get(final int index) {
+        return node(index).constraint;
+    }
+
+    @Override
+    public AbstractConstraint set(final int index, final AbstractConstraint constraint) {
+        Node node = node(index);
+        AbstractConstraint previous = node.constraint;
+        replace(node, constraint);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        header.next = header;
+        header.prev = header;
+        size = 0;
+        lastAccessed = null;
+        occurrences.clear();
+        nodesByConstraint.clear();
+        nodesByFeature.clear();
+        groupsByParent.clear();
+        groupsByChild.clear();
+        featuresIndexed = false;
+        featureTreeConstraints = 0;
+        customConstraints = 0;
+        crossTreeConstraints = 0;
+        contextualizedPerRegion.clear();
+        contextualizedCrossTreePerRegion.clear();
+        modCount++;
+    }
+
+    @Override
+    public ListIterator<AbstractConstraint> listIterator(final int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new Cursor(index);
+    }
+
+    // constraints referencing the feature in the order they were added, group constraints included
+    public List<AbstractConstraint> getConstraintsReferencing(final Feature feature) {
+        return getConstraintsReferencing(idOf(feature));
+    }
+
+    public List<AbstractConstraint> getConstraintsReferencing(final int featureId) {
+        return constraintsOf(featureIndex(nodesByFeature), featureId);
+    }
+
+    // group constraints with the feature as parent in the order they were added
+    public List<GroupConstraint> getGroupConstraintsByParent(final Feature parent) {
+        return groupsOf(featureIndex(groupsByParent), idOf(parent));
+    }
+
+    // group constraints with the feature as child in the order they were added
+    public List<GroupConstraint> getGroupConstraintsByChild(final Feature child) {
+        return getGroupConstraintsByChild(idOf(child));
+    }
+
+    public List<GroupConstraint> getGroupConstraintsByChild(final int featureId) {
+        return groupsOf(featureIndex(groupsByChild), featureId);
+    }
+
+    // distinct ids of the features of a contained constraint in the order of featuresOf, empty otherwise
+    public int[] getFeatureIds(final AbstractConstraint constraint) {
+        ensureFeatureIndex();
+        Node node = find(constraint);
+        return node == null ? NO_IDS : node.featureIds.clone();
+    }
+
+    public int countFeatureTreeConstraints() {
+        return featureTreeConstraints;
+    }
+
+    public int countCustomConstraints() {
+        return customConstraints;
+    }
+
+    // constraints that are neither feature tree nor custom constraints
+    public int countCrossTreeConstraints() {
+        return crossTreeConstraints;
+    }
+
+    public int countContextualizedCrossTreeConstraints() {
+        return contextualizedCrossTreePerRegion.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // number of contextualized constraints by contextualization value
+    public Map<Integer, Integer> getContextualizedConstraintsPerRegion() {
+        return Collections.unmodifiableMap(new HashMap<>(contextualizedPerRegion));
+    }
+
+    // number of contextualized cross-tree constraints by contextualization value
+    public Map<Integer, Integer> getContextualizedCrossTreeConstraintsPerRegion() {
+        return Collections.unmodifiableMap(new HashMap<>(contextualizedCrossTreePerRegion));
+    }
+
+    // features of the constraint and its operands in operand order, group constraints yield parent and children
+    public static List<Feature> featuresOf(final AbstractConstraint constraint) {
+        List<Feature> features = new ArrayList<>();
+        collectFeatures(constraint, features);
+        return features;
+    }
+
+    private void linkBefore(final AbstractConstraint constraint, final Node successor) {
+        Objects.requireNonNull(constraint, "constraint must not be null");
+        Node node = new Node(constraint);
+        node.prev = successor.prev;
+        node.next = successor;
+        successor.prev.next = node;
+        successor.prev = node;
+        size++;
+        modCount++;
+        lastAccessed = null;
+        register(node);
+        index(node);
+    }
+
+    private void unlink(final Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        size--;
+        modCount++;
+        lastAccessed = null;
+        unregister(node);
+        unindex(node);
+    }
+
+    // replaces the constraint of a node, the order is not changed
+    private void replace(final Node node, final AbstractConstraint constraint) {
+        Objects.requireNonNull(constraint, "constraint must not be null");
+        unregister(node);
+        unindex(node);
+        node.constraint = constraint;
+        register(node);
+        index(node);
+    }
+
+    private void register(final Node node) {
+        int count = occurrences.merge(node.constraint, 1, Integer::sum);
+        if (count == 1) {
+            nodesByConstraint.put(node.constraint, node);
+        } else {
+            nodesByConstraint.remove(node.constraint);
+        }
+    }
+
+    private void unregister(final Node node) {
+        int count = occurrences.get(node.constraint);
+        if (count == 1) {
+            occurrences.remove(node.constraint);
+            nodesByConstraint.remove(node.constraint);
+        } else {
+            occurrences.put(node.constraint, count - 1);
+            if (count == 2) {
+                nodesByConstraint.put(node.constraint, findOther(node));
+            }
+        }
+    }
+
+    // the other node with the same constraint, the given node may still be linked
+    private Node findOther(final Node node) {
+        for (Node other = header.next; other != header; other = other.next) {
+            if (other != node && other.constraint == node.constraint) {
+                return other;
+            }
+        }
+        throw new IllegalStateException("Remaining occurrence of the constraint not found");
+    }
+
+    // first node of the constraint, a scan is only needed if the constraint is contained more than once,
+    // lookups do not change the maps, so concurrent readers are safe
+    private Node find(final Object o) {
+        if (!(o instanceof AbstractConstraint constraint) || !occurrences.containsKey(constraint)) {
+            return null;
+        }
+
+        Node node = nodesByConstraint.get(constraint);
+        if (node != null) {
+            return node;
+        }
+        for (node = header.next; node != header; node = node.next) {
+            if (node.constraint == constraint) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private Node node(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        // start at the closest known position
+        int position = 0;
+        Node node = header.next;
+        if (size - 1 - index < index) {
+            position = size - 1;
+            node = header.prev;
+        }
+        Position last = lastAccessed;
+        if (last != null && Math.abs(last.index() - index) < Math.abs(position - index)) {
+            position = last.index();
+            node = last.node();
+        }
+
+        while (position < index) {
+            node = node.next;
+            position++;
+        }
+        while (position > index) {
+            node = node.prev;
+            position--;
+        }
+        lastAccessed = new Position(index, node);
+        return node;
+    }
+
+    private void index(final Node node) {
+        readFlags(node);
+        count(node, 1);
+        if (featuresIndexed) {
+            indexFeatures(node);
+        }
+    }
+
+    private static void readFlags(final Node node) {
+        final AbstractConstraint constraint = node.constraint;
+        node.featureTree = constraint.isFeatureTreeConstraint();
+        node.custom = constraint.isCustomConstraint();
+        node.region = constraint.isContextualized() ? constraint.getContextualizationValue() : null;
+    }
+
+    private <T> Map<Integer, T> featureIndex(final Map<Integer, T> index) {
+        ensureFeatureIndex();
+        return index;
+    }
+
+    // concurrent readers may trigger the build, so it is synchronized and published by the volatile flag
+    private void ensureFeatureIndex() {
+        if (featuresIndexed) {
+            return;
+        }
+        synchronized (this) {
+            if (featuresIndexed) {
+                return;
+            }
+            for (Node node = header.next; node != header; node = node.next) {
+                indexFeatures(node);
+            }
+            featuresIndexed = true;
+        }
+    }
+
+    private void indexFeatures(final Node node) {
+        final AbstractConstraint constraint = node.constraint;
+        node.featureIds = distinctIds(featuresOf(constraint));
+        for (int id : node.featureIds) {
+            nodesByFeature.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(node);
+        }
+
+        if (constraint instanceof GroupConstraint gc) {
+            node.parentId = idOf(gc.getParent());
+            node.childIds = gc.getChildren() == null ? NO_IDS : distinctIds(gc.getChildren());
+            if (node.parentId >= 0) {
+                groupsByParent.computeIfAbsent(node.parentId, key -> new LinkedHashSet<>()).add(node);
+            }
+            for (int id : node.childIds) {
+                groupsByChild.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(node);
+            }
+        }
+    }
+
+    private void unindex(final Node node) {
+        for (int id : node.featureIds) {
+            removeFrom(nodesByFeature, id, node);
+        }
+        if (node.parentId >= 0) {
+            removeFrom(groupsByParent, node.parentId, node);
+        }
+        for (int id : node.childIds) {
+            removeFrom(groupsByChild, id, node);
+        }
+        node.featureIds = NO_IDS;
+        node.parentId = -1;
+        node.childIds = NO_IDS;
+
+        count(node, -1);
+    }
+
+    private void count(final Node node, final int delta) {
+        boolean crossTree = !node.featureTree && !node.custom;
+        if (node.featureTree) {
+            featureTreeConstraints += delta;
+        }
+        if (node.custom) {
+            customConstraints += delta;
+        }
+        if (crossTree) {
+            crossTreeConstraints += delta;
+        }
+        if (node.region != null) {
+            addCount(contextualizedPerRegion, node.region, delta);
+            if (crossTree) {
+                addCount(contextualizedCrossTreePerRegion, node.region, delta);
+            }
+        }
+    }
+
+    private static void addCount(final Map<Integer, Integer> counts, final int key, final int delta) {
+        int count = counts.getOrDefault(key, 0) + delta;
+        if (count == 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count);
+        }
+    }
+
+    private static void removeFrom(final Map<Integer, Set<Node>> index, final int id, final Node node) {
+        Set<Node> nodes = index.get(id);
+        if (nodes != null) {
+            nodes.remove(node);
+            if (nodes.isEmpty()) {
+                index.remove(id);
+            }
+        }
+    }
+
+    private static List<AbstractConstraint> constraintsOf(final Map<Integer, Set<Node>> index, final int id) {
+        List<AbstractConstraint> constraints = new ArrayList<>();
+        for (Node node : index.getOrDefault(id, Set.of())) {
+            constraints.add(node.constraint);
+        }
+        return constraints;
+    }
+
+    private static List<GroupConstraint> groupsOf(final Map<Integer, Set<Node>> index, final int id) {
+        List<GroupConstraint> groups = new ArrayList<>();
+        for (Node node : index.getOrDefault(id, Set.of())) {
+            groups.add((GroupConstraint) node.constraint);
+        }
+        return groups;
+    }
+
+    private static int idOf(final Feature feature) {
+        return feature == null ? -1 : feature.getId();
+    }
+
+    private static int[] distinctIds(final List<Feature> features) {
+        return features.stream()
+                .mapToInt(ConstraintList::idOf)
+                .filter(id -> id >= 0)
+                .distinct()
+                .toArray();
+    }
+
+    private static void collectFeatures(final Object operand, final List<Feature> features) {
+        if (operand instanceof Feature feature) {
+            features.add(feature);
+        } else if (operand instanceof FeatureReferenceConstraint frc) {
+            collectFeatures(frc.getFeature(), features);
+        } else if (operand instanceof BinaryConstraint bc) {
+            collectFeatures(bc.getAntecedent(), features);
+            collectFeatures(bc.getConsequent(), features);
+        } else if (operand instanceof NotConstraint nc) {
+            collectFeatures(nc.getInner(), features);
+        } else if (operand instanceof ComparisonConstraint cc) {
+            collectFeatures(cc.getLeftOperand(), features);
+            collectFeatures(cc.getRightOperand(), features);
+        } else if (operand instanceof OrNegationConstraint onc && onc.getConstraints() != null) {
+            for (AbstractConstraint inner : onc.getConstraints()) {
+                collectFeatures(inner, features);
+            }
+        } else if (operand instanceof GroupConstraint gc) {
+            collectFeatures(gc.getParent(), features);
+            if (gc.getChildren() != null) {
+                for (Feature child : gc.getChildren()) {
+                    collectFeatures(child, features);
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+        private AbstractConstraint constraint;
+        private Node prev;
+        private Node next;
+
+        // the state the constraint was indexed and counted with
+        private int[] featureIds = NO_IDS;
+        private int parentId = -1;
+        private int[] childIds = NO_IDS;
+        private boolean featureTree;
+        private boolean custom;
+        private Integer region;
+
+        private Node(final AbstractConstraint constraint) {
+            this.constraint = constraint;
+        }
+    }
+
+    // last accessed position, replaced as a whole so concurrent readers never see a torn pair
+    private record Position(int index, Node node) {
+    }
+
+    private final class Cursor implements ListIterator<AbstractConstraint> {
+        private Node next;
+        private int nextIndex;
+        private Node lastReturned = null;
+        private int expectedModCount = modCount;
+
+        private Cursor(final int index) {
+            this.next = index == size ? header : node(index);
+            this.nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        public AbstractConstraint next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.constraint;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public AbstractConstraint previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            next = next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.constraint;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            Node lastNext = lastReturned.next;
+            unlink(lastReturned);
+            if (next == lastReturned) {
+                next = lastNext;
+            } else {
+                nextIndex--;
+            }
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(final AbstractConstraint constraint) {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            replace(lastReturned, constraint);
+        }
+
+        @Override
+        public void add(final AbstractConstraint constraint) {
+            checkForComodification();
+            lastReturned = null;
+            linkBefore(constraint, next);
+            nextIndex++;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
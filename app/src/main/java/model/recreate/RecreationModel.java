@@ -22,7 +22,8 @@ import java.util.HashMap;
  * Key components:
  * - region: The specific {@link Region} (A, B,..) this model represents
  * - rootFeature: The root feature of the feature tree hierarchy
- * - constraints: List of all constraints (cross-tree and feature tree) in the model
+ * - constraints: List of all constraints (cross-tree and feature tree) in the model, indexed by feature,
+ *   group parent and child and constraint category (see {@link ConstraintList})
  * - features: Map of all features in the model, indexed by feature name
  * 
  * Usage: This class is used throughout the merging process to represent individual
@@ -35,19 +36,19 @@ public class RecreationModel {
 
     private Region region;
     private Feature rootFeature;
-    private List<AbstractConstraint> constraints;
+    private ConstraintList constraints;
     private Map<String, Feature> features;
 
     private String filePath;
 
     public RecreationModel(final Region region) {
-        this.constraints = new ArrayList<>();
+        this.constraints = new ConstraintList();
         this.features = new HashMap<>();
         this.region = region;
     }
 
     public RecreationModel(final Region region, final String filePath) {
-        this.constraints = new ArrayList<>();
+        this.constraints = new ConstraintList();
         this.features = new HashMap<>();
         this.region = region;
         this.filePath = filePath;
@@ -60,10 +61,9 @@ public class RecreationModel {
         logger.info("[contextualize] {} constraints in region {} with region value {}", 
                 constraints.size(), getRegion().getRegionString(), region.ordinal());
 
-        // contextualize each constraint with the respective region value
-        for (AbstractConstraint constraint : constraints) {
-            constraint.doContextualize(region.ordinal());
-        }
+        // contextualize each constraint with the respective region value, as a view so that models sharing
+        // the constraint are not affected
+        constraints.replaceAll(constraint -> constraint.contextualizedWith(region.ordinal()));
 
         // Create features that we need to represent the Region structure
         Feature regionFeature = new Feature(Region.REGION_STRING);
@@ -100,6 +100,27 @@ public class RecreationModel {
         logger.info("");
     }
 
+    /*
+     * Returns a contextualized copy of the model without changing the model. The copy has its own feature map
+     * and constraint list and shares the features and constraint operands with the model, so it can be taken
+     * concurrently by any number of merges. A model that is already contextualized is only copied.
+     */
+    public RecreationModel contextualizedCopy() {
+        final RecreationModel copy = new RecreationModel(region, filePath);
+        copy.setRootFeature(rootFeature);
+        copy.getFeatures().putAll(features);
+        copy.addConstraints(constraints);
+        if (!isContextualized()) {
+            copy.contextualizeAllConstraints();
+        }
+        return copy;
+    }
+
+    // true if the model contains the region structure created by contextualizeAllConstraints
+    public boolean isContextualized() {
+        return features.containsKey(Region.REGION_STRING) && features.containsKey(getRegionString());
+    }
+
     public void addConstraint(AbstractConstraint c) {
         constraints.add(c);
     }
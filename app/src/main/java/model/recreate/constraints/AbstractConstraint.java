@@ -16,6 +16,14 @@ import lombok.Setter;
  * - Classification: Constraints are marked as custom or feature tree constraints 
  *                   if they are introduced during the merge process and dont originate from one of the original models.
  * 
+ * Views: contextualizedWith(), decontextualized(), negated() and view() return shallow copies of the
+ * constraint with their own flags that share the operands (features, nested constraints, group children).
+ * Operands are not modified once a model is built, so models can share constraint trees and only copy the
+ * small constraint object where the flags differ, copy() stays for deep copies.
+ * 
+ * A {@link model.recreate.ConstraintList} counts a constraint with the flags it has when it is added or set,
+ * flags of a listed constraint are changed through a view that replaces it, or the constraint is set again.
+ * 
  * Concrete subclasses:
  * - BinaryConstraint: Logical operations (AND, OR, IMPLIES, IFF)
  * - GroupConstraint: Parent-child relationships with cardinality constraints
@@ -59,6 +67,44 @@ public abstract class AbstractConstraint {
     }
 
     public abstract AbstractConstraint copy();
+
+    // shallow copy with the same flags, the operands are shared with this constraint
+    protected abstract AbstractConstraint shallowCopy();
+
+    public AbstractConstraint view() {
+        return shallowCopy();
+    }
+
+    public AbstractConstraint contextualizedWith(final Integer value) {
+        AbstractConstraint view = shallowCopy();
+        view.isContextualized = Boolean.TRUE;
+        view.contextualizationValue = value;
+        return view;
+    }
+
+    public AbstractConstraint decontextualized() {
+        AbstractConstraint view = shallowCopy();
+        view.isContextualized = Boolean.FALSE;
+        view.contextualizationValue = null;
+        return view;
+    }
+
+    public AbstractConstraint negated() {
+        AbstractConstraint view = shallowCopy();
+        view.isNegation = Boolean.TRUE;
+        return view;
+    }
+
+    // copies the flags of this constraint to the given constraint
+    protected <T extends AbstractConstraint> T withFlagsOf(final T target) {
+        final AbstractConstraint flags = target;
+        flags.isContextualized = isContextualized;
+        flags.contextualizationValue = contextualizationValue;
+        flags.isNegation = isNegation;
+        flags.isCustomConstraint = isCustomConstraint;
+        flags.isFeatureTreeConstraint = isFeatureTreeConstraint;
+        return target;
+    }
     
     @Override
     public String toString() {
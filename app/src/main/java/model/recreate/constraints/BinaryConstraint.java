@@ -67,6 +67,12 @@ public class BinaryConstraint extends AbstractConstraint {
                 this.isFeatureTreeConstraint());
     }
 
+    @Override
+    protected BinaryConstraint shallowCopy() {
+        return new BinaryConstraint(antecedent, operator, consequent, isContextualized(),
+                getContextualizationValue(), isNegation(), isCustomConstraint(), isFeatureTreeConstraint());
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(super.toString());
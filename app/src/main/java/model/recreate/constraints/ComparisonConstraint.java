@@ -63,6 +63,12 @@ public class ComparisonConstraint extends AbstractConstraint {
                 this.isCustomConstraint(),
                 this.isFeatureTreeConstraint());
     }
+
+    @Override
+    protected ComparisonConstraint shallowCopy() {
+        return new ComparisonConstraint(leftOperand, operator, rightOperand, isContextualized(),
+                getContextualizationValue(), isNegation(), isCustomConstraint(), isFeatureTreeConstraint());
+    }
     
     @Override
     public String toString() {
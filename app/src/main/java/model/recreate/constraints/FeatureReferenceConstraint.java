@@ -41,6 +41,11 @@ public class FeatureReferenceConstraint extends AbstractConstraint
                 this.isCustomConstraint(),
                 this.isFeatureTreeConstraint());
         }
+
+        @Override
+        protected FeatureReferenceConstraint shallowCopy() {
+            return (FeatureReferenceConstraint) copy();
+        }
         
         @Override
         public String toString() {
@@ -62,6 +62,12 @@ public class GroupConstraint extends AbstractConstraint {
                 this.isCustomConstraint(),
                 this.isFeatureTreeConstraint());
     }
+
+    @Override
+    protected GroupConstraint shallowCopy() {
+        return new GroupConstraint(parent, children, lowerCardinality, upperCardinality, isContextualized(),
+                getContextualizationValue(), isNegation(), isCustomConstraint(), isFeatureTreeConstraint());
+    }
     
     @Override
     public String toString() {
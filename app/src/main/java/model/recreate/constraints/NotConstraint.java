@@ -32,6 +32,11 @@ public class NotConstraint extends AbstractConstraint {
     public AbstractConstraint copy() {
         return new NotConstraint(this.inner.copy(), this.isContextualized(), this.getContextualizationValue(), this.isNegation(), this.isCustomConstraint(), this.isFeatureTreeConstraint());
     }
+
+    @Override
+    protected NotConstraint shallowCopy() {
+        return new NotConstraint(this.inner, this.isContextualized(), this.getContextualizationValue(), this.isNegation(), this.isCustomConstraint(), this.isFeatureTreeConstraint());
+    }
     
     @Override
     public String toString() {
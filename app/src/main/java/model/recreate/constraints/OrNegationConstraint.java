@@ -37,4 +37,9 @@ public class OrNegationConstraint extends AbstractConstraint {
         }
         return new OrNegationConstraint(copiedConstraints);
     }
+
+    @Override
+    protected OrNegationConstraint shallowCopy() {
+        return withFlagsOf(new OrNegationConstraint(constraints));
+    }
 }
\ No newline at end of file
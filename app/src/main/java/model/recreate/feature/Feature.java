@@ -1,21 +1,34 @@
 package model.recreate.feature;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.Setter;
 
 /*
  * Represents a feature in a feature model.
  * Features are the basic building blocks of feature models, representing
  * configurable options or components that can be selected or deselected.
+ * Each named feature carries the dense id of its name (see {@link FeatureIds}).
  */
 @Getter
-@Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Feature {
     private String name = null;
+    private int id = FeatureIds.UNKNOWN; // dense id of the feature name, shared by equally named features
+
+    public Feature(final String name) {
+        setName(name);
+    }
+
+    // renames the feature, the name is interned and the id follows it
+    public void setName(final String name) {
+        if (name == null) {
+            this.name = null;
+            this.id = FeatureIds.UNKNOWN;
+            return;
+        }
+        this.id = FeatureIds.of(name);
+        this.name = FeatureIds.nameOf(id);
+    }
 
     public Feature copy() {
         return new Feature(this.getName());
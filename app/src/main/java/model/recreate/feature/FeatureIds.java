@@ -0,0 +1,73 @@
+package model.recreate.feature;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.experimental.UtilityClass;
+
+/*
+ * Interns feature names to dense int ids.
+ * Every feature name maps to exactly one id, ids are handed out in registration order and are never reused,
+ * so equally named features of different models share their id. The ids index the feature variable tables
+ * of the solver models, which avoids hashing feature names during translation.
+ */
+@UtilityClass
+public class FeatureIds {
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, Integer> IDS_BY_NAME = new ConcurrentHashMap<>();
+    private static volatile String[] namesById = new String[0];
+    private static volatile int size = 0;
+
+    /*
+     * Returns the id of the given feature name, registering it with the next free id if it is unknown.
+     */
+    public static int of(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Feature name must not be null");
+        }
+
+        Integer id = IDS_BY_NAME.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (IDS_BY_NAME) {
+            return IDS_BY_NAME.computeIfAbsent(name, n -> {
+                int created = size;
+                String[] current = namesById;
+                if (created == current.length) {
+                    current = Arrays.copyOf(current, Math.max(16, created * 2));
+                }
+                current[created] = n;
+                namesById = current;
+                size = created + 1;
+                return created;
+            });
+        }
+    }
+
+    // returns the id of the given feature name without registering it, UNKNOWN if there is none
+    public static int find(final String name) {
+        Integer id = name == null ? null : IDS_BY_NAME.get(name);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /*
+     * Returns the interned name of the feature with the given id.
+     */
+    public static String nameOf(final int id) {
+        int bound = size;
+        String[] current = namesById;
+        if (id < 0 || id >= bound) {
+            throw new IllegalArgumentException("Unknown feature id: " + id);
+        }
+        return current[id];
+    }
+
+    // returns the number of registered feature names, all ids are below this bound
+    public static int count() {
+        return size;
+    }
+}
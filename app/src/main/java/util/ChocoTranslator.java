@@ -1,27 +1,48 @@
 package util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import lombok.experimental.UtilityClass;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.cnf.ILogical;
 import org.chocosolver.solver.constraints.nary.cnf.LogOp;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 
 import model.choco.ChocoModel;
+import model.choco.ConstraintKey;
+import model.choco.EncodingMode;
 import model.choco.Region;
 import model.recreate.RecreationModel;
 import model.recreate.constraints.*;
 import model.recreate.feature.Feature;
+import util.helper.MergerHelper;
 
 @UtilityClass
 public class ChocoTranslator {
     private static final Logger logger = LogManager.getLogger(ChocoTranslator.class);
 
+    // alternatives up to this size use the pairwise at most one encoding, larger ones the ladder encoding
+    private static final int PAIRWISE_AT_MOST_ONE_LIMIT = 6;
+
     public static ChocoModel convertToChocoModel(final RecreationModel recModel) {
-        logger.trace("[convertToChocoModel] converting model {} to choco", recModel.getRegionString());
-        final ChocoModel chocoModel = new ChocoModel(recModel.getRegion());
+        return convertToChocoModel(recModel, EncodingMode.REIFIED);
+    }
+
+    public static ChocoModel convertToChocoModel(final RecreationModel recModel, final EncodingMode encodingMode) {
+        logger.trace("[convertToChocoModel] converting model {} to choco with {} encoding", recModel.getRegionString(),
+                encodingMode);
+        final ChocoModel chocoModel = new ChocoModel(recModel.getRegion(), encodingMode,
+                recModel.getFeatures().size());
 
         if (recModel.getFeatures().isEmpty() || recModel.getConstraints().isEmpty()) {
             logger.warn("[convertToChocoModel] model has no features or constraints, returning empty model");
@@ -29,9 +50,9 @@ public class ChocoTranslator {
         }
 
         createFeatures(recModel, chocoModel);
-
-        chocoModel.setRootFeature(recModel.getRootFeature());
-        chocoModel.getModel().arithm(chocoModel.getFeature(recModel.getRootFeature().getName()), "=", 1).post();
+        createRootFeature(recModel, chocoModel);
+        chocoModel.setRegionFeatureIds(MergerHelper.collectRegionFeatureIds(recModel));
+        chocoModel.setFeatureTreeOrder(createFeatureTreeOrder(recModel, chocoModel.getRegionFeatureIds()));
 
         for (AbstractConstraint constraint : recModel.getConstraints()) {
             try {
@@ -47,51 +68,254 @@ public class ChocoTranslator {
         return chocoModel;
     }
 
+    /*
+     * Creates a choco model that only contains the features and the fixed root feature of the given model.
+     * Constraints can then be added one by one with {@link #postConstraint} or {@link #reifyConstraint},
+     * which is used by incremental consumers that do not want to retranslate the whole model per check.
+     */
+    public static ChocoModel convertFeaturesToChocoModel(final RecreationModel recModel) {
+        return convertFeaturesToChocoModel(recModel, EncodingMode.REIFIED);
+    }
+
+    public static ChocoModel convertFeaturesToChocoModel(final RecreationModel recModel, final EncodingMode encodingMode) {
+        logger.trace("[convertFeaturesToChocoModel] converting features of model {} to choco", recModel.getRegionString());
+        final ChocoModel chocoModel = new ChocoModel(recModel.getRegion(), encodingMode,
+                recModel.getFeatures().size());
+
+        createFeatures(recModel, chocoModel);
+        createRootFeature(recModel, chocoModel);
+        chocoModel.setRegionFeatureIds(MergerHelper.collectRegionFeatureIds(recModel));
+        chocoModel.setFeatureTreeOrder(createFeatureTreeOrder(recModel, chocoModel.getRegionFeatureIds()));
+
+        return chocoModel;
+    }
+
+    // posts the constraint exactly like convertToChocoModel does for every constraint of a model
+    public static void postConstraint(final AbstractConstraint constraint, final ChocoModel chocoModel) {
+        processConstraint(constraint, chocoModel);
+    }
+
+    // returns a boolVar that is true iff the (possibly negated) constraint holds, ignoring its contextualization
+    public static BoolVar reifyConstraint(final AbstractConstraint constraint, final ChocoModel chocoModel) {
+        return createConstraintVar(constraint, chocoModel, null);
+    }
+
+    // returns a boolVar that is true iff the group cardinality holds, without the child to parent implications
+    public static BoolVar reifyGroupLogic(final GroupConstraint gc, final ChocoModel chocoModel) {
+        BoolVar logicVar = createGroupLogicVar(gc, chocoModel, "groupLogic_" + gc.getParent().getName());
+        return gc.isNegation() ? chocoModel.getModel().boolNotView(logicVar) : logicVar;
+    }
+
+    // returns a boolVar that is true iff every selected child of the group implies its parent
+    public static BoolVar reifyGroupImplications(final GroupConstraint gc, final ChocoModel chocoModel) {
+        final Model model = chocoModel.getModel();
+        BoolVar parentVar = chocoModel.getFeature(gc.getParent());
+
+        LogOp[] implications = gc.getChildren().stream()
+                .map(child -> LogOp.implies(chocoModel.getFeature(child), parentVar))
+                .toArray(LogOp[]::new);
+
+        BoolVar implicationsVar = model.boolVar("groupImplications_" + gc.getParent().getName());
+        model.addClauses(LogOp.ifOnlyIf(implicationsVar, LogOp.and(implications)));
+
+        return implicationsVar;
+    }
+
+    // returns the boolVar of the region feature the constraint is contextualized with, null if not contextualized
+    public static BoolVar getRegionVar(final AbstractConstraint constraint, final ChocoModel chocoModel) {
+        if (!constraint.isContextualized()) {
+            return null;
+        }
+
+        return chocoModel.getFeature(Region.byId(constraint.getContextualizationValue()).getFeatureId());
+    }
+
     private static void createFeatures(final RecreationModel recModel, final ChocoModel chocoModel) {
         for (Feature feature : recModel.getFeatures().values()) {
-            chocoModel.addFeature(feature.getName());
+            chocoModel.addFeature(feature);
         }
         
         logger.trace("\t[createFeatures] created {} features for choco model {}", recModel.getFeatures().size(), recModel.getRegionString());
     }
 
+    private static void createRootFeature(final RecreationModel recModel, final ChocoModel chocoModel) {
+        chocoModel.setRootFeature(recModel.getRootFeature());
+        BoolVar rootVar = chocoModel.getFeature(recModel.getRootFeature());
+        if (isClausal(chocoModel)) {
+            chocoModel.getModel().addClauseTrue(rootVar);
+        } else {
+            chocoModel.getModel().arithm(rootVar, "=", 1).post();
+        }
+    }
+
+    /*
+     * Returns the feature ids in depth first order of the feature tree: the root, the region features and
+     * then the children of every feature in pre-order, features outside the feature tree come last.
+     */
+    public static int[] createFeatureTreeOrder(final RecreationModel recModel) {
+        return createFeatureTreeOrder(recModel, MergerHelper.collectRegionFeatureIds(recModel));
+    }
+
+    private static int[] createFeatureTreeOrder(final RecreationModel recModel, final BitSet regionFeatureIds) {
+        Map<Integer, List<Feature>> childrenByParent = new HashMap<>();
+        for (AbstractConstraint constraint : recModel.getConstraints()) {
+            if (constraint instanceof GroupConstraint gc && gc.isFeatureTreeConstraint() && gc.getParent() != null) {
+                childrenByParent.computeIfAbsent(gc.getParent().getId(), id -> new ArrayList<>())
+                        .addAll(gc.getChildren());
+            }
+        }
+
+        int[] order = new int[recModel.getFeatures().size() + 1];
+        int size = 0;
+        BitSet visited = new BitSet();
+
+        Feature root = recModel.getRootFeature();
+        if (root != null) {
+            order[size++] = root.getId();
+            visited.set(root.getId());
+        }
+        for (Feature feature : recModel.getFeatures().values()) {
+            int id = feature.getId();
+            if (id >= 0 && !visited.get(id) && regionFeatureIds.get(id)) {
+                order[size++] = id;
+                visited.set(id);
+            }
+        }
+
+        Deque<Feature> stack = new ArrayDeque<>();
+        pushChildren(stack, root == null ? null : childrenByParent.get(root.getId()));
+        while (!stack.isEmpty()) {
+            Feature feature = stack.pop();
+            if (visited.get(feature.getId()) || !recModel.getFeatures().containsKey(feature.getName())) {
+                continue;
+            }
+            order[size++] = feature.getId();
+            visited.set(feature.getId());
+            pushChildren(stack, childrenByParent.get(feature.getId()));
+        }
+
+        for (Feature feature : recModel.getFeatures().values()) {
+            if (!visited.get(feature.getId())) {
+                order[size++] = feature.getId();
+                visited.set(feature.getId());
+            }
+        }
+
+        return Arrays.copyOf(order, size);
+    }
+
+    // pushes the children in reverse order, so the first child is visited first
+    private static void pushChildren(final Deque<Feature> stack, final List<Feature> children) {
+        if (children == null) {
+            return;
+        }
+        for (int i = children.size() - 1; i >= 0; i--) {
+            stack.push(children.get(i));
+        }
+    }
+
+    private static boolean isClausal(final ChocoModel chocoModel) {
+        return chocoModel.getEncodingMode() == EncodingMode.CLAUSAL;
+    }
+
     private static void processConstraint(final AbstractConstraint constraint, final ChocoModel chocoModel) {
         final Model model = chocoModel.getModel();
-        BoolVar regionVar = null;
-        
-        if (constraint.isContextualized()) {
-            regionVar = chocoModel
-                    .getFeature(Region.values()[constraint.getContextualizationValue()].getRegionString());
+        if (isRegionSelectorGroup(constraint, chocoModel.getRegionFeatureIds())) {
+            postRegionSelector((GroupConstraint) constraint, chocoModel);
+            return;
         }
+
+        BoolVar regionVar = getRegionVar(constraint, chocoModel);
         
         BoolVar constraintVar = createConstraintVar(constraint, chocoModel, regionVar);
 
         if (constraint.isContextualized()) {
             // For group constraints, contextualization is handled internally
             // For other constraints, apply top-level contextualization
-            if (!(constraint instanceof GroupConstraint)) {
+            if (constraint instanceof GroupConstraint) {
+                return;
+            }
+            if (isClausal(chocoModel)) {
+                model.addClauses(LogOp.implies(regionVar, constraintVar));
+            } else {
                 model.ifThen(regionVar, model.arithm(constraintVar, "=", 1));
             }
+        } else if (isClausal(chocoModel)) {
+            model.addClauseTrue(constraintVar);
         } else {
             model.post(model.arithm(constraintVar, "=", 1));
         }
     }
 
+    // the alternative group below the region root (or an intermediate region) that selects exactly one region
+    private static boolean isRegionSelectorGroup(final AbstractConstraint constraint, final BitSet regionFeatureIds) {
+        return constraint instanceof GroupConstraint gc
+                && gc.isCustomConstraint()
+                && !gc.isContextualized()
+                && !gc.isNegation()
+                && gc.getLowerCardinality() == 1
+                && gc.getUpperCardinality() == 1
+                && gc.getParent().getId() >= 0 && regionFeatureIds.get(gc.getParent().getId())
+                && gc.getChildren().stream().mapToInt(Feature::getId).allMatch(id -> id >= 0 && regionFeatureIds.get(id));
+    }
+
+    /*
+     * Encodes the region selector group with one int variable channeled to the region features instead of
+     * the reified cardinality of a generic group. The selector takes the position of the selected region
+     * child, or the number of children if the region root is deselected, which enforces exactly the group
+     * logic and the child to parent implications with a single propagator independent of the region count.
+     */
+    private static void postRegionSelector(final GroupConstraint gc, final ChocoModel chocoModel) {
+        final Model model = chocoModel.getModel();
+        BoolVar parentVar = chocoModel.getFeature(gc.getParent());
+
+        BoolVar[] channel = new BoolVar[gc.getChildren().size() + 1];
+        for (int i = 0; i < gc.getChildren().size(); i++) {
+            channel[i] = chocoModel.getFeature(gc.getChildren().get(i));
+        }
+        channel[channel.length - 1] = model.boolNotView(parentVar);
+
+        IntVar selector = model.intVar("regionSelector_" + gc.getParent().getName(), 0, channel.length - 1);
+        model.boolsIntChanneling(channel, selector, 0).post();
+        if (Region.REGION_STRING.equals(gc.getParent().getName())) {
+            chocoModel.setRegionSelector(selector);
+        }
+
+        logger.trace("\t[postRegionSelector] channeled {} regions to the region selector", gc.getChildren().size());
+    }
+
     private static BoolVar createConstraintVar(final AbstractConstraint constraint, final ChocoModel chocoModel, final BoolVar regionVar) {
         final Model model = chocoModel.getModel();
-        BoolVar baseVar;
 
-        baseVar = switch (constraint) {
-            case GroupConstraint gc -> createGroupConstraintVar(gc, chocoModel, regionVar);
-            case BinaryConstraint bc -> createBinaryConstraintVar(bc, chocoModel);
-            case NotConstraint nc -> createNotConstraintVar(nc, chocoModel);
-            case FeatureReferenceConstraint frc -> chocoModel.getFeature(frc.getFeature().getName());
-            case OrNegationConstraint onc -> createOrNegationConstraintVar(onc, chocoModel);
-            default -> throw new UnsupportedOperationException(
-                    "Unsupported constraint type: " + constraint.getClass().getSimpleName());
-        };
+        // Structurally equal constraints share one boolVar, only groups depend on their region
+        final ConstraintKey key = ConstraintKey.of(constraint,
+                regionVar == null ? null : constraint.getContextualizationValue());
+        BoolVar baseVar = chocoModel.getConstraintVar(key);
+
+        if (baseVar == null) {
+            baseVar = switch (constraint) {
+                case GroupConstraint gc -> createGroupConstraintVar(gc, chocoModel, regionVar);
+                case BinaryConstraint bc -> createBinaryConstraintVar(bc, chocoModel);
+                case NotConstraint nc -> createNotConstraintVar(nc, chocoModel);
+                case FeatureReferenceConstraint frc -> chocoModel.getFeature(frc.getFeature());
+                case OrNegationConstraint onc -> createOrNegationConstraintVar(onc, chocoModel);
+                default -> throw new UnsupportedOperationException(
+                        "Unsupported constraint type: " + constraint.getClass().getSimpleName());
+            };
+            chocoModel.cacheConstraintVar(key, baseVar);
+        }
+
+        if (!constraint.isNegation()) {
+            return baseVar;
+        }
+
+        final ConstraintKey negatedKey = key == null ? null : key.negated();
+        BoolVar negatedVar = chocoModel.getConstraintVar(negatedKey);
+        if (negatedVar == null) {
+            negatedVar = chocoModel.cacheConstraintVar(negatedKey, model.boolNotView(baseVar));
+        }
 
-        return constraint.isNegation() ? model.boolNotView(baseVar) : baseVar;
+        return negatedVar;
     }
 
     private static BoolVar createOrNegationConstraintVar(OrNegationConstraint onc, ChocoModel chocoModel) {
@@ -100,13 +324,13 @@ public class ChocoTranslator {
         // Construct reified violation indicators: bad_i ≡ (¬c_i) or (region_i ∧ ¬c_i) if contextualized
         BoolVar[] reifiedVars = new BoolVar[onc.getConstraints().size()];
 
-        for (int i = 0; i < onc.getConstraints().size(); i++) {
-            AbstractConstraint c = onc.getConstraints().get(i);
+        // iterate instead of indexing, the constraints may be the linked constraint list of a model
+        int i = 0;
+        for (AbstractConstraint c : onc.getConstraints()) {
 
             if (c.isContextualized()) {
                 // Region-gated violation: active only if region is true
-                BoolVar regionVar = chocoModel.getFeature(
-                    Region.values()[c.getContextualizationValue()].getRegionString());
+                BoolVar regionVar = getRegionVar(c, chocoModel);
 
                 BoolVar phi = createConstraintVar(c, chocoModel, regionVar);
 
@@ -127,6 +351,7 @@ public class ChocoTranslator {
                 // Optimization: Use lightweight view instead of heavy reification
                 reifiedVars[i] = phi.not();
             }
+            i++;
         }
 
         
@@ -146,34 +371,19 @@ public class ChocoTranslator {
 
     private static BoolVar createGroupConstraintVar(final GroupConstraint gc, final ChocoModel chocoModel, final BoolVar regionVar) {
         final Model model = chocoModel.getModel();
-        BoolVar parentVar = chocoModel.getFeature(gc.getParent().getName());
+        BoolVar parentVar = chocoModel.getFeature(gc.getParent());
 
         BoolVar[] childVars = gc.getChildren().stream()
-                .map(child -> chocoModel.getFeature(child.getName()))
+                .map(child -> chocoModel.getFeature(child))
                 .toArray(BoolVar[]::new);
 
-        // Create sum constraint for children selection - this is always needed to define sumVar
-        IntVar sumVar = model.intVar("sum_" + gc.getParent().getName(), 0, childVars.length);
-        model.sum(childVars, "=", sumVar).post();
-
-        // Create reified variables for the conditions
-        BoolVar cardinalitySatisfied = model.and(
-                model.arithm(sumVar, ">=", gc.getLowerCardinality()),
-                model.arithm(sumVar, "<=", gc.getUpperCardinality())).reify();
-        BoolVar childrenAreZero = model.arithm(sumVar, "=", 0).reify();
-
-        // Create the group satisfaction variable
-        BoolVar groupSat = model.boolVar("groupSat_" + gc.getParent().getName());
+        if (isClausal(chocoModel)) {
+            return createClausalGroupConstraintVar(gc, chocoModel, regionVar, parentVar, childVars);
+        }
 
-        // Post the bi-directional relationship:
-        // groupSat ⇔ (parent ∧ cardinalitySatisfied) ∨ (¬parent ∧ childrenAreZero)
-        BoolVar parentAndCardinality = model.and(parentVar, cardinalitySatisfied).reify();
-        BoolVar notParentAndZero = model.and(model.boolNotView(parentVar), childrenAreZero).reify();
-        
         if (regionVar != null) {
             // Contextualized: only enforce group logic when region is active
-            BoolVar groupLogic = model.boolVar("groupLogic_" + gc.getParent().getName());
-            model.addClauses(LogOp.ifOnlyIf(groupLogic, LogOp.or(parentAndCardinality, notParentAndZero)));
+            BoolVar groupLogic = createGroupLogicVar(gc, chocoModel, "groupLogic_" + gc.getParent().getName());
             model.ifThen(regionVar, model.arithm(groupLogic, "=", 1));
             
             // Child->Parent implications only when region is active
@@ -182,20 +392,250 @@ public class ChocoTranslator {
             }
             
             // Group satisfaction: true when region is inactive, or when region is active and group logic holds
+            BoolVar groupSat = model.boolVar("groupSat_" + gc.getParent().getName());
             model.addClauses(LogOp.ifOnlyIf(groupSat, LogOp.or(model.boolNotView(regionVar), groupLogic)));
-        } else {
-            // Non-contextualized: standard group constraint behavior
-            model.addClauses(LogOp.ifOnlyIf(groupSat, LogOp.or(parentAndCardinality, notParentAndZero)));
-            
-            // Standard child->parent implications
+            return groupSat;
+        }
+
+        // Non-contextualized: standard group constraint behavior
+        BoolVar groupSat = createGroupLogicVar(gc, chocoModel, "groupSat_" + gc.getParent().getName());
+
+        // Standard child->parent implications
+        for (BoolVar child : childVars) {
+            model.ifThen(child, model.arithm(parentVar, "=", 1));
+        }
+
+        return groupSat;
+    }
+
+    // clause encoding of the group constraint, the region gates clauses instead of ifThen and reified ands
+    private static BoolVar createClausalGroupConstraintVar(final GroupConstraint gc, final ChocoModel chocoModel,
+            final BoolVar regionVar, final BoolVar parentVar, final BoolVar[] childVars) {
+        final Model model = chocoModel.getModel();
+
+        if (regionVar == null) {
+            BoolVar groupSat = createGroupLogicVar(gc, chocoModel, "groupSat_" + gc.getParent().getName());
             for (BoolVar child : childVars) {
-                model.ifThen(child, model.arithm(parentVar, "=", 1));
+                model.addClauses(LogOp.implies(child, parentVar));
             }
+            return groupSat;
+        }
+
+        // region → groupLogic and (region ∧ child) → parent
+        BoolVar groupLogic = createGroupLogicVar(gc, chocoModel, "groupLogic_" + gc.getParent().getName());
+        model.addClauses(LogOp.implies(regionVar, groupLogic));
+        for (BoolVar child : childVars) {
+            model.addClauses(LogOp.or(regionVar.not(), child.not(), parentVar));
         }
 
+        BoolVar groupSat = model.boolVar("groupSat_" + gc.getParent().getName());
+        model.addClauses(LogOp.ifOnlyIf(groupSat, LogOp.or(regionVar.not(), groupLogic)));
         return groupSat;
     }
 
+    private static BoolVar createGroupLogicVar(final GroupConstraint gc, final ChocoModel chocoModel, final String name) {
+        final Model model = chocoModel.getModel();
+        final ConstraintKey key = ConstraintKey.ofGroupLogic(gc);
+        BoolVar cachedLogicVar = chocoModel.getConstraintVar(key);
+        if (cachedLogicVar != null) {
+            return cachedLogicVar;
+        }
+
+        BoolVar parentVar = chocoModel.getFeature(gc.getParent());
+
+        // Alternative, or, optional and mandatory groups are encoded as clauses without a sum
+        ILogical shapeLogic = createCardinalityShapeLogic(gc, chocoModel, parentVar);
+        if (shapeLogic != null) {
+            BoolVar logicVar = model.boolVar(name);
+            model.addClauses(LogOp.ifOnlyIf(logicVar, shapeLogic));
+            return chocoModel.cacheConstraintVar(key, logicVar);
+        }
+
+        IntVar sumVar = getSumVar(gc, chocoModel);
+
+        if (isClausal(chocoModel)) {
+            // Views on the sum replace the reified arithmetic constraints
+            BoolVar cardinalitySatisfied = model.boolVar("cardinality_" + gc.getParent().getName());
+            model.addClauses(LogOp.ifOnlyIf(cardinalitySatisfied, LogOp.and(
+                    model.intGeView(sumVar, gc.getLowerCardinality()),
+                    model.intLeView(sumVar, gc.getUpperCardinality()))));
+            BoolVar childrenAreZero = model.intEqView(sumVar, 0);
+
+            BoolVar logicVar = model.boolVar(name);
+            model.addClauses(LogOp.ifOnlyIf(logicVar, LogOp.or(
+                    LogOp.and(parentVar, cardinalitySatisfied),
+                    LogOp.and(parentVar.not(), childrenAreZero))));
+
+            return chocoModel.cacheConstraintVar(key, logicVar);
+        }
+
+        // Create reified variables for the conditions
+        BoolVar cardinalitySatisfied = model.and(
+                model.arithm(sumVar, ">=", gc.getLowerCardinality()),
+                model.arithm(sumVar, "<=", gc.getUpperCardinality())).reify();
+        BoolVar childrenAreZero = model.arithm(sumVar, "=", 0).reify();
+
+        // Post the bi-directional relationship:
+        // logic ⇔ (parent ∧ cardinalitySatisfied) ∨ (¬parent ∧ childrenAreZero)
+        BoolVar parentAndCardinality = model.and(parentVar, cardinalitySatisfied).reify();
+        BoolVar notParentAndZero = model.and(model.boolNotView(parentVar), childrenAreZero).reify();
+
+        BoolVar logicVar = model.boolVar(name);
+        model.addClauses(LogOp.ifOnlyIf(logicVar, LogOp.or(parentAndCardinality, notParentAndZero)));
+
+        return chocoModel.cacheConstraintVar(key, logicVar);
+    }
+
+    /*
+     * Returns the group logic (parent ∧ cardinality) ∨ (¬parent ∧ no child) for the common cardinality shapes,
+     * null for genuine [n..m] cardinalities that need the sum of the children:
+     *
+     * - [0..n] optional:     parent ∨ ¬any
+     * - [1..n] or:           parent ⇔ any
+     * - [1..1] alternative:  (parent ⇔ any) ∧ atMostOne
+     * - [0..1]:              (parent ∨ ¬any) ∧ atMostOne
+     * - [n..n] mandatory:    (parent ∧ all) ∨ (¬parent ∧ ¬any)
+     */
+    private static ILogical createCardinalityShapeLogic(final GroupConstraint gc, final ChocoModel chocoModel,
+            final BoolVar parentVar) {
+        final int children = gc.getChildren().size();
+        final int lower = gc.getLowerCardinality();
+        final int upper = Math.min(gc.getUpperCardinality(), children);
+        if (children == 0 || lower > upper) {
+            return null;
+        }
+
+        final List<Integer> childIds = getSortedChildIds(gc);
+        if (lower <= 0 && upper == children) {
+            return LogOp.or(parentVar, getAnySelectedVar(childIds, chocoModel).not());
+        } else if (lower == 1 && upper == children) {
+            return LogOp.ifOnlyIf(parentVar, getAnySelectedVar(childIds, chocoModel));
+        } else if (lower == 1 && upper == 1) {
+            return LogOp.and(LogOp.ifOnlyIf(parentVar, getAnySelectedVar(childIds, chocoModel)),
+                    getAtMostOneVar(childIds, chocoModel));
+        } else if (lower <= 0 && upper == 1) {
+            return LogOp.and(LogOp.or(parentVar, getAnySelectedVar(childIds, chocoModel).not()),
+                    getAtMostOneVar(childIds, chocoModel));
+        } else if (lower == children) {
+            return LogOp.or(LogOp.and(parentVar, getAllSelectedVar(childIds, chocoModel)),
+                    LogOp.and(parentVar.not(), getAnySelectedVar(childIds, chocoModel).not()));
+        }
+
+        return null;
+    }
+
+    private static List<Integer> getSortedChildIds(final GroupConstraint gc) {
+        return gc.getChildren().stream().map(Feature::getId).sorted().toList();
+    }
+
+    private static BoolVar[] getChildVars(final List<Integer> childIds, final ChocoModel chocoModel) {
+        return childIds.stream().map(chocoModel::getFeature).toArray(BoolVar[]::new);
+    }
+
+    // any ⇔ c1 ∨ ... ∨ cn, shared by groups with the same children
+    private static BoolVar getAnySelectedVar(final List<Integer> childIds, final ChocoModel chocoModel) {
+        return chocoModel.getAnySelectedVars().computeIfAbsent(childIds, ids -> {
+            BoolVar[] childVars = getChildVars(ids, chocoModel);
+            if (childVars.length == 1) {
+                return childVars[0];
+            }
+            BoolVar anyVar = chocoModel.getModel().boolVar("any_" + childVars[0].getName());
+            chocoModel.getModel().addClauses(LogOp.ifOnlyIf(anyVar, LogOp.or(childVars)));
+            return anyVar;
+        });
+    }
+
+    // all ⇔ c1 ∧ ... ∧ cn, shared by groups with the same children
+    private static BoolVar getAllSelectedVar(final List<Integer> childIds, final ChocoModel chocoModel) {
+        return chocoModel.getAllSelectedVars().computeIfAbsent(childIds, ids -> {
+            BoolVar[] childVars = getChildVars(ids, chocoModel);
+            if (childVars.length == 1) {
+                return childVars[0];
+            }
+            BoolVar allVar = chocoModel.getModel().boolVar("all_" + childVars[0].getName());
+            chocoModel.getModel().addClauses(LogOp.ifOnlyIf(allVar, LogOp.and(childVars)));
+            return allVar;
+        });
+    }
+
+    // atMostOne ⇔ at most one of c1 ... cn is selected, shared by groups with the same children
+    private static BoolVar getAtMostOneVar(final List<Integer> childIds, final ChocoModel chocoModel) {
+        return chocoModel.getAtMostOneVars().computeIfAbsent(childIds, ids -> {
+            BoolVar[] childVars = getChildVars(ids, chocoModel);
+            if (childVars.length == 1) {
+                return chocoModel.getModel().boolVar(true);
+            }
+            BoolVar atMostOneVar = chocoModel.getModel().boolVar("atMostOne_" + childVars[0].getName());
+            if (childVars.length <= PAIRWISE_AT_MOST_ONE_LIMIT) {
+                postPairwiseAtMostOne(chocoModel.getModel(), childVars, atMostOneVar);
+            } else {
+                postLadderAtMostOne(chocoModel.getModel(), childVars, atMostOneVar);
+            }
+            return atMostOneVar;
+        });
+    }
+
+    /*
+     * Pairwise encoding without auxiliary variables:
+     * atMostOne → (¬ci ∨ ¬cj) for every pair, and every assignment with at most one selected child,
+     * that is all children except ci are deselected, implies atMostOne.
+     */
+    private static void postPairwiseAtMostOne(final Model model, final BoolVar[] childVars, final BoolVar atMostOneVar) {
+        for (int i = 0; i < childVars.length; i++) {
+            for (int j = i + 1; j < childVars.length; j++) {
+                model.addClauses(LogOp.or(atMostOneVar.not(), childVars[i].not(), childVars[j].not()));
+            }
+
+            BoolVar[] others = new BoolVar[childVars.length];
+            others[0] = atMostOneVar;
+            for (int j = 0, k = 1; j < childVars.length; j++) {
+                if (j != i) {
+                    others[k++] = childVars[j];
+                }
+            }
+            model.addClauses(LogOp.or(others));
+        }
+    }
+
+    /*
+     * Ladder (sequential counter) encoding with a linear number of clauses:
+     * prefix_i ⇔ c1 ∨ ... ∨ ci and twice_i ⇔ prefix_i-1 ∧ ci, at most one child is selected iff no child
+     * is selected after an earlier one.
+     */
+    private static void postLadderAtMostOne(final Model model, final BoolVar[] childVars, final BoolVar atMostOneVar) {
+        BoolVar[] twice = new BoolVar[childVars.length - 1];
+        BoolVar prefix = childVars[0];
+        for (int i = 1; i < childVars.length; i++) {
+            twice[i - 1] = model.boolVar();
+            model.addClauses(LogOp.ifOnlyIf(twice[i - 1], LogOp.and(prefix, childVars[i])));
+
+            if (i < childVars.length - 1) {
+                BoolVar nextPrefix = model.boolVar();
+                model.addClauses(LogOp.ifOnlyIf(nextPrefix, LogOp.or(prefix, childVars[i])));
+                prefix = nextPrefix;
+            }
+        }
+        model.addClauses(LogOp.ifOnlyIf(atMostOneVar.not(), LogOp.or(twice)));
+    }
+
+    // groups with the same children share one sum variable
+    private static IntVar getSumVar(final GroupConstraint gc, final ChocoModel chocoModel) {
+        final Model model = chocoModel.getModel();
+        List<Integer> childIds = getSortedChildIds(gc);
+
+        IntVar sumVar = chocoModel.getSumVar(childIds);
+        if (sumVar == null) {
+            BoolVar[] childVars = getChildVars(childIds, chocoModel);
+
+            // Create sum constraint for children selection - this is always needed to define sumVar
+            sumVar = model.intVar("sum_" + gc.getParent().getName(), 0, childVars.length);
+            model.sum(childVars, "=", sumVar).post();
+            chocoModel.cacheSumVar(childIds, sumVar);
+        }
+
+        return sumVar;
+    }
+
     private static BoolVar createBinaryConstraintVar(final BinaryConstraint bc, final ChocoModel chocoModel) {
         final Model model = chocoModel.getModel();
         BoolVar antecedent = getConstraintVar((AbstractConstraint) bc.getAntecedent(), chocoModel);
@@ -226,20 +666,30 @@ public class ChocoTranslator {
 
         // Create an explicit variable instead of a view
         BoolVar notVar = model.boolVar("not_" + inner.getName());
-        model.arithm(inner, "=", 0).reifyWith(notVar);
+        if (isClausal(chocoModel)) {
+            model.addClauses(LogOp.ifOnlyIf(notVar, inner.not()));
+        } else {
+            model.arithm(inner, "=", 0).reifyWith(notVar);
+        }
 
         return notVar;
     }
 
     private static BoolVar getConstraintVar(final AbstractConstraint constraint, final ChocoModel chocoModel) {
+        final ConstraintKey key = ConstraintKey.of(constraint, null);
+        BoolVar cachedVar = chocoModel.getConstraintVar(key);
+        if (cachedVar != null) {
+            return cachedVar;
+        }
+
         if (constraint instanceof FeatureReferenceConstraint frc) {
-            return chocoModel.getFeature(frc.getFeature().getName());
+            return chocoModel.getFeature(frc.getFeature());
         } else if (constraint instanceof NotConstraint nc) {
-            return createNotConstraintVar(nc, chocoModel);
+            return chocoModel.cacheConstraintVar(key, createNotConstraintVar(nc, chocoModel));
         } else if (constraint instanceof BinaryConstraint bc) {
-            return createBinaryConstraintVar(bc, chocoModel);
+            return chocoModel.cacheConstraintVar(key, createBinaryConstraintVar(bc, chocoModel));
         } else if (constraint instanceof GroupConstraint gc) {
-            return createGroupConstraintVar(gc, chocoModel, null);
+            return chocoModel.cacheConstraintVar(key, createGroupConstraintVar(gc, chocoModel, null));
         } else if (constraint instanceof OrNegationConstraint onc) {
             return createOrNegationConstraintVar(onc, chocoModel);
         }
@@ -0,0 +1,74 @@
+package util;
+
+import model.choco.EncodingMode;
+import model.choco.SolverProfile;
+
+/*
+ * Options for a full or hierarchical merge.
+ *
+ * threads:                   number of worker threads of the inconsistency check, 1 runs the sequential check
+ *                            of the pseudocode, more threads check speculative batches on per thread solver
+ *                            replicas, a hierarchical merge uses them for concurrent pair merges instead
+ * encodingMode:              encoding of the choco models of the inconsistency check and the cleanup
+ * inconsistencyCheckProfile: search of the consistency checks of the inconsistency check
+ * cleanupProfile:            search of the consistency checks of the cleanup
+ * slicing:                   sequential checks try the cone-of-influence slice of the candidate first and only
+ *                            solve the full model if the slice does not refute it, off by default, the parallel
+ *                            inconsistency check does not slice, the cleanup always runs sequentially
+ */
+public record MergeOptions(int threads, EncodingMode encodingMode, SolverProfile inconsistencyCheckProfile,
+        SolverProfile cleanupProfile, boolean slicing) {
+
+    public MergeOptions {
+        if (threads < 1) {
+            throw new IllegalArgumentException("number of threads must be at least 1, got " + threads);
+        }
+        if (encodingMode == null) {
+            throw new IllegalArgumentException("encoding mode must not be null");
+        }
+        if (inconsistencyCheckProfile == null || cleanupProfile == null) {
+            throw new IllegalArgumentException("solver profiles must not be null");
+        }
+    }
+
+    public MergeOptions(final int threads) {
+        this(threads, EncodingMode.REIFIED, SolverProfile.defaultProfile(), SolverProfile.defaultProfile(), false);
+    }
+
+    public static MergeOptions sequential() {
+        return new MergeOptions(1);
+    }
+
+    public static MergeOptions parallel(final int threads) {
+        return new MergeOptions(threads);
+    }
+
+    public static MergeOptions parallel() {
+        return new MergeOptions(Runtime.getRuntime().availableProcessors());
+    }
+
+    public MergeOptions withEncodingMode(final EncodingMode mode) {
+        return new MergeOptions(threads, mode, inconsistencyCheckProfile, cleanupProfile, slicing);
+    }
+
+    public MergeOptions withInconsistencyCheckProfile(final SolverProfile profile) {
+        return new MergeOptions(threads, encodingMode, profile, cleanupProfile, slicing);
+    }
+
+    public MergeOptions withCleanupProfile(final SolverProfile profile) {
+        return new MergeOptions(threads, encodingMode, inconsistencyCheckProfile, profile, slicing);
+    }
+
+    public MergeOptions withSlicing(final boolean enabled) {
+        return new MergeOptions(threads, encodingMode, inconsistencyCheckProfile, cleanupProfile, enabled);
+    }
+
+    // the same options for a single threaded merge
+    public MergeOptions asSequential() {
+        return new MergeOptions(1, encodingMode, inconsistencyCheckProfile, cleanupProfile, slicing);
+    }
+
+    public boolean isParallel() {
+        return threads > 1;
+    }
+}
@@ -2,20 +2,28 @@ package util;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import lombok.experimental.UtilityClass;
 import model.choco.Region;
+import model.choco.SolverProfile;
 import model.recreate.RecreationModel;
 import model.recreate.constraints.AbstractConstraint;
 import model.recreate.feature.Feature;
-import util.analyse.Analyser;
+import util.analyse.impl.ConsistencySession;
 import util.analyse.impl.RecreationAnalyser;
 import util.analyse.statistics.MergeStatistics;
+import util.helper.ConeOfInfluenceSlicer;
+import util.helper.MergerException;
 import util.helper.MergerHelper;
+import util.helper.ParallelInconsistencyChecker;
 
 /*
  * Main feature model merging engine.
@@ -36,6 +44,9 @@ import util.helper.MergerHelper;
  *    - Removes redundant constraints that don't affect the solution space
  *    - Uses constraint negation to identify removable constraints
  *    - Ensures the final model is minimal while preserving semantics
+ * 
+ * fullMerge and hierarchicalMerge only read the source models, they merge contextualized copies and keep
+ * all state of a merge in the merge itself, so any number of merges can run concurrently on shared models.
  */
 @UtilityClass
 public class Merger {
@@ -45,44 +56,163 @@ public class Merger {
     }
 
     public static MergeResult fullMerge(final RecreationModel... sourceModelsToMerge) {
-        logger.info("[merge] starting full merge process between models from regions {}",
+        return fullMerge(MergeOptions.sequential(), sourceModelsToMerge);
+    }
+
+    public static MergeResult fullMerge(final MergeOptions mergeOptions, final RecreationModel... sourceModelsToMerge) {
+        logger.info("[merge] starting full merge process between models from regions {} with {} thread(s)",
                 String.join(", ", Arrays.stream(sourceModelsToMerge).map(RecreationModel::getRegion)
-                        .map(Region::getRegionString).toArray(String[]::new)));
+                        .map(Region::getRegionString).toArray(String[]::new)),
+                mergeOptions.threads());
 
         MergeStatistics mergeStatistics = new MergeStatistics();
         for (RecreationModel sourceModel : sourceModelsToMerge) {
             mergeStatistics.addMergedModelPath(sourceModel.getFilePath());
         }
 
-        // Contextualize both original region models
-        for (RecreationModel sourceModel : sourceModelsToMerge) {
-            sourceModel.contextualizeAllConstraints();
-        }
+        // Contextualize copies of the original region models, the source models are not changed
+        final RecreationModel[] contextualizedModels = MergerHelper.contextualizedCopies(sourceModelsToMerge);
 
-        RecreationModel unionModel = union(mergeStatistics, sourceModelsToMerge);
+        RecreationModel unionModel = union(mergeStatistics, contextualizedModels);
 
-        RecreationModel mergedModel = inconsistencyCheck(mergeStatistics, unionModel);
+        RecreationModel mergedModel = inconsistencyCheck(mergeStatistics, unionModel, mergeOptions);
 
-        cleanup(mergeStatistics, mergedModel);
+        cleanup(mergeStatistics, mergedModel, mergeOptions);
 
-        MergerHelper.setUniqueFeatuerPerModelToMergeStatistics(mergeStatistics, sourceModelsToMerge);
+        MergerHelper.setUniqueFeatuerPerModelToMergeStatistics(mergeStatistics, contextualizedModels);
         
         // Analyze contextualized constraints per region
         mergeStatistics.setNumberOfContextualizedConstraintsPerModel(
-                MergerHelper.analyzeContextualizedConstraintsPerRegion(mergedModel, sourceModelsToMerge));
+                MergerHelper.analyzeContextualizedConstraintsPerRegion(mergedModel, contextualizedModels));
         mergeStatistics.setNumberOfContextualizedCrossTreeConstraintsPerModel(
-                MergerHelper.analyzeContextualizedCrossTreeConstraintsPerRegion(mergedModel, sourceModelsToMerge));
+                MergerHelper.analyzeContextualizedCrossTreeConstraintsPerRegion(mergedModel, contextualizedModels));
         
         logger.info("[merge] finished full merge with {} constraints", mergedModel.getConstraints().size());
 
         return new MergeResult(mergedModel, mergeStatistics);
     }
 
+    public static MergeResult hierarchicalMerge(final RecreationModel... sourceModelsToMerge) {
+        return hierarchicalMerge(MergeOptions.parallel(), sourceModelsToMerge);
+    }
+
+    /*
+     * Merges the source models pairwise in a balanced binary tree instead of one union over all models.
+     * Independent pair merges of the same level run concurrently on a fork join pool with the given number
+     * of threads, every pair merge runs the sequential union, inconsistency check and cleanup.
+     *
+     * The merged model of a subtree is contextualized with an intermediate region before the next level,
+     * see {@link MergerHelper#recontextualizeMergedModel}. The intermediate regions are part of the final
+     * region structure, every source region is a leaf below the intermediate regions of its subtree.
+     * The returned statistics describe the last level.
+     */
+    public static MergeResult hierarchicalMerge(final MergeOptions mergeOptions,
+            final RecreationModel... sourceModelsToMerge) {
+        if (sourceModelsToMerge == null || sourceModelsToMerge.length < 2) {
+            logger.error("[hierarchicalMerge] number of input models must be at least 2");
+            throw new IllegalArgumentException("Number of input models in hierarchical merge must be at least 2");
+        }
+
+        logger.info("[hierarchicalMerge] starting hierarchical merge between models from regions {} with {} thread(s)",
+                MergerHelper.buildRegionString(", ", sourceModelsToMerge), mergeOptions.threads());
+
+        MergeStatistics mergeStatistics = new MergeStatistics();
+        for (RecreationModel sourceModel : sourceModelsToMerge) {
+            mergeStatistics.addMergedModelPath(sourceModel.getFilePath());
+        }
+
+        final RecreationModel[] contextualizedModels = MergerHelper.contextualizedCopies(sourceModelsToMerge);
+
+        RecreationModel mergedModel;
+        ForkJoinPool pool = new ForkJoinPool(mergeOptions.threads());
+        try {
+            mergedModel = pool.invoke(
+                    new HierarchicalMergeTask(List.of(contextualizedModels), mergeStatistics,
+                            mergeOptions.asSequential()));
+        } finally {
+            pool.shutdown();
+        }
+
+        MergerHelper.setUniqueFeatuerPerModelToMergeStatistics(mergeStatistics, contextualizedModels);
+        mergeStatistics.setNumberOfContextualizedConstraintsPerModel(
+                MergerHelper.analyzeContextualizedConstraintsPerRegion(mergedModel, contextualizedModels));
+        mergeStatistics.setNumberOfContextualizedCrossTreeConstraintsPerModel(
+                MergerHelper.analyzeContextualizedCrossTreeConstraintsPerRegion(mergedModel, contextualizedModels));
+
+        logger.info("[hierarchicalMerge] finished hierarchical merge with {} constraints",
+                mergedModel.getConstraints().size());
+
+        return new MergeResult(mergedModel, mergeStatistics);
+    }
+
+    // merges two (already recontextualized) models with one union, inconsistency check and cleanup
+    private static RecreationModel mergePair(final MergeStatistics mergeStatistics, final RecreationModel left,
+            final RecreationModel right, final MergeOptions pairOptions) {
+        RecreationModel unionModel = union(mergeStatistics, left, right);
+        RecreationModel mergedModel = inconsistencyCheck(mergeStatistics, unionModel,
+                pairOptions, Set.of(left.getRegion(), right.getRegion()));
+        return cleanup(mergeStatistics, mergedModel, pairOptions);
+    }
+
+    /*
+     * Merges a range of contextualized source models, the root task returns the final merged model,
+     * every other task returns its merged model contextualized with the intermediate region of its range.
+     */
+    private static final class HierarchicalMergeTask extends RecursiveTask<RecreationModel> {
+        private final List<RecreationModel> models;
+        private final MergeStatistics rootStatistics;
+        private final MergeOptions pairOptions;
+
+        private HierarchicalMergeTask(final List<RecreationModel> models, final MergeStatistics rootStatistics,
+                final MergeOptions pairOptions) {
+            this.models = models;
+            this.rootStatistics = rootStatistics;
+            this.pairOptions = pairOptions;
+        }
+
+        @Override
+        protected RecreationModel compute() {
+            if (models.size() == 1) {
+                return models.get(0);
+            }
+
+            int middle = models.size() / 2;
+            HierarchicalMergeTask leftTask = new HierarchicalMergeTask(models.subList(0, middle), null, pairOptions);
+            HierarchicalMergeTask rightTask = new HierarchicalMergeTask(models.subList(middle, models.size()), null,
+                    pairOptions);
+            rightTask.fork();
+            RecreationModel left = leftTask.compute();
+            RecreationModel right = rightTask.join();
+
+            if (rootStatistics != null) {
+                return mergePair(rootStatistics, left, right, pairOptions);
+            }
+
+            RecreationModel mergedModel = mergePair(new MergeStatistics(), left, right, pairOptions);
+            return MergerHelper.recontextualizeMergedModel(mergedModel, getIntermediateRegion());
+        }
+
+        // the intermediate region of a range is named after the source regions it covers
+        private Region getIntermediateRegion() {
+            String name = models.stream()
+                    .map(RecreationModel::getRegionString)
+                    .collect(Collectors.joining("_"));
+            if (models.stream().anyMatch(model -> model.getRegionString().equals(name))) {
+                throw new MergerException("Intermediate region " + name + " collides with a source region");
+            }
+            return Region.of(name);
+        }
+    }
+
     public static RecreationModel union(final MergeStatistics mergeStatistics,
             final RecreationModel... models) {
-        if (models == null || models.length < 2 || models.length > 9) {
-            logger.error("[union] number of input models must be between 2 and 9");
-            throw new IllegalArgumentException("Number of input models in union must be between 2 and 9");
+        if (models == null || models.length < 2) {
+            logger.error("[union] number of input models must be at least 2");
+            throw new IllegalArgumentException("Number of input models in union must be at least 2");
+        }
+        if (Arrays.stream(models).map(RecreationModel::getRegion).distinct().count() != models.length) {
+            logger.error("[union] every input model must have its own region");
+            throw new IllegalArgumentException("Input models in union must have distinct regions");
         }
 
         logger.info("[union] with models from regions {}", MergerHelper.buildRegionString(", ", models));
@@ -109,10 +239,11 @@ public class Merger {
                 .analyseSharedFeatures(models);
         MergerHelper.handleRegionFeature(unionModel, models, uniqueFeaturesPerModel);
 
-        // Add all non-Region constraints
+        // Add all non-Region constraints, nested region groups of merged subtrees are kept
         for (RecreationModel model : models) {
+            Set<String> regionNames = MergerHelper.collectRegionNames(model);
             for (AbstractConstraint constraint : model.getConstraints()) {
-                if (!constraint.isCustomConstraint()) {
+                if (!constraint.isCustomConstraint() || MergerHelper.isNestedRegionGroup(constraint, regionNames)) {
                     unionModel.addConstraint(constraint);
                 }
             }
@@ -123,12 +254,11 @@ public class Merger {
         mergeStatistics.stopTimerUnion();
         mergeStatistics.setNumberOfConstraintsBeforeMerge(unionModel.getConstraints().size());
         mergeStatistics.setNumberOfFeatureTreeConstraintsBeforeMerge(
-                unionModel.getConstraints().stream().filter(c -> c.isFeatureTreeConstraint()).count());
+                unionModel.getConstraints().countFeatureTreeConstraints());
         mergeStatistics.setNumberOfCustomConstraintsBeforeMerge(
-                unionModel.getConstraints().stream().filter(c -> c.isCustomConstraint()).count());
-        mergeStatistics.setNumberOfCrossTreeConstraintsBeforeMerge(unionModel.getConstraints().stream()
-                .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint())
-                .count());
+                unionModel.getConstraints().countCustomConstraints());
+        mergeStatistics.setNumberOfCrossTreeConstraintsBeforeMerge(
+                unionModel.getConstraints().countCrossTreeConstraints());
         mergeStatistics
                 .setContextualizationShareBeforeMerge(RecreationAnalyser.returnContextualizationShare(unionModel));
 
@@ -136,11 +266,9 @@ public class Merger {
                 "[unionMultiple] finished with {} features and {} constraints, there are {} feature tree, {} custom and {} cross tree constraints",
                 unionModel.getFeatures().size(),
                 unionModel.getConstraints().size(),
-                unionModel.getConstraints().stream().filter(c -> c.isFeatureTreeConstraint()).count(),
-                unionModel.getConstraints().stream().filter(c -> c.isCustomConstraint()).count(),
-                unionModel.getConstraints().stream()
-                        .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint())
-                        .count());
+                unionModel.getConstraints().countFeatureTreeConstraints(),
+                unionModel.getConstraints().countCustomConstraints(),
+                unionModel.getConstraints().countCrossTreeConstraints());
         logger.info("");
 
         return unionModel;
@@ -148,13 +276,27 @@ public class Merger {
 
     public static RecreationModel inconsistencyCheck(final MergeStatistics mergeStatistics,
             final RecreationModel unionModel) {
+        return inconsistencyCheck(mergeStatistics, unionModel, MergeOptions.sequential());
+    }
+
+    public static RecreationModel inconsistencyCheck(final MergeStatistics mergeStatistics,
+            final RecreationModel unionModel, final MergeOptions mergeOptions) {
+        return inconsistencyCheck(mergeStatistics, unionModel, mergeOptions, null);
+    }
+
+    /*
+     * Inconsistency check that only tries to decontextualize constraints contextualized with one of the
+     * given regions, all other constraints are added as they are. A constraint that stayed contextualized
+     * with a region of a merged subtree is violated in another region of that subtree, so it can never
+     * be decontextualized. null checks every constraint.
+     */
+    private static RecreationModel inconsistencyCheck(final MergeStatistics mergeStatistics,
+            final RecreationModel unionModel, final MergeOptions mergeOptions, final Set<Region> regionsToCheck) {
         logger.info(
                 "[inconsistencyCheck] start looping {} constraints in union model (excluding feature tree and custom constraints)",
-                unionModel.getConstraints().stream()
-                        .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint()).count());
+                unionModel.getConstraints().countCrossTreeConstraints());
 
         final RecreationModel mergedModel = new RecreationModel(Region.MERGED);
-        RecreationModel testingModel = null;
 
         mergeStatistics.startTimerInconsistencyCheck();
 
@@ -162,6 +304,23 @@ public class Merger {
         mergedModel.getFeatures().putAll(unionModel.getFeatures());
         mergedModel.setRootFeature(unionModel.getRootFeature());
 
+        // Translate the union model once, every constraint stays in it either contextualized
+        // (still in union model or added contextualized) or decontextualized (added decontextualized)
+        ConsistencySession session = null;
+        ConeOfInfluenceSlicer slicer = null;
+        Set<AbstractConstraint> parallelDecontextualized = null;
+        if (mergeOptions.isParallel()) {
+            if (mergeOptions.slicing()) {
+                logger.debug("[inconsistencyCheck] slicing is not used by the parallel inconsistency check");
+            }
+            parallelDecontextualized = findDecontextualizedConstraintsParallel(unionModel, mergeOptions,
+                    regionsToCheck);
+        } else {
+            session = new ConsistencySession(unionModel, mergeOptions.encodingMode(),
+                    mergeOptions.inconsistencyCheckProfile());
+            slicer = createSlicer(unionModel, mergeOptions, mergeOptions.inconsistencyCheckProfile());
+        }
+
         // Calculate total constraints for progress tracking
         int totalConstraints = unionModel.getConstraints().size();
         int processedConstraints = 0;
@@ -172,50 +331,51 @@ public class Merger {
             mergeStatistics.incrementInconsistencyCheckCounter();
             processedConstraints++;
 
+            // the merged model gets views of the union constraints, the constraint trees are shared
             AbstractConstraint constraint = iterator.next();
-            AbstractConstraint checkConstraint = constraint.copy();
-            AbstractConstraint originalConstraint = constraint.copy();
-            if (constraint.isCustomConstraint() || constraint.isFeatureTreeConstraint()) {
-                mergedModel.addConstraint(originalConstraint);
+            if (!isCheckedConstraint(constraint, regionsToCheck)) {
+                mergedModel.addConstraint(constraint.view());
                 iterator.remove();
 
                 mergeStatistics.incrementInconsistencyNotCheckedCounter();
                 // System.out.print(" s ");
                 updateProgressBar(processedConstraints, totalConstraints);
                 /*logger.debug("\t[inconsistencyCheck] skip and add constraint {}",
-                        originalConstraint);*/
+                        constraint);*/
                 continue;
             }
 
-            // Create new testing model with features from union model
-            testingModel = new RecreationModel(Region.TESTING);
-            testingModel.getFeatures().putAll(unionModel.getFeatures());
-            testingModel.setRootFeature(unionModel.getRootFeature());
+            /*logger.trace("\t[inconsistencyCheck] check constraint: {}", constraint);*/
 
-            testingModel.addConstraints(unionModel.getConstraints());
-            testingModel.addConstraints(mergedModel.getConstraints());
+            boolean inconsistent = session == null
+                    ? parallelDecontextualized.contains(constraint)
+                    : isInconsistentWithNegatedContextualizedConstraint(constraint, session, slicer);
 
-            /*logger.trace("\t[inconsistencyCheck] check constraint: {}", checkConstraint);*/
-
-            if (isInconsistentWithNegatedContextualizedConstraint(checkConstraint, testingModel)) {
+            if (inconsistent) {
                 // decontextualize constraint and add to merged model (line 8 in pseudocode)
-                originalConstraint.disableContextualize();
-                mergedModel.addConstraint(originalConstraint);
+                AbstractConstraint decontextualized = constraint.decontextualized();
+                if (session != null) {
+                    session.decontextualize(constraint);
+                }
+                if (slicer != null) {
+                    slicer.decontextualize(constraint);
+                }
+                mergedModel.addConstraint(decontextualized);
 
                 mergeStatistics.incrementInconsistencyNonContextualizedCounter();
                 // System.out.print(" d ");
                 updateProgressBar(processedConstraints, totalConstraints);
                 logger.trace("\n\t[inconsistencyCheck] inconsistent, add decontextualized constraint {}",
-                        originalConstraint);
+                        decontextualized);
             } else {
                 // add contextualized constraint to merged model (line 10 in pseudocode)
-                mergedModel.addConstraint(originalConstraint);
+                mergedModel.addConstraint(constraint.view());
 
                 mergeStatistics.incrementInconsistencyContextualizedCounter();
                 // System.out.print(" c ");
                 updateProgressBar(processedConstraints, totalConstraints);
                 logger.trace("\n\t[inconsistencyCheck] consistent, add contextualized constraint {}",
-                        originalConstraint);
+                        constraint);
             }
 
             // remove constraint from union model (line 12 in pseudocode)
@@ -231,6 +391,7 @@ public class Merger {
                 mergeStatistics.getInconsistencyNonContextualizedCounter(),
                 mergeStatistics.getInconsistencyContextualizedCounter(),
                 mergeStatistics.getInconsistencyNotCheckedCounter());
+        logSlicer("[inconsistencyCheck]", slicer);
         logger.info("[inconsistencyCheck] finished with {} features and {} constraints",
                 mergedModel.getFeatures().size(), mergedModel.getConstraints().size());
         logger.info("");
@@ -239,13 +400,22 @@ public class Merger {
     }
 
     public static RecreationModel cleanup(final MergeStatistics mergeStatistics, final RecreationModel mergedModel) {
+        return cleanup(mergeStatistics, mergedModel, MergeOptions.sequential());
+    }
+
+    public static RecreationModel cleanup(final MergeStatistics mergeStatistics, final RecreationModel mergedModel,
+            final MergeOptions mergeOptions) {
         logger.info(
                 "[cleanup] start looping {} constraints in merged model (excluding feature tree and custom constraints)",
-                mergedModel.getConstraints().stream()
-                        .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint()).count());
+                mergedModel.getConstraints().countCrossTreeConstraints());
 
         mergeStatistics.startTimerCleanup();
 
+        // Translate the merged model once, each redundancy check only negates or deactivates constraints
+        final ConsistencySession session = new ConsistencySession(mergedModel, mergeOptions.encodingMode(),
+                mergeOptions.cleanupProfile());
+        final ConeOfInfluenceSlicer slicer = createSlicer(mergedModel, mergeOptions, mergeOptions.cleanupProfile());
+
         Iterator<AbstractConstraint> iterator = mergedModel.getConstraints().iterator();
         while (iterator.hasNext()) {
             mergeStatistics.incrementCleanupCounter();
@@ -256,16 +426,19 @@ public class Merger {
                 continue;
             }
 
-            constraint.doNegate();
+            session.negate(constraint);
 
-            if (isInconsistent(mergedModel)) {
+            if ((slicer != null && slicer.isInconsistentWhenNegated(constraint)) || isInconsistent(session)) {
                 iterator.remove();
-                constraint.disableNegation();
+                session.deactivate(constraint);
+                if (slicer != null) {
+                    slicer.remove(constraint);
+                }
                 mergeStatistics.incrementCleanupRemovedCounter();
                 System.out.print(" - ");
                 logger.trace("\t[cleanup] inconsistent, remove constraint {}", constraint);
             } else {
-                constraint.disableNegation();
+                session.activate(constraint);
                 mergeStatistics.incrementCleanupKeptAsIsCounter();
                 System.out.print(" + ");
                 logger.trace("\t[cleanup] consistent, keep unnegated constraint {}", constraint);
@@ -277,18 +450,18 @@ public class Merger {
         mergeStatistics.stopTimerCleanup();
         mergeStatistics.setNumberOfConstraintsAfterMerge(mergedModel.getConstraints().size());
         mergeStatistics.setNumberOfFeatureTreeConstraintsAfterMerge(
-                mergedModel.getConstraints().stream().filter(c -> c.isFeatureTreeConstraint()).count());
+                mergedModel.getConstraints().countFeatureTreeConstraints());
         mergeStatistics.setNumberOfCustomConstraintsAfterMerge(
-                mergedModel.getConstraints().stream().filter(c -> c.isCustomConstraint()).count());
-        mergeStatistics.setNumberOfCrossTreeConstraintsAfterMerge(mergedModel.getConstraints().stream()
-                .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint())
-                .count());
+                mergedModel.getConstraints().countCustomConstraints());
+        mergeStatistics.setNumberOfCrossTreeConstraintsAfterMerge(
+                mergedModel.getConstraints().countCrossTreeConstraints());
         mergeStatistics
                 .setContextualizationShareAfterMerge(RecreationAnalyser.returnContextualizationShare(mergedModel));
         mergeStatistics.setNumberOfFeatures(mergedModel.getFeatures().size());
-        mergeStatistics.setConsistentAfterMerge(Analyser.isConsistent(mergedModel));
+        mergeStatistics.setConsistentAfterMerge(session.isConsistent());
 
         logger.info("[cleanup] removed {} constraints", mergeStatistics.getCleanupRemovedCounter());
+        logSlicer("[cleanup]", slicer);
         logger.info("[cleanup] kept {} custom and feature tree constraints without checking",
                 mergeStatistics.getCleanupNotCheckedCounter());
         logger.info("[cleanup] finished with {} features and {} constraints",
@@ -299,18 +472,53 @@ public class Merger {
         return mergedModel;
     }
 
+    private static boolean isCheckedConstraint(final AbstractConstraint constraint, final Set<Region> regionsToCheck) {
+        if (constraint.isCustomConstraint() || constraint.isFeatureTreeConstraint()) {
+            return false;
+        }
+
+        return regionsToCheck == null
+                || !constraint.isContextualized()
+                || regionsToCheck.contains(Region.byId(constraint.getContextualizationValue()));
+    }
+
+    private static Set<AbstractConstraint> findDecontextualizedConstraintsParallel(final RecreationModel unionModel,
+            final MergeOptions mergeOptions, final Set<Region> regionsToCheck) {
+        List<AbstractConstraint> candidates = unionModel.getConstraints().stream()
+                .filter(c -> isCheckedConstraint(c, regionsToCheck))
+                .toList();
+
+        try (ParallelInconsistencyChecker checker = new ParallelInconsistencyChecker(unionModel,
+                mergeOptions.threads(), mergeOptions.encodingMode(), mergeOptions.inconsistencyCheckProfile())) {
+            return checker.findDecontextualizedConstraints(candidates);
+        }
+    }
+
+    // a slice that refutes the check decides it, otherwise the full model is checked
     private static boolean isInconsistentWithNegatedContextualizedConstraint(
             final AbstractConstraint constraintToNegate,
-            final RecreationModel testingModel) {
-        constraintToNegate.disableContextualize();
-        constraintToNegate.doNegate();
-        testingModel.addConstraint(constraintToNegate);
+            final ConsistencySession session, final ConeOfInfluenceSlicer slicer) {
+        if (slicer != null && slicer.isInconsistentWithNegation(constraintToNegate)) {
+            return true;
+        }
+        return !session.isConsistentWithNegation(constraintToNegate);
+    }
+
+    private static ConeOfInfluenceSlicer createSlicer(final RecreationModel model, final MergeOptions mergeOptions,
+            final SolverProfile profile) {
+        return mergeOptions.slicing() ? new ConeOfInfluenceSlicer(model, mergeOptions.encodingMode(), profile) : null;
+    }
 
-        return !Analyser.isConsistent(testingModel);
+    private static void logSlicer(final String step, final ConeOfInfluenceSlicer slicer) {
+        if (slicer != null) {
+            logger.info("{} decided {} of {} checks on slices with on average {} constraints, {} translations, "
+                    + "{} slices too large to check", step, slicer.getRefutations(), slicer.getChecks(),
+                    slicer.getAverageSliceSize(), slicer.getTranslations(), slicer.getSkipped());
+        }
     }
 
-    private static boolean isInconsistent(final RecreationModel testingModel) {
-        return !Analyser.isConsistent(testingModel);
+    private static boolean isInconsistent(final ConsistencySession session) {
+        return !session.isConsistent();
     }
 
     /**
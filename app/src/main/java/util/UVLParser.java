@@ -1,8 +1,12 @@
 package util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import org.apache.logging.log4j.LogManager;
@@ -36,6 +40,10 @@ import model.recreate.feature.Feature;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
 import uvl.UVLJavaLexer;
 
 @UtilityClass
@@ -50,9 +58,8 @@ public class UVLParser {
         logger.info("[parseUVLFile] start {} for region {}", filePathString, region.getRegionString());
         Path filePath = Paths.get(UVLParser.class.getClassLoader()
                 .getResource(filePathString).toURI());
-        String content = new String(Files.readAllBytes(filePath));
 
-        CharStream charStream = CharStreams.fromString(content);
+        CharStream charStream = CharStreams.fromPath(filePath, StandardCharsets.UTF_8);
         UVLJavaLexer lexer = new UVLJavaLexer(charStream);
         CommonTokenStream tokenStream = new CommonTokenStream(lexer);
         UVLJavaParser parser = new UVLJavaParser(tokenStream);
@@ -68,6 +75,167 @@ public class UVLParser {
         return model;
     }
 
+    /*
+     * Streaming variant of {@link #parseUVLFile(String, Region)} for a classpath resource.
+     */
+    public static RecreationModel parseUVLFileStreaming(String filePathString, Region region) throws IOException {
+        InputStream inputStream = UVLParser.class.getClassLoader().getResourceAsStream(filePathString);
+        if (inputStream == null) {
+            throw new IllegalArgumentException("UVL resource not found: " + filePathString);
+        }
+
+        try (inputStream) {
+            return parseUVLStream(inputStream, filePathString, region);
+        }
+    }
+
+    /*
+     * Parses a UVL file from the file system in streaming mode.
+     */
+    public static RecreationModel parseUVLPath(Path path, Region region) throws IOException {
+        return parseStreaming(CharStreams.fromPath(path, StandardCharsets.UTF_8), path.toString(), region);
+    }
+
+    /*
+     * Parses UVL from any input stream in streaming mode, the stream is not closed.
+     */
+    public static RecreationModel parseUVLStream(InputStream inputStream, String sourceName, Region region)
+            throws IOException {
+        return parseStreaming(CharStreams.fromStream(inputStream, StandardCharsets.UTF_8), sourceName, region);
+    }
+
+    /*
+     * Streaming mode: the char stream is decoded directly from the source without an intermediate String and
+     * the parser does not build a parse tree. The model is created by a parse listener while parsing, see
+     * {@link StreamingModelBuilder}. The features and the order of constraints are the same as in tree mode.
+     */
+    private static RecreationModel parseStreaming(CharStream charStream, String sourceName, Region region) {
+        logger.info("[parseUVLStreaming] start {} for region {}", sourceName, region.getRegionString());
+
+        UVLJavaLexer lexer = new UVLJavaLexer(charStream);
+        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        UVLJavaParser parser = new UVLJavaParser(tokenStream);
+        parser.setBuildParseTree(false);
+
+        RecreationModel model = new RecreationModel(region, sourceName);
+        parser.addParseListener(new StreamingModelBuilder(parser, tokenStream, model));
+        parser.featureModel();
+
+        logger.info("[parseUVLStreaming] finished {} for region {} with {} features and {} constraints",
+                sourceName, region.getRegionString(), model.getFeatures().size(), model.getConstraints().size());
+        logger.info("");
+
+        return model;
+    }
+
+    /*
+     * Parse listener of the streaming mode. Features and feature tree groups are created from the rule events,
+     * a group is created when it is exited, which is the same post order as in tree mode.
+     * The parser only builds the subtrees of single references and constraint lines, they are converted with
+     * the tree mode methods and are unreachable right after.
+     */
+    private static final class StreamingModelBuilder implements ParseTreeListener {
+        private final UVLJavaParser parser;
+        private final CommonTokenStream tokenStream;
+        private final RecreationModel model;
+
+        private final Deque<Feature> openFeatures = new ArrayDeque<>();
+        private final Deque<List<Feature>> openGroups = new ArrayDeque<>();
+        private boolean inConstraintLine = false;
+        private int featureTreeConstraints = 0;
+
+        private StreamingModelBuilder(UVLJavaParser parser, CommonTokenStream tokenStream, RecreationModel model) {
+            this.parser = parser;
+            this.tokenStream = tokenStream;
+            this.model = model;
+        }
+
+        @Override
+        public void enterEveryRule(ParserRuleContext ctx) {
+            if (ctx instanceof GroupContext) {
+                openGroups.push(new ArrayList<>());
+            } else if (ctx instanceof ConstraintsContext) {
+                featureTreeConstraints = model.getConstraints().size();
+            } else if (ctx instanceof ConstraintLineContext) {
+                inConstraintLine = true;
+                parser.setBuildParseTree(true);
+            } else if (ctx instanceof ReferenceContext && !inConstraintLine) {
+                parser.setBuildParseTree(true);
+            }
+        }
+
+        @Override
+        public void exitEveryRule(ParserRuleContext ctx) {
+            if (ctx instanceof ReferenceContext refCtx && !inConstraintLine) {
+                parser.setBuildParseTree(false);
+                if (refCtx.getParent() instanceof FeatureContext) {
+                    Feature feature = getOrCreateFeature(parseReference(refCtx), model);
+                    if (model.getRootFeature() == null) {
+                        model.setRootFeature(feature);
+                        logger.debug("\t[parseRootFeature] found root {}", feature);
+                    }
+                    openFeatures.push(feature);
+                }
+            } else if (ctx instanceof FeatureContext) {
+                Feature feature = openFeatures.pop();
+                if (!openGroups.isEmpty()) {
+                    openGroups.peek().add(feature);
+                }
+            } else if (ctx instanceof GroupContext gCtx) {
+                createGroup(gCtx, openFeatures.peek(), openGroups.pop());
+            } else if (ctx instanceof FeaturesContext) {
+                logger.debug("\t[parseFeatures] finished with {} features", model.getFeatures().size());
+            } else if (ctx instanceof ConstraintLineContext lineCtx) {
+                parser.setBuildParseTree(false);
+                inConstraintLine = false;
+                AbstractConstraint constraint = parseConstraint(lineCtx.constraint(), model);
+                if (constraint != null) {
+                    model.addConstraint(constraint);
+                }
+            } else if (ctx instanceof ConstraintsContext) {
+                logger.info("\t[parseConstraints] finished with {} cross tree and {} feature tree constraints",
+                        model.getConstraints().size() - featureTreeConstraints, featureTreeConstraints);
+            }
+        }
+
+        @Override
+        public void visitTerminal(TerminalNode node) {
+        }
+
+        @Override
+        public void visitErrorNode(ErrorNode node) {
+        }
+
+        // same cardinalities as the tree mode group methods
+        private void createGroup(GroupContext gCtx, Feature parent, List<Feature> children) {
+            int n = children.size();
+            if (gCtx instanceof OrGroupContext) {
+                createGroupConstraint(parent, children, 1, n, model);
+            } else if (gCtx instanceof AlternativeGroupContext) {
+                createGroupConstraint(parent, children, 1, 1, model);
+            } else if (gCtx instanceof OptionalGroupContext) {
+                createGroupConstraint(parent, children, 0, n, model);
+            } else if (gCtx instanceof MandatoryGroupContext) {
+                createGroupConstraint(parent, children, n == 1 ? 1 : n, n == 1 ? 1 : n, model);
+            } else if (gCtx instanceof CardinalityGroupContext) {
+                createCardinalityGroupConstraint(getCardinalityText(gCtx), parent, children, model);
+            }
+        }
+
+        // the group is not built, so its cardinality is read from the tokens up to the closing bracket
+        private String getCardinalityText(GroupContext gCtx) {
+            StringBuilder text = new StringBuilder();
+            for (int i = gCtx.getStart().getTokenIndex(); i < tokenStream.size(); i++) {
+                String tokenText = tokenStream.get(i).getText();
+                text.append(tokenText);
+                if (tokenText.contains("]")) {
+                    break;
+                }
+            }
+            return text.toString();
+        }
+    }
+
     // Parse the feature model
     public static void parseFeatures(FeatureModelContext featureModelCtx, RecreationModel model) {
         if (featureModelCtx == null)
@@ -180,13 +348,19 @@ public class UVLParser {
             RecreationModel model) {
         GroupSpecContext gSpec = cardGroup.groupSpec();
         List<Feature> children = parseGroupSpec(gSpec, model);
+        createCardinalityGroupConstraint(cardGroup.getText(), parent, children, model);
+    }
+
+    // Create a cardinality group constraint from the group text that starts with [lower..upper]
+    private static void createCardinalityGroupConstraint(String cardText, Feature parent, List<Feature> children,
+            RecreationModel model) {
         if (children.isEmpty()) {
             return;
         }
 
-        // Parse actual cardinality from cardGroup context
-        int lower = parseCardinalityLower(cardGroup);
-        int upper = parseCardinalityUpper(cardGroup, children.size());
+        // Parse actual cardinality from the group text
+        int lower = parseCardinalityLower(cardText);
+        int upper = parseCardinalityUpper(cardText, children.size());
 
         if (lower > upper || lower < 0 || upper > children.size()) {
             throw new IllegalArgumentException("Invalid cardinality bounds");
@@ -258,8 +432,9 @@ public class UVLParser {
         if (model.getFeatures().containsKey(featureName)) {
             return model.getFeatures().get(featureName);
         }
+        // The feature gets the dense id of its name, equal names of different region models share id and String
         Feature newF = new Feature(featureName);
-        model.getFeatures().put(featureName, newF);
+        model.getFeatures().put(newF.getName(), newF);
         return newF;
     }
 
@@ -399,8 +574,7 @@ public class UVLParser {
         return new ComparisonConstraint(left, op, right);
     }
 
-    private static int parseCardinalityLower(CardinalityGroupContext cardGroup) {
-        String cardText = cardGroup.getText();
+    private static int parseCardinalityLower(String cardText) {
         // Extract number between [ and ..
         int startIndex = cardText.indexOf('[') + 1;
         int endIndex = cardText.indexOf("..");
@@ -411,8 +585,7 @@ public class UVLParser {
         return 1;
     }
 
-    private static int parseCardinalityUpper(CardinalityGroupContext cardGroup, int maxSize) {
-        String cardText = cardGroup.getText();
+    private static int parseCardinalityUpper(String cardText, int maxSize) {
         // Extract number between .. and ]
         int startIndex = cardText.indexOf("..") + 2;
         int endIndex = cardText.indexOf(']');
@@ -1,9 +1,25 @@
 package util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import model.choco.SolverProfile;
 import model.recreate.RecreationModel;
+import util.analyse.SolverBackend;
 import util.helper.MergerHelper;
 import util.helper.ValidatorHelper;
 /*
@@ -66,15 +82,26 @@ public class Validator extends ValidatorHelper {
      *         3 = Test 2B failed (missing solutions from KB₂ - merge too strict)
      */
     public static int validateMerge(final RecreationModel mergedKB, final RecreationModel... sourceModels) {
-        logger.info("[validateMerge] Starting validation of merged model");
+        return validateMerge(SolverProfile.defaultProfile(), mergedKB, sourceModels);
+    }
 
-        boolean noExtraSolutions = validateNoExtraSolutions(mergedKB, sourceModels);
-        int missingSolutionsResult = validateNoMissingSolutions(mergedKB, sourceModels);
+    /**
+     * {@link #validateMerge} with the given solver profile for all tests.
+     */
+    public static int validateMerge(final SolverProfile profile, final RecreationModel mergedKB,
+            final RecreationModel... originalModels) {
+        // the source models are validated as contextualized copies, they are not changed
+        final RecreationModel[] sourceModels = MergerHelper.contextualizedCopies(originalModels);
+        logger.info("[validateMerge] Starting validation of merged model");
 
-        if (!noExtraSolutions) {
+        // Test Case 2 is only computed if Test Case 1 passed, a failed Test Case 1 decides the result anyway
+        if (!validateNoExtraSolutions(profile, mergedKB, sourceModels)) {
             logger.warn("[validateMerge] Merge validation FAILED: Test Case 1 failed (extra solutions exist)");
             return 1;
-        } else if (missingSolutionsResult > 0) {
+        }
+
+        int missingSolutionsResult = validateNoMissingSolutions(profile, mergedKB, sourceModels);
+        if (missingSolutionsResult > 0) {
             int errorIndex = missingSolutionsResult - 1;
             String region = (errorIndex >= 0 && errorIndex < sourceModels.length)
                     ? sourceModels[errorIndex].getRegionString()
@@ -87,6 +114,143 @@ public class Validator extends ValidatorHelper {
         }
     }
 
+    /**
+     * {@link #validateMerge} with all tests solved by the given solver backend, e.g. {@link SolverBackend#bdd()}
+     * for small and medium models, where every test is decided as soon as its BDD is built.
+     */
+    public static int validateMerge(final SolverBackend backend, final RecreationModel mergedKB,
+            final RecreationModel... originalModels) {
+        // the source models are validated as contextualized copies, they are not changed
+        final RecreationModel[] sourceModels = MergerHelper.contextualizedCopies(originalModels);
+        logger.info("[validateMerge] Starting validation of merged model with {}", backend.getName());
+
+        if (checkSimultaneousViolationsOrNegation(backend, mergedKB, sourceModels)) {
+            logger.warn("[validateMerge] Merge validation FAILED: Test Case 1 failed (extra solutions exist)");
+            return 1;
+        }
+
+        for (int i = 0; i < sourceModels.length; i++) {
+            final RecreationModel currentModel = sourceModels[i];
+            final RecreationModel[] otherModels = Arrays.stream(sourceModels)
+                    .filter(model -> model != currentModel)
+                    .toArray(RecreationModel[]::new);
+            if (checkMissingSolutionsMultiple(mergedKB, currentModel, otherModels, backend)) {
+                logger.warn("[validateMerge] Merge validation FAILED: Test Case 2 failed (missing solutions exist) for source model {})",
+                        currentModel.getRegionString());
+                return i + 2;
+            }
+        }
+
+        logger.info("[validateMerge] Merge validation PASSED: Sol(KBMerge) = Sol({})", MergerHelper.buildRegionString(" union ", sourceModels));
+        return 0;
+    }
+
+    /**
+     * Concurrent variant of {@link #validateMerge} with the same result codes.
+     * 
+     * Test Case 1 and the Test Case 2 of every source model are translated and solved on their own
+     * virtual thread. A failed test cancels all running tests with a higher result code, tests with a
+     * lower result code are still awaited, so the lowest failing result code is returned exactly like
+     * in the sequential validation.
+     * 
+     * @param mergedKB     the merged knowledge base to validate
+     * @param sourceModels the original knowledge bases
+     * @return validation result code, see {@link #validateMerge}
+     */
+    public static int validateMergeConcurrently(final RecreationModel mergedKB, final RecreationModel... sourceModels) {
+        return validateMergeConcurrently(SolverProfile.defaultProfile(), mergedKB, sourceModels);
+    }
+
+    /**
+     * {@link #validateMergeConcurrently} with the given solver profile for all tests.
+     */
+    public static int validateMergeConcurrently(final SolverProfile profile, final RecreationModel mergedKB,
+            final RecreationModel... originalModels) {
+        // the source models are validated as contextualized copies, they are not changed
+        final RecreationModel[] sourceModels = MergerHelper.contextualizedCopies(originalModels);
+        logger.info("[validateMergeConcurrently] Starting concurrent validation of merged model with {} tests",
+                sourceModels.length + 1);
+
+        // test index 0 is Test Case 1, test index i is Test Case 2 of source model i - 1, result code is index + 1
+        List<Callable<Boolean>> tests = new ArrayList<>();
+        tests.add(() -> checkSimultaneousViolationsOrNegation(profile, mergedKB, sourceModels));
+        for (int i = 0; i < sourceModels.length; i++) {
+            final RecreationModel currentModel = sourceModels[i];
+            final RecreationModel[] otherModels = Arrays.stream(sourceModels)
+                    .filter(model -> model != currentModel)
+                    .toArray(RecreationModel[]::new);
+            tests.add(() -> checkMissingSolutionsMultiple(mergedKB, currentModel, otherModels, profile));
+        }
+
+        int firstFailedTest = runTestsUntilFirstFailure(tests);
+
+        if (firstFailedTest < 0) {
+            logger.info("[validateMergeConcurrently] Merge validation PASSED: Sol(KBMerge) = Sol({})",
+                    MergerHelper.buildRegionString(" union ", sourceModels));
+            return 0;
+        } else if (firstFailedTest == 0) {
+            logger.warn("[validateMergeConcurrently] Merge validation FAILED: Test Case 1 failed (extra solutions exist)");
+        } else {
+            logger.warn("[validateMergeConcurrently] Merge validation FAILED: Test Case 2 failed (missing solutions exist) for source model {}",
+                    sourceModels[firstFailedTest - 1].getRegionString());
+        }
+        return firstFailedTest + 1;
+    }
+
+    // returns the lowest index of a failed test or -1, tests return true if they failed
+    private static int runTestsUntilFirstFailure(final List<Callable<Boolean>> tests) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+            Map<Future<Boolean>, Integer> testIndices = new HashMap<>();
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < tests.size(); i++) {
+                Future<Boolean> future = completionService.submit(tests.get(i));
+                testIndices.put(future, i);
+                futures.add(future);
+            }
+
+            int firstFailedTest = tests.size();
+            boolean[] finished = new boolean[tests.size()];
+            for (int received = 0; received < tests.size() && !allFinishedBefore(finished, firstFailedTest); received++) {
+                Future<Boolean> future = completionService.take();
+                int index = testIndices.get(future);
+                finished[index] = true;
+                if (future.isCancelled() || !future.get()) {
+                    continue;
+                }
+
+                if (index < firstFailedTest) {
+                    firstFailedTest = index;
+                    // tests with a higher result code can not change the result anymore
+                    for (int i = index + 1; i < futures.size(); i++) {
+                        futures.get(i).cancel(true);
+                    }
+                    logger.debug("\t[validateMergeConcurrently] test {} failed, cancelled all later tests", index);
+                }
+            }
+
+            return firstFailedTest == tests.size() ? -1 : firstFailedTest;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("concurrent validation was interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("validation test failed with an exception", e.getCause());
+        } finally {
+            // cancelled tests stop their search on interruption, there is no need to wait for them
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean allFinishedBefore(final boolean[] finished, final int testIndex) {
+        for (int i = 0; i < testIndex; i++) {
+            if (!finished[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Test Case 1 - "No Extra Solutions"
      * Validates that KBMerge contains no configurations outside KB₁∪KB₂.
@@ -103,11 +267,16 @@ public class Validator extends ValidatorHelper {
      *         false if validation fails (extra solutions exist)
      */
     public static boolean validateNoExtraSolutions(final RecreationModel mergedKB, final RecreationModel... sourceModels) {
+        return validateNoExtraSolutions(SolverProfile.defaultProfile(), mergedKB, sourceModels);
+    }
+
+    public static boolean validateNoExtraSolutions(final SolverProfile profile, final RecreationModel mergedKB,
+            final RecreationModel... sourceModels) {
         logger.info("[validateNoExtraSolutions] Test Case 1 - Checking for extra solutions");
 
         // Test formula: KBMerge ∧ ¬KB₁ ∧ ¬KB₂
         // True if extra solutions exist (validation fails)
-        boolean hasExtraSolutions = checkSimultaneousViolationsOrNegation(mergedKB, sourceModels);
+        boolean hasExtraSolutions = checkSimultaneousViolationsOrNegation(profile, mergedKB, sourceModels);
         String regionsString = MergerHelper.buildRegionString(" union ", sourceModels);
 
         if (hasExtraSolutions) {
@@ -144,6 +313,11 @@ public class Validator extends ValidatorHelper {
      *         i+1 = test for source model i failed (KBᵢ has missing solutions - merge too strict)
      */
     public static int validateNoMissingSolutions(final RecreationModel mergedKB, final RecreationModel... sourceModels) {
+        return validateNoMissingSolutions(SolverProfile.defaultProfile(), mergedKB, sourceModels);
+    }
+
+    public static int validateNoMissingSolutions(final SolverProfile profile, final RecreationModel mergedKB,
+            final RecreationModel... sourceModels) {
         logger.info("[validateNoMissingSolutions] Test Case 2 - Checking for missing solutions");
         
         // Test each source model individually against all others
@@ -160,7 +334,7 @@ public class Validator extends ValidatorHelper {
             }
             
             // Test if current model has missing solutions
-            boolean hasMissingSolutions = checkMissingSolutionsMultiple(mergedKB, currentModel, otherModels);
+            boolean hasMissingSolutions = checkMissingSolutionsMultiple(mergedKB, currentModel, otherModels, profile);
             if (hasMissingSolutions) {
                 logger.warn("\t[validateNoMissingSolutions] Test Case 2 FAILED for source model {}", 
                            currentModel.getRegionString());
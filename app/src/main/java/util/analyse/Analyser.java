@@ -1,11 +1,22 @@
 package util.analyse;
 
+import java.math.BigInteger;
+import java.util.List;
+
 import lombok.experimental.UtilityClass;
 import model.choco.ChocoModel;
+import model.choco.SolverProfile;
 import model.recreate.RecreationModel;
 import util.ChocoTranslator;
+import util.analyse.bdd.BddEncoder;
+import util.analyse.bdd.BddManager;
+import util.analyse.ddnnf.Ddnnf;
+import util.analyse.ddnnf.DdnnfCompiler;
+import util.analyse.decompose.ComponentDecomposer;
 import util.analyse.impl.ChocoAnalyser;
 import util.analyse.impl.RecreationAnalyser;
+import util.analyse.sat.IntersectionCounter;
+import util.analyse.solution.SolutionStream;
 
 /*
  * Utility class for feature model operations.
@@ -20,18 +31,53 @@ import util.analyse.impl.RecreationAnalyser;
  * - {@link ChocoModel}: JavaChoco model representation
  * 
  * Note: Methods automatically convert RecreationModel to BaseModel when needed
- * using {@link ChocoTranslator}.
+ * using {@link ChocoTranslator}. Overloads with a {@link SolverBackend} solve the
+ * RecreationModel with the given backend instead, e.g. the CNF based SAT backend.
+ * Overloads with a {@link SolverProfile} configure the search of the consistency check.
+ *
+ * Solutions of a RecreationModel are counted on its d-DNNF compilation instead of enumerating them,
+ * {@link #compileSolutionSpace(RecreationModel)} keeps the compilation for repeated counts under
+ * assumptions, e.g. per region or per feature selection.
+ * {@link #areEquivalent(RecreationModel, RecreationModel)} builds both models as BDDs in one manager,
+ * equal solution sets are then equal BDD nodes.
+ * {@link #decompose(RecreationModel)} splits a model into components that share only the root.
+ * Intersections of RecreationModels are counted on one product CNF of all models, the ChocoModel
+ * overloads still enumerate and intersect the solution sets of every model.
  */
 @UtilityClass
 public class Analyser {
 
     public static long returnNumberOfSolutions(final RecreationModel model) {
-        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(model);
-        return returnNumberOfSolutions(chocoModel);
+        return countSolutions(model).longValueExact();
     }
     public static long returnNumberOfSolutions(final ChocoModel chocoModel) {
         return ChocoAnalyser.returnNumberOfSolutions(chocoModel);
     }
+    public static long returnNumberOfSolutions(final RecreationModel model, final SolverBackend solverBackend) {
+        return solverBackend.returnNumberOfSolutions(model);
+    }
+
+    public static BigInteger countSolutions(final RecreationModel model) {
+        return compileSolutionSpace(model).count();
+    }
+
+    public static Ddnnf compileSolutionSpace(final RecreationModel model) {
+        return DdnnfCompiler.compile(model);
+    }
+
+    // independent components of the model, see SolverBackend.decomposed(...) to solve them in parallel
+    public static List<RecreationModel> decompose(final RecreationModel model) {
+        return ComponentDecomposer.decompose(model);
+    }
+
+    /*
+     * Returns true if both models have the same configurations, features missing in one model are deselected there.
+     * Throws a {@link util.analyse.bdd.BddNodeLimitException} if the models do not fit into a BDD.
+     */
+    public static boolean areEquivalent(final RecreationModel modelA, final RecreationModel modelB) {
+        BddManager manager = BddEncoder.createManager(modelA, modelB);
+        return BddEncoder.encode(manager, modelA) == BddEncoder.encode(manager, modelB);
+    }
 
     public static void printFeatures(final RecreationModel model) {
         RecreationAnalyser.printFeatures(model);
@@ -55,10 +101,16 @@ public class Analyser {
         ChocoAnalyser.printAllSolutions(chocoModel);
     }
 
+    // pushes the solutions to a sink as they are found, e.g. streamSolutions(model).to(new CsvSolutionSink(path))
+    public static SolutionStream streamSolutions(final RecreationModel model) {
+        return streamSolutions(ChocoTranslator.convertToChocoModel(model));
+    }
+    public static SolutionStream streamSolutions(final ChocoModel chocoModel) {
+        return new SolutionStream(chocoModel);
+    }
+
     public static int findIntersectionSolutions(final RecreationModel modelA, final RecreationModel modelB) {
-        ChocoModel chocoModelA = ChocoTranslator.convertToChocoModel(modelA);
-        ChocoModel chocoModelB = ChocoTranslator.convertToChocoModel(modelB);
-        return findIntersectionSolutions(chocoModelA, chocoModelB);
+        return Math.toIntExact(IntersectionCounter.countIntersection(modelA, modelB));
     }
     public static int findIntersectionSolutions(final ChocoModel chocoModelA, final ChocoModel chocoModelB) {
         return ChocoAnalyser.findIntersectionSolutions(chocoModelA, chocoModelB);
@@ -68,25 +120,45 @@ public class Analyser {
         if (models == null || models.length < 2) {
             throw new IllegalArgumentException("findIntersectionSolutions requires at least 2 models");
         }
-        ChocoModel[] chocoModels = new ChocoModel[models.length];
-        for (int i = 0; i < models.length; i++) {
-            chocoModels[i] = ChocoTranslator.convertToChocoModel(models[i]);
-        }
-        return findIntersectionSolutions(chocoModels);
+        return Math.toIntExact(IntersectionCounter.countProjectedIntersection(models));
     }
     public static int findIntersectionSolutions(final ChocoModel... chocoModels) {
         return ChocoAnalyser.findIntersectionSolutionsProjected(chocoModels);
     }
+    // external memory variants, at most heapBudgetBytes of solutions per model are kept on the heap
+    public static long findIntersectionSolutions(final long heapBudgetBytes, final ChocoModel... chocoModels) {
+        return ChocoAnalyser.findIntersectionSolutionsProjected(heapBudgetBytes, chocoModels);
+    }
+    public static long findUnionSolutions(final long heapBudgetBytes, final ChocoModel... chocoModels) {
+        return ChocoAnalyser.findUnionSolutionsProjected(heapBudgetBytes, chocoModels);
+    }
 
     public static boolean isConsistent(final RecreationModel model) {
         ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(model);
         return isConsistent(chocoModel);
     }
+    public static boolean isConsistent(final RecreationModel model, final SolverBackend solverBackend) {
+        return solverBackend.isConsistent(model);
+    }
+    public static boolean isConsistent(final RecreationModel model, final SolverProfile profile) {
+        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(model);
+        return isConsistent(chocoModel, profile);
+    }
     public static boolean isConsistent(final ChocoModel chocoModel) {
         return ChocoAnalyser.isConsistent(chocoModel, false);
     }
+    public static boolean isConsistent(final ChocoModel chocoModel, final SolverProfile profile) {
+        return ChocoAnalyser.isConsistent(chocoModel, false, profile);
+    }
     
     public static boolean isConsistent(final ChocoModel chocoModel, boolean timeout) {
         return ChocoAnalyser.isConsistent(chocoModel, timeout);
     }
+
+    public static boolean isConsistentUnlessInterrupted(final ChocoModel chocoModel) {
+        return ChocoAnalyser.isConsistentUnlessInterrupted(chocoModel);
+    }
+    public static boolean isConsistentUnlessInterrupted(final ChocoModel chocoModel, final SolverProfile profile) {
+        return ChocoAnalyser.isConsistentUnlessInterrupted(chocoModel, profile);
+    }
 }
@@ -0,0 +1,60 @@
+package util.analyse;
+
+import model.choco.EncodingMode;
+import model.recreate.RecreationModel;
+import util.analyse.impl.BddSolverBackend;
+import util.analyse.impl.ChocoSolverBackend;
+import util.analyse.impl.DecomposedSolverBackend;
+import util.analyse.impl.DdnnfSolverBackend;
+import util.analyse.impl.SatSolverBackend;
+
+/*
+ * Pluggable solver behind the consistency checks and solution counts of {@link Analyser}.
+ *
+ * - {@link #choco()}: translates the model with {@link util.ChocoTranslator} and solves it with Choco (default)
+ * - {@link #choco(EncodingMode)}: same with the given encoding of region gating and groups
+ * - {@link #sat()}: encodes the model as CNF and solves it with the pure Java CDCL solver
+ * - {@link #ddnnf()}: compiles the CNF into d-DNNF and counts on the compiled graph without enumeration
+ * - {@link #bdd()}: builds a reduced ordered BDD in feature tree order, for small and medium models
+ * - {@link #decomposed(SolverBackend)}: solves the independent components of a model in parallel with the
+ *   given backend
+ *
+ * All backends have the same semantics, a model is consistent for one backend iff it is for the other
+ * and both count the same number of feature configurations.
+ */
+public interface SolverBackend {
+
+    String getName();
+
+    boolean isConsistent(RecreationModel model);
+
+    long returnNumberOfSolutions(RecreationModel model);
+
+    static SolverBackend choco() {
+        return ChocoSolverBackend.INSTANCE;
+    }
+
+    static SolverBackend choco(final EncodingMode encodingMode) {
+        return encodingMode == EncodingMode.CLAUSAL ? ChocoSolverBackend.CLAUSAL : ChocoSolverBackend.INSTANCE;
+    }
+
+    static SolverBackend sat() {
+        return SatSolverBackend.INSTANCE;
+    }
+
+    static SolverBackend ddnnf() {
+        return DdnnfSolverBackend.INSTANCE;
+    }
+
+    static SolverBackend bdd() {
+        return BddSolverBackend.INSTANCE;
+    }
+
+    static SolverBackend decomposed(final SolverBackend backend) {
+        return new DecomposedSolverBackend(backend, Runtime.getRuntime().availableProcessors());
+    }
+
+    static SolverBackend decomposed(final SolverBackend backend, final int threads) {
+        return new DecomposedSolverBackend(backend, threads);
+    }
+}
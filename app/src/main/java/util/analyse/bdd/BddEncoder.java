@@ -0,0 +1,235 @@
+package util.analyse.bdd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.choco.ConstraintKey;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.BinaryConstraint;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.constraints.NotConstraint;
+import model.recreate.constraints.OrNegationConstraint;
+import model.recreate.feature.Feature;
+import model.recreate.feature.FeatureIds;
+import util.ChocoTranslator;
+
+/*
+ * Builds the BDD of a {@link RecreationModel} with the same semantics as the {@link util.ChocoTranslator}
+ * and {@link util.analyse.sat.CnfEncoder} encodings.
+ *
+ * - the variable order is the feature tree order of the translator, features of further models are appended
+ * - features of the manager that are not part of the model are deselected, so models with different features
+ *   built in one manager are compared on the same configurations
+ * - contextualization is encoded as region → φ, contextualized groups are gated inside like in the translator
+ *
+ * Child to parent implications of groups are collected separately and conjoined once at the end,
+ * exactly like the clauses the CNF encoding adds as side effect of a group.
+ */
+public class BddEncoder {
+    private static final Logger logger = LogManager.getLogger(BddEncoder.class);
+
+    private final BddManager manager;
+    private final Map<ConstraintKey, Integer> constraintNodes = new HashMap<>();
+    private int implications = BddManager.TRUE;
+
+    private BddEncoder(final BddManager manager) {
+        this.manager = manager;
+    }
+
+    // creates a manager with the feature tree order of the first model, features of the other models come last
+    public static BddManager createManager(final RecreationModel... models) {
+        return new BddManager(variableOrder(models));
+    }
+
+    public static BddManager createManager(final int nodeLimit, final RecreationModel... models) {
+        return new BddManager(variableOrder(models), nodeLimit);
+    }
+
+    public static List<String> variableOrder(final RecreationModel... models) {
+        final Set<String> order = new LinkedHashSet<>();
+        for (RecreationModel model : models) {
+            for (int id : ChocoTranslator.createFeatureTreeOrder(model)) {
+                order.add(FeatureIds.nameOf(id));
+            }
+        }
+        return new ArrayList<>(order);
+    }
+
+    public static int encode(final BddManager manager, final RecreationModel recModel) {
+        final BddEncoder encoder = new BddEncoder(manager);
+
+        // same as the translator, an empty model has exactly one (empty) solution
+        final boolean empty = recModel.getFeatures().isEmpty() || recModel.getConstraints().isEmpty();
+
+        int node = BddManager.TRUE;
+        if (!empty) {
+            node = manager.var(recModel.getRootFeature().getName());
+            for (AbstractConstraint constraint : recModel.getConstraints()) {
+                node = manager.and(node, encoder.processConstraint(constraint));
+            }
+            node = manager.and(node, encoder.implications);
+        }
+
+        for (String feature : manager.getLevels().keySet()) {
+            if (empty || !recModel.getFeatures().containsKey(feature)) {
+                node = manager.and(node, manager.not(manager.var(feature)));
+            }
+        }
+
+        logger.trace("[encode] encoded model {} into a BDD with {} nodes in the manager", recModel.getRegionString(),
+                manager.getNumberOfNodes());
+        return node;
+    }
+
+    private int processConstraint(final AbstractConstraint constraint) {
+        Integer regionNode = getRegionNode(constraint);
+        int constraintNode = getConstraintNode(constraint, regionNode);
+
+        if (constraint.isContextualized()) {
+            // group constraints are gated by their region inside the group encoding
+            return constraint instanceof GroupConstraint ? BddManager.TRUE
+                    : manager.implies(regionNode, constraintNode);
+        }
+        return constraintNode;
+    }
+
+    // node of a top level constraint including its negation
+    private int getConstraintNode(final AbstractConstraint constraint, final Integer regionNode) {
+        final ConstraintKey key = ConstraintKey.of(constraint,
+                regionNode == null ? null : constraint.getContextualizationValue());
+        Integer node = key == null ? null : constraintNodes.get(key);
+
+        if (node == null) {
+            node = switch (constraint) {
+                case GroupConstraint gc -> encodeGroup(gc, regionNode);
+                case BinaryConstraint bc -> encodeBinary(bc);
+                case NotConstraint nc -> manager.not(getNestedNode(nc.getInner()));
+                case FeatureReferenceConstraint frc -> getFeatureNode(frc.getFeature().getName());
+                case OrNegationConstraint onc -> encodeOrNegation(onc);
+                default -> throw new UnsupportedOperationException(
+                        "Unsupported constraint type: " + constraint.getClass().getSimpleName());
+            };
+            if (key != null) {
+                constraintNodes.put(key, node);
+            }
+        }
+
+        return constraint.isNegation() ? manager.not(node) : node;
+    }
+
+    // node of a nested constraint, nested constraints ignore their negation and contextualization
+    private int getNestedNode(final AbstractConstraint constraint) {
+        final ConstraintKey key = ConstraintKey.of(constraint, null);
+        Integer node = key == null ? null : constraintNodes.get(key);
+        if (node != null) {
+            return node;
+        }
+
+        node = switch (constraint) {
+            case FeatureReferenceConstraint frc -> getFeatureNode(frc.getFeature().getName());
+            case NotConstraint nc -> manager.not(getNestedNode(nc.getInner()));
+            case BinaryConstraint bc -> encodeBinary(bc);
+            case GroupConstraint gc -> encodeGroup(gc, null);
+            case OrNegationConstraint onc -> encodeOrNegation(onc);
+            default -> throw new UnsupportedOperationException(
+                    "Unsupported constraint type encountered: " + constraint.getClass().getSimpleName());
+        };
+        if (key != null) {
+            constraintNodes.put(key, node);
+        }
+
+        return node;
+    }
+
+    private int encodeBinary(final BinaryConstraint bc) {
+        int antecedent = getNestedNode((AbstractConstraint) bc.getAntecedent());
+        int consequent = getNestedNode((AbstractConstraint) bc.getConsequent());
+
+        return switch (bc.getOperator()) {
+            case AND -> manager.and(antecedent, consequent);
+            case OR -> manager.or(antecedent, consequent);
+            case IMPLIES -> manager.implies(antecedent, consequent);
+            case IFF -> manager.iff(antecedent, consequent);
+        };
+    }
+
+    private int encodeGroup(final GroupConstraint gc, final Integer regionNode) {
+        int parent = getFeatureNode(gc.getParent().getName());
+        int groupLogic = encodeGroupLogic(gc);
+
+        int childImplications = BddManager.TRUE;
+        for (Feature child : gc.getChildren()) {
+            childImplications = manager.and(childImplications,
+                    manager.implies(getFeatureNode(child.getName()), parent));
+        }
+
+        if (regionNode != null) {
+            // Contextualized: group logic and child -> parent implications only when the region is active
+            implications = manager.and(implications,
+                    manager.implies(regionNode, manager.and(groupLogic, childImplications)));
+            return manager.or(manager.not(regionNode), groupLogic);
+        }
+
+        implications = manager.and(implications, childImplications);
+        return groupLogic;
+    }
+
+    // logic ⇔ (parent ∧ lower <= Σ children <= upper) ∨ (¬parent ∧ Σ children = 0)
+    private int encodeGroupLogic(final GroupConstraint gc) {
+        final ConstraintKey key = ConstraintKey.ofGroupLogic(gc);
+        Integer cached = constraintNodes.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int parent = getFeatureNode(gc.getParent().getName());
+        List<String> children = gc.getChildren().stream().map(Feature::getName).toList();
+        int cardinality = manager.cardinality(children, gc.getLowerCardinality(), gc.getUpperCardinality());
+        int childrenAreZero = manager.cardinality(children, 0, 0);
+        int groupLogic = manager.or(manager.and(parent, cardinality),
+                manager.and(manager.not(parent), childrenAreZero));
+
+        constraintNodes.put(key, groupLogic);
+        return groupLogic;
+    }
+
+    private int encodeOrNegation(final OrNegationConstraint onc) {
+        // violation of a constraint: ¬c_i or (region_i ∧ ¬c_i) if contextualized
+        int violated = BddManager.FALSE;
+        for (AbstractConstraint c : onc.getConstraints()) {
+            if (c.isContextualized()) {
+                Integer regionNode = getRegionNode(c);
+                violated = manager.or(violated,
+                        manager.and(regionNode, manager.not(getConstraintNode(c, regionNode))));
+            } else {
+                violated = manager.or(violated, manager.not(getConstraintNode(c, null)));
+            }
+        }
+        return violated;
+    }
+
+    private int getFeatureNode(final String name) {
+        if (!manager.hasVar(name)) {
+            throw new IllegalStateException("feature " + name + " is not part of the model");
+        }
+        return manager.var(name);
+    }
+
+    private Integer getRegionNode(final AbstractConstraint constraint) {
+        if (!constraint.isContextualized()) {
+            return null;
+        }
+
+        return getFeatureNode(Region.byId(constraint.getContextualizationValue()).getRegionString());
+    }
+}
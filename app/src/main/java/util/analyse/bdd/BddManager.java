@@ -0,0 +1,307 @@
+package util.analyse.bdd;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Reduced ordered binary decision diagrams over a fixed set of feature variables.
+ *
+ * Nodes are ints: 0 and 1 are the terminals, every other node is unique for its (level, low, high) triple,
+ * so two functions built in the same manager are equal iff their nodes are equal.
+ * Levels are the positions of the features in the variable order given at construction.
+ *
+ * Operations are memoized in a lossy direct mapped cache. The manager has no garbage collection,
+ * it lives as long as the analysis that created it and refuses to grow beyond its node limit.
+ */
+public class BddManager {
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+    public static final int DEFAULT_NODE_LIMIT = 1 << 21;
+
+    private static final int AND = 0;
+    private static final int OR = 1;
+    private static final int XOR = 2;
+    private static final int NOT = 3;
+    private static final int CACHE_SIZE = 1 << 18;
+
+    private final Map<String, Integer> levels = new LinkedHashMap<>();
+    private final int numberOfVars;
+    private final int nodeLimit;
+
+    // node table, the terminals have the level numberOfVars
+    private int[] nodeLevels;
+    private int[] lows;
+    private int[] highs;
+    private int[] nexts;
+    private int[] buckets;
+    private int size = 2;
+
+    private final int[] cacheOps = new int[CACHE_SIZE];
+    private final int[] cacheLefts = new int[CACHE_SIZE];
+    private final int[] cacheRights = new int[CACHE_SIZE];
+    private final int[] cacheResults = new int[CACHE_SIZE];
+
+    public BddManager(final List<String> variableOrder) {
+        this(variableOrder, DEFAULT_NODE_LIMIT);
+    }
+
+    public BddManager(final List<String> variableOrder, final int nodeLimit) {
+        for (String feature : variableOrder) {
+            levels.putIfAbsent(feature, levels.size());
+        }
+        this.numberOfVars = levels.size();
+        this.nodeLimit = nodeLimit;
+
+        final int capacity = 1 << 12;
+        nodeLevels = new int[capacity];
+        lows = new int[capacity];
+        highs = new int[capacity];
+        nexts = new int[capacity];
+        buckets = new int[capacity];
+        Arrays.fill(buckets, -1);
+        nodeLevels[FALSE] = numberOfVars;
+        nodeLevels[TRUE] = numberOfVars;
+        Arrays.fill(cacheOps, -1);
+    }
+
+    public Map<String, Integer> getLevels() {
+        return Collections.unmodifiableMap(levels);
+    }
+
+    public int getNumberOfVars() {
+        return numberOfVars;
+    }
+
+    public int getNumberOfNodes() {
+        return size;
+    }
+
+    public boolean hasVar(final String feature) {
+        return levels.containsKey(feature);
+    }
+
+    // node of the given feature variable
+    public int var(final String feature) {
+        return mk(levelOf(feature), FALSE, TRUE);
+    }
+
+    public int not(final int node) {
+        if (node <= TRUE) {
+            return TRUE - node;
+        }
+
+        int cached = lookup(NOT, node, node);
+        if (cached >= 0) {
+            return cached;
+        }
+        int result = mk(nodeLevels[node], not(lows[node]), not(highs[node]));
+        store(NOT, node, node, result);
+        return result;
+    }
+
+    public int and(final int left, final int right) {
+        return apply(AND, left, right);
+    }
+
+    public int or(final int left, final int right) {
+        return apply(OR, left, right);
+    }
+
+    public int xor(final int left, final int right) {
+        return apply(XOR, left, right);
+    }
+
+    public int iff(final int left, final int right) {
+        return not(apply(XOR, left, right));
+    }
+
+    public int implies(final int left, final int right) {
+        return apply(OR, not(left), right);
+    }
+
+    /*
+     * Node of "lower <= number of selected features <= upper" for the given features,
+     * built bottom up along the variable order without intermediate diagrams.
+     */
+    public int cardinality(final List<String> features, final int lower, final int upper) {
+        final int[] vars = features.stream().mapToInt(this::levelOf).sorted().distinct().toArray();
+        final int n = vars.length;
+        if (lower > upper || lower > n || upper < 0) {
+            return FALSE;
+        }
+
+        // below[j] is the node for j selected variables above the current level, capped at upper + 1
+        final int cap = Math.min(upper + 1, n + 1);
+        int[] below = new int[cap + 1];
+        for (int j = 0; j <= cap; j++) {
+            below[j] = j >= lower && j <= upper ? TRUE : FALSE;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int[] current = new int[cap + 1];
+            for (int j = 0; j <= cap; j++) {
+                current[j] = mk(vars[i], below[j], below[Math.min(j + 1, cap)]);
+            }
+            below = current;
+        }
+        return below[0];
+    }
+
+    public boolean isSatisfiable(final int node) {
+        return node != FALSE;
+    }
+
+    // number of assignments of all variables of the manager that satisfy the node
+    public BigInteger satCount(final int node) {
+        final BigInteger[] counts = new BigInteger[size];
+        counts[FALSE] = BigInteger.ZERO;
+        counts[TRUE] = BigInteger.ONE;
+        return satCount(node, counts).shiftLeft(nodeLevels[node]);
+    }
+
+    private BigInteger satCount(final int node, final BigInteger[] counts) {
+        if (counts[node] != null) {
+            return counts[node];
+        }
+        final int level = nodeLevels[node];
+        final BigInteger low = satCount(lows[node], counts).shiftLeft(nodeLevels[lows[node]] - level - 1);
+        final BigInteger high = satCount(highs[node], counts).shiftLeft(nodeLevels[highs[node]] - level - 1);
+        counts[node] = low.add(high);
+        return counts[node];
+    }
+
+    private int levelOf(final String feature) {
+        Integer level = levels.get(feature);
+        if (level == null) {
+            throw new IllegalArgumentException("feature " + feature + " is not part of the variable order");
+        }
+        return level;
+    }
+
+    private int apply(final int op, final int left, final int right) {
+        final int terminal = applyTerminal(op, left, right);
+        if (terminal >= 0) {
+            return terminal;
+        }
+
+        // all operations are commutative, the ordered operands share one cache entry
+        final int a = Math.min(left, right);
+        final int b = Math.max(left, right);
+        int cached = lookup(op, a, b);
+        if (cached >= 0) {
+            return cached;
+        }
+
+        final int levelA = nodeLevels[a];
+        final int levelB = nodeLevels[b];
+        final int level = Math.min(levelA, levelB);
+        final int low = apply(op, levelA == level ? lows[a] : a, levelB == level ? lows[b] : b);
+        final int high = apply(op, levelA == level ? highs[a] : a, levelB == level ? highs[b] : b);
+        final int result = mk(level, low, high);
+
+        store(op, a, b, result);
+        return result;
+    }
+
+    private static int applyTerminal(final int op, final int left, final int right) {
+        switch (op) {
+            case AND:
+                if (left == FALSE || right == FALSE) {
+                    return FALSE;
+                }
+                if (left == TRUE || left == right) {
+                    return right;
+                }
+                return right == TRUE ? left : -1;
+            case OR:
+                if (left == TRUE || right == TRUE) {
+                    return TRUE;
+                }
+                if (left == FALSE || left == right) {
+                    return right;
+                }
+                return right == FALSE ? left : -1;
+            default:
+                if (left == right) {
+                    return FALSE;
+                }
+                if (left == FALSE) {
+                    return right;
+                }
+                if (right == FALSE) {
+                    return left;
+                }
+                return left <= TRUE && right <= TRUE ? TRUE : -1;
+        }
+    }
+
+    private int mk(final int level, final int low, final int high) {
+        if (low == high) {
+            return low;
+        }
+
+        final int bucket = hash(level, low, high) & (buckets.length - 1);
+        for (int node = buckets[bucket]; node >= 0; node = nexts[node]) {
+            if (nodeLevels[node] == level && lows[node] == low && highs[node] == high) {
+                return node;
+            }
+        }
+
+        if (size >= nodeLimit) {
+            throw new BddNodeLimitException("BDD exceeds the node limit of " + nodeLimit + " nodes");
+        }
+        if (size == nodeLevels.length) {
+            grow();
+            return mk(level, low, high);
+        }
+        final int node = size++;
+        nodeLevels[node] = level;
+        lows[node] = low;
+        highs[node] = high;
+        nexts[node] = buckets[bucket];
+        buckets[bucket] = node;
+        return node;
+    }
+
+    private void grow() {
+        final int capacity = (int) Math.min((long) nodeLevels.length * 2, nodeLimit);
+        nodeLevels = Arrays.copyOf(nodeLevels, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        nexts = Arrays.copyOf(nexts, capacity);
+
+        // rehash all inner nodes into the larger bucket table
+        buckets = new int[Integer.highestOneBit(capacity - 1) << 1];
+        Arrays.fill(buckets, -1);
+        for (int node = TRUE + 1; node < size; node++) {
+            int bucket = hash(nodeLevels[node], lows[node], highs[node]) & (buckets.length - 1);
+            nexts[node] = buckets[bucket];
+            buckets[bucket] = node;
+        }
+    }
+
+    private int lookup(final int op, final int left, final int right) {
+        final int slot = hash(op, left, right) & (CACHE_SIZE - 1);
+        if (cacheOps[slot] == op && cacheLefts[slot] == left && cacheRights[slot] == right) {
+            return cacheResults[slot];
+        }
+        return -1;
+    }
+
+    private void store(final int op, final int left, final int right, final int result) {
+        final int slot = hash(op, left, right) & (CACHE_SIZE - 1);
+        cacheOps[slot] = op;
+        cacheLefts[slot] = left;
+        cacheRights[slot] = right;
+        cacheResults[slot] = result;
+    }
+
+    private static int hash(final int a, final int b, final int c) {
+        int h = a * 0x9E3779B1 + b;
+        h = h * 0x85EBCA6B + c;
+        return h ^ (h >>> 15);
+    }
+}
@@ -0,0 +1,11 @@
+package util.analyse.bdd;
+
+/**
+ * Exception thrown when a BDD grows beyond the node limit of its {@link BddManager}.
+ */
+public class BddNodeLimitException extends RuntimeException {
+
+    public BddNodeLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,176 @@
+package util.analyse.ddnnf;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.choco.Region;
+
+/*
+ * Compiled solution space of a {@link util.analyse.sat.CnfFormula} in decision-DNNF, built by {@link DdnnfCompiler}.
+ *
+ * - AND nodes are decomposable: their literals, free variables and children share no variable
+ * - OR nodes are decisions: their children disagree on the decision variable
+ * - the graph is smooth: every path from the root to a literal covers every variable exactly once,
+ *   either as literal or as free variable of an AND node
+ *
+ * Therefore counting is a single bottom up pass over the nodes, which are stored in topological order.
+ * Counting under assumptions conditions the literals on the fly, so all region or feature wise counts
+ * are answered by the same compilation. Because all auxiliary variables of the CNF are fully defined by
+ * the features, the model count equals the number of feature configurations.
+ */
+public class Ddnnf {
+    static final int FALSE = 0;
+
+    private record Node(boolean isOr, int[] literals, int[] freeVars, int[] children) {
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Integer> featureVars;
+    private final int numberOfVars;
+    private int root = FALSE;
+
+    Ddnnf(final int numberOfVars, final Map<String, Integer> featureVars) {
+        this.numberOfVars = numberOfVars;
+        this.featureVars = featureVars;
+        // node 0 is the constant false, an empty AND node is the constant true
+        nodes.add(new Node(true, new int[0], new int[0], new int[0]));
+    }
+
+    int addAnd(final int[] literals, final int[] freeVars, final int[] children) {
+        nodes.add(new Node(false, literals, freeVars, children));
+        return nodes.size() - 1;
+    }
+
+    int addDecision(final int positive, final int negative) {
+        if (positive == FALSE) {
+            return negative;
+        }
+        if (negative == FALSE) {
+            return positive;
+        }
+        nodes.add(new Node(true, new int[0], new int[0], new int[] { positive, negative }));
+        return nodes.size() - 1;
+    }
+
+    void setRoot(final int root) {
+        this.root = root;
+    }
+
+    public int getNumberOfNodes() {
+        return nodes.size();
+    }
+
+    public int getNumberOfEdges() {
+        return nodes.stream().mapToInt(node -> node.children().length).sum();
+    }
+
+    public Map<String, Integer> getFeatureVars() {
+        return Collections.unmodifiableMap(featureVars);
+    }
+
+    public boolean isConsistent() {
+        return root != FALSE;
+    }
+
+    public BigInteger count() {
+        return count(new int[0]);
+    }
+
+    /*
+     * Counts the models that satisfy all given DIMACS literals.
+     * Contradicting assumptions yield zero.
+     */
+    public BigInteger count(final int... assumptions) {
+        final byte[] assumed = new byte[numberOfVars + 1];
+        for (int literal : assumptions) {
+            int var = Math.abs(literal);
+            if (var == 0 || var > numberOfVars) {
+                throw new IllegalArgumentException("Unknown variable in assumption: " + literal);
+            }
+            byte sign = (byte) (literal > 0 ? 1 : -1);
+            if (assumed[var] == -sign) {
+                return BigInteger.ZERO;
+            }
+            assumed[var] = sign;
+        }
+
+        final BigInteger[] counts = new BigInteger[root + 1];
+        counts[FALSE] = BigInteger.ZERO;
+        for (int i = FALSE + 1; i <= root; i++) {
+            Node node = nodes.get(i);
+            counts[i] = node.isOr() ? countOr(node, counts) : countAnd(node, counts, assumed);
+        }
+        return counts[root];
+    }
+
+    /*
+     * Counts the configurations with the given feature selection, true selects and false deselects a feature.
+     * Features that are not part of the model are never selected, so selecting them yields zero.
+     */
+    public BigInteger count(final Map<String, Boolean> featureSelection) {
+        final List<Integer> assumptions = new ArrayList<>();
+        for (Map.Entry<String, Boolean> selection : featureSelection.entrySet()) {
+            Integer var = featureVars.get(selection.getKey());
+            if (var == null) {
+                if (Boolean.TRUE.equals(selection.getValue())) {
+                    return BigInteger.ZERO;
+                }
+                continue;
+            }
+            assumptions.add(Boolean.TRUE.equals(selection.getValue()) ? var : -var);
+        }
+        return count(assumptions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // number of configurations that select the given feature
+    public BigInteger countSelected(final String feature) {
+        return count(Map.of(feature, true));
+    }
+
+    // number of configurations of each region, i.e. the configurations that select the region feature
+    public Map<Region, BigInteger> countPerRegion(final Collection<Region> regions) {
+        final Map<Region, BigInteger> counts = new LinkedHashMap<>();
+        for (Region region : regions) {
+            counts.put(region, countSelected(region.getRegionString()));
+        }
+        return counts;
+    }
+
+    private static BigInteger countOr(final Node node, final BigInteger[] counts) {
+        BigInteger sum = BigInteger.ZERO;
+        for (int child : node.children()) {
+            sum = sum.add(counts[child]);
+        }
+        return sum;
+    }
+
+    private static BigInteger countAnd(final Node node, final BigInteger[] counts, final byte[] assumed) {
+        for (int literal : node.literals()) {
+            if (assumed[Math.abs(literal)] == (literal > 0 ? -1 : 1)) {
+                return BigInteger.ZERO;
+            }
+        }
+
+        BigInteger product = BigInteger.ONE;
+        for (int child : node.children()) {
+            product = product.multiply(counts[child]);
+            if (product.signum() == 0) {
+                return product;
+            }
+        }
+
+        // every free variable doubles the count unless it is fixed by an assumption
+        int unassumedFreeVars = 0;
+        for (int var : node.freeVars()) {
+            if (assumed[var] == 0) {
+                unassumedFreeVars++;
+            }
+        }
+        return product.shiftLeft(unassumedFreeVars);
+    }
+}
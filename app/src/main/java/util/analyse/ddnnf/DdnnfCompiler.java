@@ -0,0 +1,482 @@
+package util.analyse.ddnnf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.recreate.RecreationModel;
+import util.analyse.sat.CnfEncoder;
+import util.analyse.sat.CnfFormula;
+
+/*
+ * Compiles a {@link CnfFormula} into a smooth decision-DNNF ({@link Ddnnf}) with an exhaustive DPLL search.
+ *
+ * - after every decision unit propagation fixes the implied literals
+ * - the remaining clauses are split into components that share no variable, each component is compiled on its own
+ *   and the components are joined by a decomposable AND node
+ * - compiled components are cached by their variables and remaining clauses, because the remaining formula of a
+ *   component only depends on these two, so equal sub problems of different branches share one node
+ *
+ * Variables of a component that no remaining clause mentions are stored as free variables of the AND node,
+ * which keeps the result smooth and lets counting under assumptions condition them as well.
+ *
+ * The search runs on an explicit stack of frames, so deep decision chains of large models do not depend on
+ * the size of the thread stack.
+ */
+public class DdnnfCompiler {
+    private static final Logger logger = LogManager.getLogger(DdnnfCompiler.class);
+
+    private static final byte UNDEF = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+
+    private final Ddnnf ddnnf;
+    private final int[][] clauses;
+    private final int[][] occurrences; // clause ids of every variable
+    private final byte[] values;
+    private final int[] trail;
+    private int trailSize = 0;
+
+    // scratch space of the component split, only used while a branch is split
+    private final int[] parent;
+    private final int[] stamps;
+    private final int[] scores;
+    private int stamp = 0;
+
+    private final Map<ComponentKey, Integer> cache = new HashMap<>();
+    private long cacheHits = 0;
+
+    // search frames still waiting for a node, and the node of the frame that finished last
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private int result;
+
+    private DdnnfCompiler(final CnfFormula cnf) {
+        final int numberOfVars = cnf.getNumberOfVars();
+        this.ddnnf = new Ddnnf(numberOfVars, new LinkedHashMap<>(cnf.getFeatureVars()));
+        this.clauses = cnf.getClauses().stream()
+                .map(clause -> Arrays.stream(clause).distinct().toArray())
+                .filter(clause -> !isTautology(clause))
+                .toArray(int[][]::new);
+        this.values = new byte[numberOfVars + 1];
+        this.trail = new int[numberOfVars];
+        this.parent = new int[numberOfVars + 1];
+        this.stamps = new int[numberOfVars + 1];
+        this.scores = new int[numberOfVars + 1];
+
+        final int[] sizes = new int[numberOfVars + 1];
+        for (int[] clause : clauses) {
+            for (int literal : clause) {
+                sizes[Math.abs(literal)]++;
+            }
+        }
+        this.occurrences = new int[numberOfVars + 1][];
+        for (int var = 0; var <= numberOfVars; var++) {
+            occurrences[var] = new int[sizes[var]];
+            sizes[var] = 0;
+        }
+        for (int clauseId = 0; clauseId < clauses.length; clauseId++) {
+            for (int literal : clauses[clauseId]) {
+                int var = Math.abs(literal);
+                occurrences[var][sizes[var]++] = clauseId;
+            }
+        }
+    }
+
+    public static Ddnnf compile(final RecreationModel recModel) {
+        return compile(CnfEncoder.encode(recModel));
+    }
+
+    public static Ddnnf compile(final CnfFormula cnf) {
+        final DdnnfCompiler compiler = new DdnnfCompiler(cnf);
+        compiler.ddnnf.setRoot(compiler.compileRoot());
+
+        logger.trace("[compile] compiled {} variables and {} clauses into {} nodes and {} edges ({} cache hits)",
+                cnf.getNumberOfVars(), cnf.getNumberOfClauses(), compiler.ddnnf.getNumberOfNodes(),
+                compiler.ddnnf.getNumberOfEdges(), compiler.cacheHits);
+        return compiler.ddnnf;
+    }
+
+    private int compileRoot() {
+        final int[] allVars = new int[values.length - 1];
+        for (int var = 1; var < values.length; var++) {
+            allVars[var - 1] = var;
+        }
+        final int[] allClauses = new int[clauses.length];
+        for (int clauseId = 0; clauseId < clauses.length; clauseId++) {
+            allClauses[clauseId] = clauseId;
+        }
+
+        // unit clauses are propagated like an implied decision at the root
+        for (int[] clause : clauses) {
+            if (clause.length == 0) {
+                return Ddnnf.FALSE;
+            }
+            if (clause.length == 1) {
+                int value = valueOf(clause[0]);
+                if (value == FALSE) {
+                    return Ddnnf.FALSE;
+                }
+                if (value == UNDEF) {
+                    assign(clause[0]);
+                }
+            }
+        }
+        if (!propagate(0)) {
+            return Ddnnf.FALSE;
+        }
+        return run(new BranchFrame(0, allVars, allClauses));
+    }
+
+    // runs the frames until the first one has finished and returns its node
+    private int run(final Frame first) {
+        frames.push(first);
+        while (!frames.isEmpty()) {
+            frames.peek().step();
+        }
+        return result;
+    }
+
+    // removes the frame on top of the stack, its node is read by the frame below
+    private void finish(final int node) {
+        frames.pop();
+        result = node;
+    }
+
+    /*
+     * Assigns the literal and pushes the branch of the propagated assignment, the branch undoes the assignment
+     * when it finishes. On a conflict the assignment is undone right away and the result is FALSE.
+     */
+    private void decide(final int literal, final int[] vars, final int[] clauseIds) {
+        final int mark = trailSize;
+        assign(literal);
+
+        if (propagate(mark)) {
+            frames.push(new BranchFrame(mark, vars, clauseIds));
+        } else {
+            undo(mark);
+            result = Ddnnf.FALSE;
+        }
+    }
+
+    private void undo(final int mark) {
+        while (trailSize > mark) {
+            values[Math.abs(trail[--trailSize])] = UNDEF;
+        }
+    }
+
+    /*
+     * One pending step of the search. The search goes as deep as the longest decision chain, so it is kept on
+     * an explicit stack instead of the call stack. A frame either pushes the frame it waits for or finishes,
+     * it is stepped again with the node of the pushed frame in {@code result}.
+     */
+    private interface Frame {
+        void step();
+    }
+
+    // decision node on the best variable of a component, cached by the component
+    private final class ComponentFrame implements Frame {
+        private final int[] vars;
+        private final int[] clauseIds;
+        private ComponentKey key;
+        private int var;
+        private int positive;
+        private int stage = 0;
+
+        private ComponentFrame(final int[] vars, final int[] clauseIds) {
+            this.vars = vars;
+            this.clauseIds = clauseIds;
+        }
+
+        @Override
+        public void step() {
+            switch (stage++) {
+                case 0 -> {
+                    key = new ComponentKey(vars, clauseIds);
+                    final Integer cached = cache.get(key);
+                    if (cached != null) {
+                        cacheHits++;
+                        finish(cached);
+                        return;
+                    }
+                    var = selectBranchVar(clauseIds);
+                    decide(var, vars, clauseIds);
+                }
+                case 1 -> {
+                    positive = result;
+                    decide(-var, vars, clauseIds);
+                }
+                default -> {
+                    final int node = ddnnf.addDecision(positive, result);
+                    cache.put(key, node);
+                    finish(node);
+                }
+            }
+        }
+    }
+
+    /*
+     * Joins the literals assigned since the mark, the free variables and the compiled components of the
+     * remaining clauses into one decomposable AND node.
+     */
+    private final class BranchFrame implements Frame {
+        private final int mark;
+        private final int[] vars;
+        private final int[] clauseIds;
+        private int[] literals;
+        private int[] freeVars;
+        private int[][] componentVars;
+        private int[][] componentClauses;
+        private int[] children;
+        private int index = -1;
+
+        private BranchFrame(final int mark, final int[] vars, final int[] clauseIds) {
+            this.mark = mark;
+            this.vars = vars;
+            this.clauseIds = clauseIds;
+        }
+
+        @Override
+        public void step() {
+            if (index < 0) {
+                split();
+                index = 0;
+            } else if (result == Ddnnf.FALSE) {
+                finishBranch(Ddnnf.FALSE);
+                return;
+            } else {
+                children[index++] = result;
+            }
+
+            if (index < children.length) {
+                frames.push(new ComponentFrame(componentVars[index], componentClauses[index]));
+            } else {
+                finishBranch(ddnnf.addAnd(literals, freeVars, children));
+            }
+        }
+
+        private void finishBranch(final int node) {
+            undo(mark);
+            finish(node);
+        }
+
+        // splits the remaining clauses of the current assignment into components
+        private void split() {
+            literals = Arrays.copyOfRange(trail, mark, trailSize);
+
+            // union all unassigned variables of the remaining clauses
+            stamp++;
+            final List<int[]> remaining = new ArrayList<>();
+            final List<Integer> remainingIds = new ArrayList<>();
+            for (int clauseId : clauseIds) {
+                int[] clause = clauses[clauseId];
+                if (isSatisfied(clause)) {
+                    continue;
+                }
+                int first = 0;
+                for (int literal : clause) {
+                    int var = Math.abs(literal);
+                    if (values[var] != UNDEF) {
+                        continue;
+                    }
+                    if (stamps[var] != stamp) {
+                        stamps[var] = stamp;
+                        parent[var] = var;
+                    }
+                    if (first == 0) {
+                        first = var;
+                    } else {
+                        union(first, var);
+                    }
+                }
+                remaining.add(clause);
+                remainingIds.add(clauseId);
+            }
+
+            // group the variables and clauses by the representative of their component
+            final List<Integer> free = new ArrayList<>();
+            final Map<Integer, List<Integer>> varsByComponent = new LinkedHashMap<>();
+            final Map<Integer, List<Integer>> clausesByComponent = new HashMap<>();
+            for (int var : vars) {
+                if (values[var] != UNDEF) {
+                    continue;
+                }
+                if (stamps[var] != stamp) {
+                    free.add(var);
+                } else {
+                    varsByComponent.computeIfAbsent(find(var), r -> new ArrayList<>()).add(var);
+                }
+            }
+            for (int i = 0; i < remaining.size(); i++) {
+                int representative = find(firstUnassignedVar(remaining.get(i)));
+                clausesByComponent.computeIfAbsent(representative, r -> new ArrayList<>()).add(remainingIds.get(i));
+            }
+
+            freeVars = toArray(free);
+            componentVars = new int[varsByComponent.size()][];
+            componentClauses = new int[varsByComponent.size()][];
+            children = new int[varsByComponent.size()];
+            int component = 0;
+            for (Map.Entry<Integer, List<Integer>> entry : varsByComponent.entrySet()) {
+                componentVars[component] = toArray(entry.getValue());
+                componentClauses[component] = toArray(clausesByComponent.get(entry.getKey()));
+                component++;
+            }
+        }
+    }
+
+    // unit propagation of all literals on the trail from the given position on, false on conflict
+    private boolean propagate(final int from) {
+        for (int position = from; position < trailSize; position++) {
+            final int var = Math.abs(trail[position]);
+            for (int clauseId : occurrences[var]) {
+                int[] clause = clauses[clauseId];
+                int unassigned = 0;
+                int unit = 0;
+                boolean satisfied = false;
+                for (int literal : clause) {
+                    byte value = valueOf(literal);
+                    if (value == TRUE) {
+                        satisfied = true;
+                        break;
+                    }
+                    if (value == UNDEF) {
+                        unassigned++;
+                        unit = literal;
+                    }
+                }
+                if (satisfied || unassigned > 1) {
+                    continue;
+                }
+                if (unassigned == 0) {
+                    return false;
+                }
+                assign(unit);
+            }
+        }
+        return true;
+    }
+
+    // variable of the most remaining clauses of the component
+    private int selectBranchVar(final int[] clauseIds) {
+        int best = 0;
+        for (int clauseId : clauseIds) {
+            for (int literal : clauses[clauseId]) {
+                scores[Math.abs(literal)]++;
+            }
+        }
+        for (int clauseId : clauseIds) {
+            for (int literal : clauses[clauseId]) {
+                int var = Math.abs(literal);
+                if (values[var] == UNDEF && (best == 0 || scores[var] > scores[best])) {
+                    best = var;
+                }
+            }
+        }
+        for (int clauseId : clauseIds) {
+            for (int literal : clauses[clauseId]) {
+                scores[Math.abs(literal)] = 0;
+            }
+        }
+        return best;
+    }
+
+    private void assign(final int literal) {
+        values[Math.abs(literal)] = literal > 0 ? TRUE : FALSE;
+        trail[trailSize++] = literal;
+    }
+
+    private byte valueOf(final int literal) {
+        final byte value = values[Math.abs(literal)];
+        return literal > 0 ? value : (byte) -value;
+    }
+
+    private boolean isSatisfied(final int[] clause) {
+        for (int literal : clause) {
+            if (valueOf(literal) == TRUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int firstUnassignedVar(final int[] clause) {
+        for (int literal : clause) {
+            if (values[Math.abs(literal)] == UNDEF) {
+                return Math.abs(literal);
+            }
+        }
+        throw new IllegalStateException("Remaining clause without unassigned variable");
+    }
+
+    private int find(final int var) {
+        int root = var;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        int current = var;
+        while (parent[current] != root) {
+            int next = parent[current];
+            parent[current] = root;
+            current = next;
+        }
+        return root;
+    }
+
+    private void union(final int a, final int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            parent[rootB] = rootA;
+        }
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // tautologies are always satisfied and are dropped before compiling
+    private static boolean isTautology(final int[] clause) {
+        for (int literal : clause) {
+            for (int other : clause) {
+                if (literal == -other) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Cache key of a component, the variables and the ids of its remaining clauses in ascending order.
+     */
+    private static final class ComponentKey {
+        private final int[] vars;
+        private final int[] clauseIds;
+        private final int hash;
+
+        private ComponentKey(final int[] vars, final int[] clauseIds) {
+            this.vars = vars;
+            this.clauseIds = clauseIds;
+            this.hash = 31 * Arrays.hashCode(vars) + Arrays.hashCode(clauseIds);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof ComponentKey key && hash == key.hash && Arrays.equals(vars, key.vars)
+                    && Arrays.equals(clauseIds, key.clauseIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
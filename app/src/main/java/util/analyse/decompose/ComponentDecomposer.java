@@ -0,0 +1,227 @@
+package util.analyse.decompose;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import lombok.experimental.UtilityClass;
+import model.choco.Region;
+import model.recreate.ConstraintList;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.feature.Feature;
+
+/*
+ * Partitions a model into independent components.
+ *
+ * The root feature is always selected, so once it is fixed the subtrees below it only interact through
+ * constraints. Two features belong to the same component if
+ *
+ * - one is the parent of the other below the root
+ * - they occur in the same constraint (a contextualized constraint also contains its region feature)
+ * - they are children of the same root group whose cardinality couples them, i.e. every root group except
+ *   plain optional [0,n] and mandatory [n,n] groups, which restrict every child on its own
+ *
+ * Every component is a model of its own with the root, its features and its constraints, uncoupled root groups
+ * are split into one group per component. Features without a constraint are free and belong to the component
+ * of the root, which gets a constraint selecting the root if it has none, so its free features are counted. The models of the components share no feature except the selected
+ * root, so the model is consistent iff every component is and its number of solutions is the product of the
+ * numbers of solutions of the components.
+ */
+@UtilityClass
+public class ComponentDecomposer {
+    private static final Logger logger = LogManager.getLogger(ComponentDecomposer.class);
+
+    // the components ordered by decreasing number of constraints, a model without root or constraints is a single component
+    public static List<RecreationModel> decompose(final RecreationModel model) {
+        final Feature root = model.getRootFeature();
+        if (root == null || model.getConstraints().isEmpty()) {
+            return List.of(model);
+        }
+
+        final ConstraintList constraints = model.getConstraints();
+        final Map<Integer, Feature> featuresById = new HashMap<>();
+        final UnionFind components = new UnionFind();
+        for (Feature feature : model.getFeatures().values()) {
+            featuresById.put(feature.getId(), feature);
+            if (feature.getId() != root.getId()) {
+                components.add(feature.getId());
+            }
+        }
+
+        final BitSet constrained = new BitSet();
+        for (AbstractConstraint constraint : constraints) {
+            final int[] ids = featureIds(model, constraint);
+            for (int id : ids) {
+                constrained.set(id);
+            }
+            if (isUncoupledRootGroup(constraint, root)) {
+                continue;
+            }
+            int first = -1;
+            for (int id : ids) {
+                if (id == root.getId()) {
+                    continue;
+                }
+                components.add(id);
+                if (first < 0) {
+                    first = id;
+                } else {
+                    components.union(first, id);
+                }
+            }
+        }
+
+        // features without a constraint are free, they stay with the root
+        final Map<Integer, RecreationModel> modelsByComponent = new LinkedHashMap<>();
+        for (Feature feature : model.getFeatures().values()) {
+            if (feature.getId() != root.getId()) {
+                int component = constrained.get(feature.getId()) ? components.find(feature.getId()) : root.getId();
+                componentModel(modelsByComponent, model, component).getFeatures().put(feature.getName(), feature);
+            }
+        }
+
+        for (AbstractConstraint constraint : constraints) {
+            if (isUncoupledRootGroup(constraint, root)) {
+                splitRootGroup((GroupConstraint) constraint, model, components, modelsByComponent);
+                continue;
+            }
+
+            // constraints on the root only form a component of the root
+            final int[] ids = featureIds(model, constraint);
+            int component = root.getId();
+            for (int id : ids) {
+                if (id != root.getId()) {
+                    component = components.find(id);
+                    break;
+                }
+            }
+            RecreationModel componentModel = componentModel(modelsByComponent, model, component);
+            for (int id : ids) {
+                Feature feature = featuresById.get(id);
+                if (feature == null) {
+                    feature = findFeature(model, constraint, id);
+                }
+                componentModel.getFeatures().putIfAbsent(feature.getName(), feature);
+            }
+            componentModel.addConstraint(constraint);
+        }
+
+        // a model without constraints has a single solution, the selected root keeps the free features in it
+        final RecreationModel rootModel = modelsByComponent.get(root.getId());
+        if (rootModel != null && rootModel.getConstraints().isEmpty()) {
+            rootModel.addConstraint(new FeatureReferenceConstraint(root));
+        }
+
+        final List<RecreationModel> result = new ArrayList<>(modelsByComponent.values());
+        result.sort(Comparator.comparingInt((RecreationModel m) -> m.getConstraints().size()).reversed());
+
+        logger.debug("\t[decompose] split model {} with {} features into {} components", model.getRegionString(),
+                model.getFeatures().size(), result.size());
+        return result;
+    }
+
+    private static RecreationModel componentModel(final Map<Integer, RecreationModel> modelsByComponent,
+            final RecreationModel model, final int component) {
+        return modelsByComponent.computeIfAbsent(component, c -> {
+            RecreationModel componentModel = new RecreationModel(model.getRegion());
+            componentModel.setRootFeature(model.getRootFeature());
+            componentModel.getFeatures().put(model.getRootFeature().getName(), model.getRootFeature());
+            return componentModel;
+        });
+    }
+
+    // plain optional or mandatory group below the root, every child is restricted on its own
+    private static boolean isUncoupledRootGroup(final AbstractConstraint constraint, final Feature root) {
+        if (!(constraint instanceof GroupConstraint gc) || gc.getParent() == null || gc.getChildren() == null
+                || gc.getParent().getId() != root.getId() || gc.isNegation() || gc.isContextualized()) {
+            return false;
+        }
+
+        int children = gc.getChildren().size();
+        boolean optional = gc.getLowerCardinality() == 0 && gc.getUpperCardinality() >= children;
+        boolean mandatory = gc.getLowerCardinality() == children && gc.getUpperCardinality() >= children;
+        return optional || mandatory;
+    }
+
+    private static void splitRootGroup(final GroupConstraint gc, final RecreationModel model,
+            final UnionFind components, final Map<Integer, RecreationModel> modelsByComponent) {
+        final Map<Integer, List<Feature>> childrenByComponent = new LinkedHashMap<>();
+        for (Feature child : gc.getChildren()) {
+            childrenByComponent.computeIfAbsent(components.find(child.getId()), c -> new ArrayList<>()).add(child);
+        }
+
+        final boolean mandatory = gc.getLowerCardinality() > 0;
+        childrenByComponent.forEach((component, children) -> {
+            GroupConstraint part = gc.copy();
+            part.setChildren(children);
+            part.setLowerCardinality(mandatory ? children.size() : 0);
+            part.setUpperCardinality(children.size());
+            componentModel(modelsByComponent, model, component).addConstraint(part);
+        });
+    }
+
+    // ids of the features of the constraint from the index, the region feature of a contextualized constraint included
+    private static int[] featureIds(final RecreationModel model, final AbstractConstraint constraint) {
+        final int[] ids = model.getConstraints().getFeatureIds(constraint);
+        if (!constraint.isContextualized()) {
+            return ids;
+        }
+        final int[] withRegion = Arrays.copyOf(ids, ids.length + 1);
+        withRegion[ids.length] = regionFeature(model, constraint).getId();
+        return withRegion;
+    }
+
+    // feature of the constraint that is not part of the feature map of the model
+    private static Feature findFeature(final RecreationModel model, final AbstractConstraint constraint, final int id) {
+        for (Feature feature : ConstraintList.featuresOf(constraint)) {
+            if (feature.getId() == id) {
+                return feature;
+            }
+        }
+        return regionFeature(model, constraint);
+    }
+
+    private static Feature regionFeature(final RecreationModel model, final AbstractConstraint constraint) {
+        String regionName = Region.byId(constraint.getContextualizationValue()).getRegionString();
+        Feature regionFeature = model.getFeatures().get(regionName);
+        return regionFeature != null ? regionFeature : new Feature(regionName);
+    }
+
+    // union-find over feature ids with path halving
+    private static final class UnionFind {
+        private final Map<Integer, Integer> parents = new HashMap<>();
+
+        private void add(final int id) {
+            parents.putIfAbsent(id, id);
+        }
+
+        private int find(int id) {
+            add(id);
+            while (parents.get(id) != id) {
+                int grandParent = parents.get(parents.get(id));
+                parents.put(id, grandParent);
+                id = grandParent;
+            }
+            return id;
+        }
+
+        private void union(final int a, final int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA != rootB) {
+                parents.put(rootA, rootB);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package util.analyse.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.recreate.RecreationModel;
+import util.analyse.SolverBackend;
+import util.analyse.bdd.BddEncoder;
+import util.analyse.bdd.BddManager;
+import util.analyse.bdd.BddNodeLimitException;
+
+/*
+ * Solver backend that builds a reduced ordered BDD of every model with {@link BddEncoder}.
+ * Once built, consistency is a comparison with the false terminal and counting is linear in the BDD size.
+ * Models whose BDD exceeds the node limit of the manager are solved by the SAT or d-DNNF backend instead.
+ */
+public final class BddSolverBackend implements SolverBackend {
+    private static final Logger logger = LogManager.getLogger(BddSolverBackend.class);
+
+    public static final BddSolverBackend INSTANCE = new BddSolverBackend();
+
+    private BddSolverBackend() {
+    }
+
+    @Override
+    public String getName() {
+        return "bdd";
+    }
+
+    @Override
+    public boolean isConsistent(final RecreationModel model) {
+        try {
+            BddManager manager = BddEncoder.createManager(model);
+            return manager.isSatisfiable(BddEncoder.encode(manager, model));
+        } catch (BddNodeLimitException e) {
+            logger.warn("[isConsistent] model {} does not fit into a BDD, falling back to SAT: {}",
+                    model.getRegionString(), e.getMessage());
+            return SatSolverBackend.INSTANCE.isConsistent(model);
+        }
+    }
+
+    @Override
+    public long returnNumberOfSolutions(final RecreationModel model) {
+        try {
+            BddManager manager = BddEncoder.createManager(model);
+            return manager.satCount(BddEncoder.encode(manager, model)).longValueExact();
+        } catch (BddNodeLimitException e) {
+            logger.warn("[returnNumberOfSolutions] model {} does not fit into a BDD, falling back to d-DNNF: {}",
+                    model.getRegionString(), e.getMessage());
+            return DdnnfSolverBackend.INSTANCE.returnNumberOfSolutions(model);
+        }
+    }
+}
@@ -7,20 +7,39 @@ import lombok.experimental.UtilityClass;
 import util.analyse.statistics.SolveStatistics;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
+import org.chocosolver.solver.search.loop.monitors.NogoodFromRestarts;
+import org.chocosolver.util.criteria.Criterion;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMax;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMin;
+import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.variables.Variable;
 
 import model.choco.ChocoModel;
-
+import model.choco.SolverProfile;
+import util.analyse.solution.CsvSolutionSink;
+import util.analyse.solution.PackedSolutionSet;
+import util.analyse.solution.SolutionLayout;
+import util.analyse.solution.SolutionStream;
+import util.analyse.solution.SpilledSolutionSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
 
-import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 
 /*
@@ -32,11 +51,18 @@ import java.util.Arrays;
 public class ChocoAnalyser {
     private static final Logger logger = LogManager.getLogger(ChocoAnalyser.class);
     private static final String SEPARATOR = "----------------------------------------";
+    private static final int RESTART_SCALE_FACTOR = 100; // fails of the first Luby restart interval
+    private static final int MAX_RESTARTS = 10_000;
 
     public static boolean isConsistent(final ChocoModel chocoModel, boolean timeout) {
+        return isConsistent(chocoModel, timeout, SolverProfile.defaultProfile());
+    }
+
+    public static boolean isConsistent(final ChocoModel chocoModel, boolean timeout, final SolverProfile profile) {
         Model model = chocoModel.getModel();
         model.getSolver().reset();
         model.getSolver().limitSolution(1);
+        configureSearch(chocoModel, profile);
 
         // Add timeout to prevent infinite hanging (30 seconds)
         if (timeout) {
@@ -73,6 +99,94 @@ public class ChocoAnalyser {
         return solved;
     }
 
+    /*
+     * Consistency check that stops the search as soon as the calling thread is interrupted,
+     * the result of an interrupted check is meaningless and has to be discarded by the caller.
+     */
+    public static boolean isConsistentUnlessInterrupted(final ChocoModel chocoModel) {
+        return isConsistentUnlessInterrupted(chocoModel, SolverProfile.defaultProfile());
+    }
+
+    public static boolean isConsistentUnlessInterrupted(final ChocoModel chocoModel, final SolverProfile profile) {
+        Model model = chocoModel.getModel();
+        model.getSolver().reset();
+        model.getSolver().limitSolution(1);
+        configureSearch(chocoModel, profile);
+        final Criterion interrupted = () -> Thread.currentThread().isInterrupted();
+        model.getSolver().addStopCriterion(interrupted);
+
+        try {
+            return model.getSolver().solve();
+        } finally {
+            model.getSolver().removeStopCriterion(interrupted);
+        }
+    }
+
+    /*
+     * Configures the search of the solver for a consistency check, has to be called before every check.
+     * The branching strategy, the restarts and the nogood recording are set up once per model and profile,
+     * further calls with the same profile do nothing, so long lived sessions do not accumulate restarters.
+     * Switching to a profile without nogoods unplugs the recorder, the nogoods recorded so far are implied by
+     * the posted constraints and stay valid as long as no constraint is unposted.
+     */
+    public static void configureSearch(final ChocoModel chocoModel, final SolverProfile profile) {
+        final SolverProfile configured = chocoModel.getSearchProfile();
+        if (profile.isDefault() && configured == null) {
+            return;
+        }
+
+        final Model model = chocoModel.getModel();
+        final Solver solver = model.getSolver();
+        if (!profile.equals(configured)) {
+            switch (profile.branching()) {
+                case DEFAULT -> solver.setSearch(Search.defaultSearch(model));
+                case FEATURE_TREE -> solver.setSearch(createFeatureTreeSearch(chocoModel, profile),
+                        Search.defaultSearch(model));
+                case ACTIVITY -> solver.setSearch(Search.activityBasedSearch(model.retrieveIntVars(true)));
+            }
+            solver.clearRestarter();
+            if (profile.restarts()) {
+                solver.setLubyRestart(RESTART_SCALE_FACTOR, new FailCounter(model, RESTART_SCALE_FACTOR),
+                        MAX_RESTARTS);
+            }
+            if (profile.nogoods() && chocoModel.getNogoodRecorder() == null) {
+                final IMonitorRestart recorder = new NogoodFromRestarts(model);
+                solver.plugMonitor(recorder);
+                chocoModel.setNogoodRecorder(recorder);
+            } else if (!profile.nogoods() && chocoModel.getNogoodRecorder() != null) {
+                solver.unplugMonitor(chocoModel.getNogoodRecorder());
+                chocoModel.setNogoodRecorder(null);
+            }
+            chocoModel.setSearchProfile(profile.isDefault() ? null : profile);
+            logger.debug("[configureSearch] configured model {} with {}", chocoModel.getRegionString(), profile);
+        }
+    }
+
+    /*
+     * Resets the solver for an enumeration of all solutions. A search configured for a consistency check is
+     * set back to the default search without restarts, a restarting search may find a solution again after
+     * a restart and would count it twice.
+     */
+    public static void resetForEnumeration(final ChocoModel chocoModel) {
+        chocoModel.getModel().getSolver().reset();
+        if (chocoModel.getSearchProfile() != null) {
+            configureSearch(chocoModel, SolverProfile.defaultProfile());
+        }
+    }
+
+    // branches on the features in feature tree order, the remaining variables are left to the default search
+    private static AbstractStrategy<IntVar> createFeatureTreeSearch(final ChocoModel chocoModel,
+            final SolverProfile profile) {
+        int[] order = chocoModel.getFeatureTreeOrder();
+        IntVar[] featureVars = new IntVar[order.length];
+        for (int i = 0; i < order.length; i++) {
+            featureVars[i] = chocoModel.getFeature(order[i]);
+        }
+
+        IntValueSelector valueSelector = profile.preferDeselection() ? new IntDomainMin() : new IntDomainMax();
+        return Search.intVarSearch(new InputOrder<>(chocoModel.getModel()), valueSelector, featureVars);
+    }
+
     public static void solveAndCreateStatistic(final ChocoModel baseModel, final SolveStatistics solveStatistics) {
         final Model model = baseModel.getModel();
         model.getSolver().reset();
@@ -85,7 +199,7 @@ public class ChocoAnalyser {
 
     public static long returnNumberOfSolutions(final ChocoModel baseModel) {
         Model model = baseModel.getModel();
-        model.getSolver().reset();
+        resetForEnumeration(baseModel);
 
         long solutions = 0;
         while (model.getSolver().solve()) {
@@ -149,164 +263,158 @@ public class ChocoAnalyser {
     }
 
     public static int findIntersectionSolutions(final ChocoModel model1, final ChocoModel model2) {
-        // Get variables from both models
-        Map<String, BoolVar> vars1 = model1.getFeatures();
-        Map<String, BoolVar> vars2 = model2.getFeatures();
-
-        // Sets to store solutions as strings
-        Set<String> solutionsModel1 = new HashSet<>();
-        Set<String> solutionsModel2 = new HashSet<>();
-
-        // Reset solvers before starting
-        model1.getModel().getSolver().reset();
-        model2.getModel().getSolver().reset();
-
-        // Collect all solutions from model 1
-        while (model1.getModel().getSolver().solve()) {
-            StringBuilder solution = new StringBuilder();
-            for (Map.Entry<String, BoolVar> entry : vars1.entrySet()) {
-                solution.append(entry.getKey())
-                        .append("=")
-                        .append(entry.getValue().getValue())
-                        .append(";");
-            }
-            solutionsModel1.add(solution.toString());
-        }
-        logger.info("[intersection] found {} solutions in model {}", solutionsModel1.size(), model1.getRegionString());
-
-        // Collect all solutions from model 2
-        while (model2.getModel().getSolver().solve()) {
-            StringBuilder solution = new StringBuilder();
-            for (Map.Entry<String, BoolVar> entry : vars2.entrySet()) {
-                solution.append(entry.getKey())
-                        .append("=")
-                        .append(entry.getValue().getValue())
-                        .append(";");
-            }
-            solutionsModel2.add(solution.toString());
+        // Solutions over different feature sets are different solutions
+        if (!model1.getFeatureIds().equals(model2.getFeatureIds())) {
+            logger.info("[intersection] models {} and {} have different features, found 0 intersection solutions",
+                    model1.getRegionString(), model2.getRegionString());
+            return 0;
         }
-        logger.info("[intersection] found {} solutions in model {}", solutionsModel2.size(), model2.getRegionString());
 
-        solutionsModel1.retainAll(solutionsModel2);
-        logger.info("[intersection] found {} intersection solutions", solutionsModel1.size());
+        SolutionLayout layout = new SolutionLayout(model1.getFeatureIds());
+        PackedSolutionSet solutionsModel1 = collectSolutions(model1, layout, null);
+        PackedSolutionSet intersection = collectSolutions(model2, layout, solutionsModel1);
+        logger.info("[intersection] found {} intersection solutions", intersection.size());
 
-        return solutionsModel1.size();
+        return intersection.size();
     }
 
     public static int findIntersectionSolutionsProjected(final ChocoModel... models) {
-        if (models == null || models.length < 2) {
-            throw new IllegalArgumentException("findIntersectionSolutionsProjected requires at least 2 models");
-        }
-    
-        // 1) Compute shared feature names (intersection of all feature key sets)
-        Set<String> common = new HashSet<>(models[0].getFeatures().keySet());
-        for (ChocoModel m : models) {
-            common.retainAll(m.getFeatures().keySet());
-        }
-    
+        BitSet common = findCommonFeatureIds("findIntersectionSolutionsProjected", models);
         if (common.isEmpty()) {
-            logger.warn("[intersection] no common features across {} models, intersection is empty", models.length);
             return 0;
         }
-    
-        // Stable, canonical order over the shared features
-        List<String> sortedCommon = new ArrayList<>(common);
-        Collections.sort(sortedCommon);
-    
-        // 2) Collect projected solutions from each model
-        List<Set<String>> allSolutions = new ArrayList<>();
-    
+
+        // Collect the projected solutions of the first model, every further model only keeps
+        // the projected solutions that are already part of the intersection
+        SolutionLayout layout = new SolutionLayout(common);
+        PackedSolutionSet intersection = null;
         for (ChocoModel model : models) {
-            Map<String, BoolVar> vars = model.getFeatures();
-            Set<String> solutions = new HashSet<>();
-    
-            // Reset solver stats / state
-            model.getModel().getSolver().reset();
-    
-            while (model.getModel().getSolver().solve()) {
-                StringBuilder sb = new StringBuilder();
-                for (String featureName : sortedCommon) {
-                    BoolVar v = vars.get(featureName);
-                    if (v == null) {
-                        throw new IllegalStateException(
-                            String.format("Feature '%s' expected in common features but not found in model %s", 
-                                featureName, model.getRegionString()));
-                    }
-                    sb.append(featureName)
-                      .append("=")
-                      .append(v.getValue())
-                      .append(";");
-                }
-                solutions.add(sb.toString());
-            }
-    
-            logger.info("[intersection] found {} projected solutions in model {} (on {} common features)",
-                    solutions.size(), model.getRegionString(), sortedCommon.size());
-            allSolutions.add(solutions);
-        }
-    
-        // 3) Intersect all projected solution sets
-        Set<String> intersection = new HashSet<>(allSolutions.get(0));
-        for (int i = 1; i < allSolutions.size(); i++) {
-            intersection.retainAll(allSolutions.get(i));
+            intersection = collectSolutions(model, layout, intersection);
         }
-    
+
         logger.info("[intersection] found {} intersection solutions across {} models (projected on {} common features)",
-                intersection.size(), models.length, sortedCommon.size());
-    
+                intersection.size(), models.length, common.cardinality());
+
         return intersection.size();
-    }    
+    }
 
-    public static void printAllSolutions(final ChocoModel baseModel) {
-        final Model model = baseModel.getModel();
-        model.getSolver().reset();
+    /*
+     * External memory variant for solution spaces that do not fit into the heap: the projected solutions of
+     * every model are spilled as sorted runs to temp files and the intersection is a merge-join of the runs.
+     * Each model buffers at most heapBudgetBytes of solutions on the heap.
+     */
+    public static long findIntersectionSolutionsProjected(final long heapBudgetBytes, final ChocoModel... models) {
+        BitSet common = findCommonFeatureIds("findIntersectionSolutionsProjected", models);
+        if (common.isEmpty()) {
+            return 0;
+        }
 
-        logger.info(SEPARATOR);
-        logger.info("Printing all solutions of model {}:", baseModel.getRegionString());
-        logger.info(SEPARATOR);
+        long solutions = spillAndCount(heapBudgetBytes, common, models, true);
+        logger.info("[intersection] found {} intersection solutions across {} models (projected on {} common features, spilled)",
+                solutions, models.length, common.cardinality());
+        return solutions;
+    }
 
-        String[] orderedFeatures = baseModel.getFeatures().keySet().toArray(new String[0]);
+    // number of distinct solutions of at least one model projected on the common features, external memory
+    public static long findUnionSolutionsProjected(final long heapBudgetBytes, final ChocoModel... models) {
+        BitSet common = findCommonFeatureIds("findUnionSolutionsProjected", models);
+        if (common.isEmpty()) {
+            return 0;
+        }
 
-        // Calculate column widths based on feature names (minimum width of 3 to fit
-        // "0/1" or "-")
-        int[] columnWidths = new int[orderedFeatures.length];
-        for (int i = 0; i < orderedFeatures.length; i++) {
-            columnWidths[i] = Math.max(3, orderedFeatures[i].length());
+        long solutions = spillAndCount(heapBudgetBytes, common, models, false);
+        logger.info("[union] found {} union solutions across {} models (projected on {} common features, spilled)",
+                solutions, models.length, common.cardinality());
+        return solutions;
+    }
+
+    // shared feature ids of all models, an empty set if the models have no common features
+    private static BitSet findCommonFeatureIds(final String caller, final ChocoModel... models) {
+        if (models == null || models.length < 2) {
+            throw new IllegalArgumentException(caller + " requires at least 2 models");
         }
 
-        // Print header
-        StringBuilder header = new StringBuilder(String.format("%-4s | ", "Sol#"));
-        for (int i = 0; i < orderedFeatures.length; i++) {
-            String featureName = orderedFeatures[i];
-            header.append(featureName).append(" ".repeat(Math.max(0, columnWidths[i] - featureName.length())))
-                    .append(" | ");
+        BitSet common = (BitSet) models[0].getFeatureIds().clone();
+        for (ChocoModel m : models) {
+            common.and(m.getFeatureIds());
         }
-        logger.info(header);
 
-        int solutionCount = 0;
-        Map<String, BoolVar> features = baseModel.getFeatures();
+        if (common.isEmpty()) {
+            logger.warn("[intersection] no common features across {} models, result is empty", models.length);
+        }
+        return common;
+    }
 
-        while (model.getSolver().solve()) {
-            solutionCount++;
-            StringBuilder solution = new StringBuilder();
-            solution.append(String.format("%-4d | ", solutionCount));
-
-            // Add each feature's value (0/1) to the line in specified order with proper
-            // alignment
-            for (int i = 0; i < orderedFeatures.length; i++) {
-                String featureName = orderedFeatures[i];
-                BoolVar featureVar = features.get(featureName);
-                if (featureVar != null) {
-                    int value = featureVar.getValue();
-                    solution.append(value)
-                            .append(" ".repeat(Math.max(0, columnWidths[i] - String.valueOf(value).length())))
-                            .append(" | ");
-                } else {
-                    solution.append("-").append(" ".repeat(Math.max(0, columnWidths[i] - 1))).append(" | ");
+    private static long spillAndCount(final long heapBudgetBytes, final BitSet common, final ChocoModel[] models,
+            final boolean intersect) {
+        SolutionLayout layout = new SolutionLayout(common);
+        List<SpilledSolutionSet> sets = new ArrayList<>();
+        try {
+            for (ChocoModel model : models) {
+                SpilledSolutionSet solutions = new SpilledSolutionSet(layout, heapBudgetBytes);
+                sets.add(solutions);
+                spillSolutions(model, layout, solutions);
+            }
+            return intersect ? SpilledSolutionSet.countIntersection(sets) : SpilledSolutionSet.countUnion(sets);
+        } finally {
+            for (SpilledSolutionSet solutions : sets) {
+                try {
+                    solutions.close();
+                } catch (IOException e) {
+                    logger.warn("[spill] could not delete solution runs: {}", e.getMessage());
                 }
             }
+        }
+    }
+
+    private static void spillSolutions(final ChocoModel model, final SolutionLayout layout,
+            final SpilledSolutionSet solutions) {
+        long[] solution = new long[layout.getNumberOfWords()];
+        long found = 0;
+
+        resetForEnumeration(model);
+        while (model.getModel().getSolver().solve()) {
+            solutions.add(layout.pack(model, solution));
+            found++;
+        }
+
+        logger.info("[intersection] collected {} projected solutions of model {} ({} runs spilled)",
+                found, model.getRegionString(), solutions.getNumberOfRuns());
+    }
+
+    /*
+     * Enumerates all solutions of the model packed with the given layout.
+     * If a filter is given only the solutions that are part of the filter are kept.
+     */
+    private static PackedSolutionSet collectSolutions(final ChocoModel model, final SolutionLayout layout,
+            final PackedSolutionSet filter) {
+        PackedSolutionSet solutions = new PackedSolutionSet(layout);
+        long[] solution = new long[layout.getNumberOfWords()];
+
+        resetForEnumeration(model);
+        while (model.getModel().getSolver().solve()) {
+            layout.pack(model, solution);
+            if (filter == null || filter.contains(solution)) {
+                solutions.add(solution);
+            }
+        }
+
+        logger.info("[intersection] kept {} projected solutions of model {} (on {} features, {} bytes)",
+                solutions.size(), model.getRegionString(), layout.getNumberOfFeatures(), solutions.getMemoryUsage());
+        return solutions;
+    }
+
+    // streams the solutions as CSV to the standard output instead of logging a table row by row
+    public static void printAllSolutions(final ChocoModel baseModel) {
+        logger.info(SEPARATOR);
+        logger.info("Printing all solutions of model {}:", baseModel.getRegionString());
+        logger.info(SEPARATOR);
 
-            logger.info(solution);
+        long solutionCount;
+        try {
+            solutionCount = new SolutionStream(baseModel).to(CsvSolutionSink.toStandardOutput());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not print solutions", e);
         }
 
         logger.info(SEPARATOR);
@@ -0,0 +1,40 @@
+package util.analyse.impl;
+
+import model.choco.ChocoModel;
+import model.choco.EncodingMode;
+import model.recreate.RecreationModel;
+import util.ChocoTranslator;
+import util.analyse.SolverBackend;
+
+/*
+ * Solver backend that translates every model to Choco, the original solving path of the analyser.
+ * The clausal instance translates with {@link EncodingMode#CLAUSAL}.
+ */
+public final class ChocoSolverBackend implements SolverBackend {
+
+    public static final ChocoSolverBackend INSTANCE = new ChocoSolverBackend(EncodingMode.REIFIED);
+    public static final ChocoSolverBackend CLAUSAL = new ChocoSolverBackend(EncodingMode.CLAUSAL);
+
+    private final EncodingMode encodingMode;
+
+    private ChocoSolverBackend(final EncodingMode encodingMode) {
+        this.encodingMode = encodingMode;
+    }
+
+    @Override
+    public String getName() {
+        return encodingMode == EncodingMode.CLAUSAL ? "choco-clausal" : "choco";
+    }
+
+    @Override
+    public boolean isConsistent(final RecreationModel model) {
+        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(model, encodingMode);
+        return ChocoAnalyser.isConsistent(chocoModel, false);
+    }
+
+    @Override
+    public long returnNumberOfSolutions(final RecreationModel model) {
+        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(model, encodingMode);
+        return ChocoAnalyser.returnNumberOfSolutions(chocoModel);
+    }
+}
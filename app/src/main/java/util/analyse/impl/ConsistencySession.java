@@ -0,0 +1,269 @@
+package util.analyse.impl;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.BoolVar;
+
+import model.choco.ChocoModel;
+import model.choco.EncodingMode;
+import model.choco.SolverProfile;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.GroupConstraint;
+import util.ChocoTranslator;
+
+/*
+ * Incremental consistency checks on a single Choco model.
+ *
+ * The features, the root feature and all custom constraints of a {@link RecreationModel} are translated
+ * once and posted unconditionally. Every other constraint is reified once into a boolVar φ. Whether φ has
+ * to hold is decided by small retractable constraints that are swapped when the state of the constraint
+ * changes, instead of retranslating the whole model:
+ *
+ * - active, contextualized:      region → φ
+ * - active, decontextualized:    φ
+ * - negated, contextualized:     region → ¬φ
+ * - negated, decontextualized:   ¬φ
+ * - inactive:                    nothing, φ stays functionally determined and does not restrict the model
+ *
+ * Choco offers no solving under assumptions, so these retractable constraints act as activation literals:
+ * they are posted and unposted at the root node between two solves.
+ *
+ * Group constraints are reified into their group logic φ and the child → parent implications ψ, which
+ * are enforced the same way. Like in the translator a negated decontextualized group keeps ψ as hard
+ * constraint and a negated contextualized group stays enforced as is.
+ */
+public class ConsistencySession {
+    private static final Logger logger = LogManager.getLogger(ConsistencySession.class);
+
+    private final ChocoModel chocoModel;
+    private final Map<AbstractConstraint, Slot> slots = new IdentityHashMap<>();
+    private final SolverProfile profile;
+
+    public enum State {
+        ACTIVE,
+        NEGATED,
+        INACTIVE
+    }
+
+    // reified constraint and the retractable constraints that currently enforce it
+    private static final class Slot {
+        private final BoolVar constraintVar;
+        private final BoolVar implicationsVar;
+        private final BoolVar regionVar;
+        private boolean contextualized;
+        private State state = State.ACTIVE;
+        private Constraint[] enforcement = new Constraint[0];
+
+        private Slot(final BoolVar constraintVar, final BoolVar implicationsVar, final BoolVar regionVar) {
+            this.constraintVar = constraintVar;
+            this.implicationsVar = implicationsVar;
+            this.regionVar = regionVar;
+            this.contextualized = regionVar != null;
+        }
+    }
+
+    public ConsistencySession(final RecreationModel recModel) {
+        this(recModel, EncodingMode.REIFIED);
+    }
+
+    public ConsistencySession(final RecreationModel recModel, final EncodingMode encodingMode) {
+        this(recModel, encodingMode, SolverProfile.defaultProfile());
+    }
+
+    /*
+     * Nogoods of the profile are not recorded, they would outlive the retractable constraints they were
+     * derived from.
+     */
+    public ConsistencySession(final RecreationModel recModel, final EncodingMode encodingMode,
+            final SolverProfile profile) {
+        this.chocoModel = ChocoTranslator.convertFeaturesToChocoModel(recModel, encodingMode);
+        this.profile = profile.withoutNogoods();
+
+        for (AbstractConstraint constraint : recModel.getConstraints()) {
+            if (constraint.isCustomConstraint()) {
+                ChocoTranslator.postConstraint(constraint, chocoModel);
+            } else {
+                register(constraint);
+            }
+        }
+
+        logger.debug("\t[consistencySession] translated model {} once with {} retractable constraints",
+                recModel.getRegionString(), slots.size());
+    }
+
+    /*
+     * Decontextualizes the given constraint, so it has to hold in every region from now on.
+     */
+    public void decontextualize(final AbstractConstraint constraint) {
+        Slot slot = getSlot(constraint);
+        if (!slot.contextualized) {
+            return;
+        }
+
+        slot.contextualized = false;
+        enforce(slot);
+    }
+
+    public void activate(final AbstractConstraint constraint) {
+        setState(constraint, State.ACTIVE);
+    }
+
+    public void negate(final AbstractConstraint constraint) {
+        setState(constraint, State.NEGATED);
+    }
+
+    public void deactivate(final AbstractConstraint constraint) {
+        setState(constraint, State.INACTIVE);
+    }
+
+    // true if the state of the constraint can be changed, custom constraints are posted unconditionally
+    public boolean manages(final AbstractConstraint constraint) {
+        return slots.containsKey(constraint);
+    }
+
+    public State getState(final AbstractConstraint constraint) {
+        return getSlot(constraint).state;
+    }
+
+    /*
+     * Checks if the current model is consistent.
+     */
+    public boolean isConsistent() {
+        return solve();
+    }
+
+    /*
+     * Checks if the current model is consistent together with the negated and decontextualized
+     * given constraint, without changing the state of the session.
+     */
+    public boolean isConsistentWithNegation(final AbstractConstraint constraint) {
+        final Model model = chocoModel.getModel();
+        Slot slot = getSlot(constraint);
+
+        Constraint[] negation = slot.implicationsVar == null
+                ? new Constraint[] { model.arithm(slot.constraintVar, "=", 0) }
+                : new Constraint[] { model.arithm(slot.constraintVar, "=", 0),
+                        model.arithm(slot.implicationsVar, "=", 1) };
+
+        resetSolver();
+        model.post(negation);
+        try {
+            return solve();
+        } finally {
+            model.unpost(negation);
+        }
+    }
+
+    public ChocoModel getChocoModel() {
+        return chocoModel;
+    }
+
+    private void register(final AbstractConstraint constraint) {
+        BoolVar regionVar = ChocoTranslator.getRegionVar(constraint, chocoModel);
+        Slot slot;
+
+        if (constraint instanceof GroupConstraint gc) {
+            slot = new Slot(ChocoTranslator.reifyGroupLogic(gc, chocoModel),
+                    ChocoTranslator.reifyGroupImplications(gc, chocoModel), regionVar);
+        } else {
+            slot = new Slot(ChocoTranslator.reifyConstraint(constraint, chocoModel), null, regionVar);
+        }
+
+        slots.put(constraint, slot);
+        enforce(slot);
+    }
+
+    private void setState(final AbstractConstraint constraint, final State state) {
+        Slot slot = getSlot(constraint);
+        if (slot.state == state) {
+            return;
+        }
+
+        slot.state = state;
+        enforce(slot);
+    }
+
+    // replaces the retractable constraints of the slot according to its state and contextualization
+    private void enforce(final Slot slot) {
+        final Model model = chocoModel.getModel();
+        resetSolver();
+
+        if (slot.enforcement.length > 0) {
+            model.unpost(slot.enforcement);
+        }
+
+        slot.enforcement = switch (slot.state) {
+            case ACTIVE -> createActiveConstraints(slot);
+            case NEGATED -> createNegatedConstraints(slot);
+            case INACTIVE -> new Constraint[0];
+        };
+
+        if (slot.enforcement.length > 0) {
+            model.post(slot.enforcement);
+        }
+    }
+
+    private Constraint[] createActiveConstraints(final Slot slot) {
+        final Model model = chocoModel.getModel();
+
+        BoolVar[] vars = slot.implicationsVar == null
+                ? new BoolVar[] { slot.constraintVar }
+                : new BoolVar[] { slot.constraintVar, slot.implicationsVar };
+
+        Constraint[] constraints = new Constraint[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            constraints[i] = slot.contextualized
+                    ? model.arithm(slot.regionVar, "<=", vars[i])
+                    : model.arithm(vars[i], "=", 1);
+        }
+
+        return constraints;
+    }
+
+    private Constraint[] createNegatedConstraints(final Slot slot) {
+        final Model model = chocoModel.getModel();
+
+        if (slot.implicationsVar == null) {
+            return new Constraint[] { slot.contextualized
+                    ? model.arithm(slot.regionVar, "+", slot.constraintVar, "<=", 1)
+                    : model.arithm(slot.constraintVar, "=", 0) };
+        }
+
+        // the translator only negates the group logic of decontextualized groups
+        if (slot.contextualized) {
+            return createActiveConstraints(slot);
+        }
+
+        return new Constraint[] { model.arithm(slot.constraintVar, "=", 0),
+                model.arithm(slot.implicationsVar, "=", 1) };
+    }
+
+    private Slot getSlot(final AbstractConstraint constraint) {
+        Slot slot = slots.get(constraint);
+        if (slot == null) {
+            throw new IllegalArgumentException("constraint is not managed by this consistency session: " + constraint);
+        }
+        return slot;
+    }
+
+    private boolean solve() {
+        resetSolver();
+        ChocoAnalyser.configureSearch(chocoModel, profile);
+        boolean solved = chocoModel.getModel().getSolver().solve();
+        resetSolver();
+        return solved;
+    }
+
+    // constraints can only be posted and unposted at the root node of the search
+    private void resetSolver() {
+        Solver solver = chocoModel.getModel().getSolver();
+        solver.reset();
+    }
+}
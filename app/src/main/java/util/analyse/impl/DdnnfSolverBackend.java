@@ -0,0 +1,33 @@
+package util.analyse.impl;
+
+import model.recreate.RecreationModel;
+import util.analyse.SolverBackend;
+import util.analyse.ddnnf.DdnnfCompiler;
+
+/*
+ * Solver backend that compiles every model into d-DNNF with {@link DdnnfCompiler}.
+ * Solutions are counted on the compiled graph instead of being enumerated, so the count is exact
+ * even for models with astronomically many configurations, as long as it fits into a long.
+ */
+public final class DdnnfSolverBackend implements SolverBackend {
+
+    public static final DdnnfSolverBackend INSTANCE = new DdnnfSolverBackend();
+
+    private DdnnfSolverBackend() {
+    }
+
+    @Override
+    public String getName() {
+        return "ddnnf";
+    }
+
+    @Override
+    public boolean isConsistent(final RecreationModel model) {
+        return DdnnfCompiler.compile(model).isConsistent();
+    }
+
+    @Override
+    public long returnNumberOfSolutions(final RecreationModel model) {
+        return DdnnfCompiler.compile(model).count().longValueExact();
+    }
+}
@@ -0,0 +1,115 @@
+package util.analyse.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.recreate.RecreationModel;
+import util.analyse.SolverBackend;
+import util.analyse.decompose.ComponentDecomposer;
+
+/*
+ * Solver backend that splits every model into independent components with {@link ComponentDecomposer}
+ * and solves the components with the given backend on a pool of threads.
+ *
+ * - consistency: every component has to be consistent, the first inconsistent component cancels the others
+ * - solutions:   the product of the numbers of solutions of the components
+ *
+ * Models with a single component are solved directly by the given backend.
+ */
+public final class DecomposedSolverBackend implements SolverBackend {
+    private static final Logger logger = LogManager.getLogger(DecomposedSolverBackend.class);
+
+    private final SolverBackend backend;
+    private final int threads;
+
+    public DecomposedSolverBackend(final SolverBackend backend, final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("number of threads must be at least 1, got " + threads);
+        }
+        this.backend = backend;
+        this.threads = threads;
+    }
+
+    @Override
+    public String getName() {
+        return "decomposed(" + backend.getName() + ")";
+    }
+
+    @Override
+    public boolean isConsistent(final RecreationModel model) {
+        List<RecreationModel> components = ComponentDecomposer.decompose(model);
+        if (components.size() == 1) {
+            return backend.isConsistent(components.get(0));
+        }
+
+        logger.debug("\t[isConsistent] solving {} components of model {}", components.size(), model.getRegionString());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, components.size()));
+        try {
+            CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (RecreationModel component : components) {
+                futures.add(completionService.submit(() -> backend.isConsistent(component)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                if (!await(completionService.take())) {
+                    futures.forEach(future -> future.cancel(true));
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("decomposed consistency check was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public long returnNumberOfSolutions(final RecreationModel model) {
+        List<RecreationModel> components = ComponentDecomposer.decompose(model);
+        if (components.size() == 1) {
+            return backend.returnNumberOfSolutions(components.get(0));
+        }
+
+        logger.debug("\t[returnNumberOfSolutions] counting {} components of model {}", components.size(),
+                model.getRegionString());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, components.size()));
+        try {
+            List<Callable<Long>> counts = new ArrayList<>();
+            for (RecreationModel component : components) {
+                counts.add(() -> backend.returnNumberOfSolutions(component));
+            }
+
+            long solutions = 1;
+            for (Future<Long> count : executor.invokeAll(counts)) {
+                solutions = Math.multiplyExact(solutions, await(count));
+            }
+            return solutions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("decomposed solution count was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("solving a component failed", e.getCause());
+        }
+    }
+}
@@ -29,12 +29,8 @@ public class RecreationAnalyser {
     private static final Logger logger = LogManager.getLogger(RecreationAnalyser.class);
 
     public static float returnContextualizationShare(final RecreationModel model) {
-        long contextualizedSize = model.getConstraints().stream()
-                .filter(c -> c.isContextualized() && !c.isCustomConstraint() && !c.isFeatureTreeConstraint())
-                .count();
-        long constraintsSize = model.getConstraints().stream()
-                .filter(c -> !c.isCustomConstraint() && !c.isFeatureTreeConstraint())
-                .count();
+        long contextualizedSize = model.getConstraints().countContextualizedCrossTreeConstraints();
+        long constraintsSize = model.getConstraints().countCrossTreeConstraints();
 
         return constraintsSize > 0 ? (float) contextualizedSize / constraintsSize : 0;
     }
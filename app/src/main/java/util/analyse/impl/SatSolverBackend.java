@@ -0,0 +1,63 @@
+package util.analyse.impl;
+
+import java.util.Collection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.recreate.RecreationModel;
+import util.analyse.SolverBackend;
+import util.analyse.sat.CdclSolver;
+import util.analyse.sat.CnfEncoder;
+import util.analyse.sat.CnfFormula;
+
+/*
+ * Solver backend that encodes every model as CNF and solves it with the pure Java {@link CdclSolver}.
+ * Solutions are counted by enumerating models and blocking their feature assignment.
+ */
+public final class SatSolverBackend implements SolverBackend {
+    private static final Logger logger = LogManager.getLogger(SatSolverBackend.class);
+
+    public static final SatSolverBackend INSTANCE = new SatSolverBackend();
+
+    private SatSolverBackend() {
+    }
+
+    @Override
+    public String getName() {
+        return "sat";
+    }
+
+    @Override
+    public boolean isConsistent(final RecreationModel model) {
+        CnfFormula cnf = CnfEncoder.encode(model);
+        CdclSolver solver = cnf.toSolver();
+
+        boolean consistent = solver.solve();
+        logger.trace("[isConsistent] model {} is {} after {} conflicts", model.getRegionString(),
+                consistent ? "consistent" : "inconsistent", solver.getConflicts());
+        return consistent;
+    }
+
+    @Override
+    public long returnNumberOfSolutions(final RecreationModel model) {
+        CnfFormula cnf = CnfEncoder.encode(model);
+        CdclSolver solver = cnf.toSolver();
+        Collection<Integer> featureVars = cnf.getFeatureVars().values();
+
+        long solutions = 0;
+        while (solver.solve()) {
+            solutions++;
+
+            // block the feature assignment of the found solution
+            int[] blockingClause = featureVars.stream()
+                    .mapToInt(var -> solver.value(var) ? -var : var)
+                    .toArray();
+            if (!solver.addClause(blockingClause)) {
+                break;
+            }
+        }
+
+        return solutions;
+    }
+}
@@ -0,0 +1,609 @@
+package util.analyse.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Small incremental CDCL SAT solver for the clausal feature model encodings of {@link CnfEncoder}.
+ *
+ * - two watched literals for unit propagation
+ * - VSIDS variable activities with phase saving, features are deselected first
+ * - first UIP conflict analysis with clause minimization, learning and non-chronological backjumping
+ * - Luby restarts, learnt clauses with a high literal block distance are deleted at restarts
+ * - incremental usage: clauses can be added between solves and every solve accepts assumptions,
+ *   an unsatisfiable result under assumptions leaves the clause database usable
+ *
+ * Literals use the DIMACS convention, variable v is the literal v and its negation is -v.
+ */
+public class CdclSolver {
+
+    private static final byte UNDEF = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+
+    private static final int RESTART_BASE = 100;
+    private static final double VAR_DECAY = 0.95;
+    private static final double RESCALE_LIMIT = 1e100;
+    private static final int MIN_LEARNT_LIMIT = 2000;
+    private static final double LEARNT_LIMIT_GROWTH = 1.1;
+
+    private int numVars = 0;
+
+    // per variable state, index 0 is unused
+    private byte[] values = new byte[1];
+    private int[] levels = new int[1];
+    private Clause[] reasons = new Clause[1];
+    private double[] activity = new double[1];
+    private boolean[] phases = new boolean[1];
+    private boolean[] seen = new boolean[1];
+
+    // watch lists per literal code (2 * var for v, 2 * var + 1 for -v)
+    private List<List<Clause>> watches = new ArrayList<>(List.of(new ArrayList<>(), new ArrayList<>()));
+
+    private int[] trail = new int[16];
+    private int trailSize = 0;
+    private int[] trailLimits = new int[16];
+    private int decisionLevel = 0;
+    private int propagationHead = 0;
+
+    private final VarOrder order = new VarOrder();
+    private double varIncrement = 1.0;
+
+    private final List<Clause> learnts = new ArrayList<>();
+    private double learntLimit = MIN_LEARNT_LIMIT;
+    private int numberOfClauses = 0;
+
+    private boolean ok = true;
+    private boolean[] model = new boolean[1];
+    private long conflicts = 0;
+    private long decisions = 0;
+
+    private static final class Clause {
+        private final int[] literals;
+        private final int literalBlockDistance;
+        private boolean deleted = false;
+
+        private Clause(final int[] literals, final int literalBlockDistance) {
+            this.literals = literals;
+            this.literalBlockDistance = literalBlockDistance;
+        }
+    }
+
+    public int newVar() {
+        numVars++;
+        ensureCapacity(numVars);
+        watches.add(new ArrayList<>());
+        watches.add(new ArrayList<>());
+        order.insert(numVars);
+        return numVars;
+    }
+
+    public int getNumberOfVars() {
+        return numVars;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /*
+     * Adds a clause to the solver, returns false if the clause database became unsatisfiable.
+     */
+    public boolean addClause(final int... dimacsLiterals) {
+        if (!ok) {
+            return false;
+        }
+        cancelUntil(0);
+
+        int[] literals = new int[dimacsLiterals.length];
+        int size = 0;
+        for (int dimacsLiteral : dimacsLiterals) {
+            int literal = toCode(dimacsLiteral);
+            byte value = valueOf(literal);
+
+            if (value == TRUE || contains(literals, size, literal ^ 1)) {
+                // satisfied at the root level or tautology
+                return true;
+            }
+            if (value == FALSE || contains(literals, size, literal)) {
+                continue;
+            }
+            literals[size++] = literal;
+        }
+
+        if (size == 0) {
+            ok = false;
+        } else if (size == 1) {
+            enqueue(literals[0], null);
+            ok = propagate() == null;
+        } else {
+            attach(new Clause(Arrays.copyOf(literals, size), 0));
+            numberOfClauses++;
+        }
+
+        return ok;
+    }
+
+    public boolean solve() {
+        return solve(new int[0]);
+    }
+
+    /*
+     * Checks satisfiability of the clause database under the given assumption literals.
+     */
+    public boolean solve(final int... dimacsAssumptions) {
+        if (!ok) {
+            return false;
+        }
+        cancelUntil(0);
+
+        int[] assumptions = new int[dimacsAssumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            assumptions[i] = toCode(dimacsAssumptions[i]);
+        }
+
+        learntLimit = Math.max(learntLimit, numberOfClauses / 3.0);
+
+        Boolean status = null;
+        for (int restart = 0; status == null; restart++) {
+            if (learnts.size() >= learntLimit) {
+                reduceLearnts();
+            }
+            status = search(luby(restart) * RESTART_BASE, assumptions);
+        }
+
+        cancelUntil(0);
+        return status;
+    }
+
+    /*
+     * Returns the value of the variable in the last found model.
+     */
+    public boolean value(final int var) {
+        return model[var];
+    }
+
+    // returns TRUE, FALSE or null if the conflict budget of the restart is exhausted
+    private Boolean search(final long conflictBudget, final int[] assumptions) {
+        long conflictsOfRestart = 0;
+
+        while (true) {
+            Clause conflict = propagate();
+
+            if (conflict != null) {
+                conflicts++;
+                conflictsOfRestart++;
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return false;
+                }
+
+                int[] learnt = analyze(conflict);
+                cancelUntil(backjumpLevel(learnt));
+
+                if (learnt.length == 1) {
+                    enqueue(learnt[0], null);
+                } else {
+                    Clause clause = new Clause(learnt, literalBlockDistance(learnt));
+                    attach(clause);
+                    learnts.add(clause);
+                    enqueue(learnt[0], clause);
+                }
+                varIncrement /= VAR_DECAY;
+                continue;
+            }
+
+            if (conflictsOfRestart >= conflictBudget) {
+                cancelUntil(0);
+                return null;
+            }
+
+            int next = -1;
+            while (decisionLevel < assumptions.length) {
+                int assumption = assumptions[decisionLevel];
+                byte value = valueOf(assumption);
+                if (value == TRUE) {
+                    // already implied, open an empty decision level to keep levels and assumptions aligned
+                    newDecisionLevel();
+                } else if (value == FALSE) {
+                    return false;
+                } else {
+                    next = assumption;
+                    break;
+                }
+            }
+
+            if (next == -1) {
+                next = pickBranchLiteral();
+                if (next == -1) {
+                    saveModel();
+                    return true;
+                }
+                decisions++;
+            }
+
+            newDecisionLevel();
+            enqueue(next, null);
+        }
+    }
+
+    private Clause propagate() {
+        while (propagationHead < trailSize) {
+            int falseLiteral = trail[propagationHead++] ^ 1;
+            List<Clause> watchList = watches.get(falseLiteral);
+
+            int i = 0;
+            int j = 0;
+            int size = watchList.size();
+            while (i < size) {
+                Clause clause = watchList.get(i++);
+                if (clause.deleted) {
+                    continue;
+                }
+                int[] literals = clause.literals;
+
+                // make sure the false literal is the second watch
+                if (literals[0] == falseLiteral) {
+                    literals[0] = literals[1];
+                    literals[1] = falseLiteral;
+                }
+
+                if (valueOf(literals[0]) == TRUE) {
+                    watchList.set(j++, clause);
+                    continue;
+                }
+
+                boolean moved = false;
+                for (int k = 2; k < literals.length; k++) {
+                    if (valueOf(literals[k]) != FALSE) {
+                        literals[1] = literals[k];
+                        literals[k] = falseLiteral;
+                        watches.get(literals[1]).add(clause);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                watchList.set(j++, clause);
+                if (valueOf(literals[0]) == FALSE) {
+                    while (i < size) {
+                        watchList.set(j++, watchList.get(i++));
+                    }
+                    watchList.subList(j, size).clear();
+                    propagationHead = trailSize;
+                    return clause;
+                }
+                enqueue(literals[0], clause);
+            }
+            watchList.subList(j, size).clear();
+        }
+
+        return null;
+    }
+
+    // first UIP learning, the asserting literal is at index 0 and the literal of the backjump level at index 1
+    private int[] analyze(Clause conflict) {
+        List<Integer> learnt = new ArrayList<>();
+        learnt.add(-1);
+
+        int pathCount = 0;
+        int literal = -1;
+        int index = trailSize - 1;
+
+        do {
+            int[] literals = conflict.literals;
+            for (int k = literal == -1 ? 0 : 1; k < literals.length; k++) {
+                int var = literals[k] >> 1;
+                if (!seen[var] && levels[var] > 0) {
+                    bumpActivity(var);
+                    seen[var] = true;
+                    if (levels[var] >= decisionLevel) {
+                        pathCount++;
+                    } else {
+                        learnt.add(literals[k]);
+                    }
+                }
+            }
+
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            conflict = reasons[literal >> 1];
+            seen[literal >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+
+        learnt.set(0, literal ^ 1);
+
+        // drop literals that are implied by the other literals of the clause
+        List<Integer> minimized = new ArrayList<>();
+        minimized.add(learnt.get(0));
+        for (int k = 1; k < learnt.size(); k++) {
+            if (!isRedundant(learnt.get(k))) {
+                minimized.add(learnt.get(k));
+            }
+        }
+        for (int k = 1; k < learnt.size(); k++) {
+            seen[learnt.get(k) >> 1] = false;
+        }
+
+        int[] result = new int[minimized.size()];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = minimized.get(k);
+        }
+
+        // watch the literal with the highest level besides the asserting one
+        int maxIndex = 1;
+        for (int k = 2; k < result.length; k++) {
+            if (levels[result[k] >> 1] > levels[result[maxIndex] >> 1]) {
+                maxIndex = k;
+            }
+        }
+        if (result.length > 1) {
+            int swap = result[1];
+            result[1] = result[maxIndex];
+            result[maxIndex] = swap;
+        }
+
+        return result;
+    }
+
+    // a literal is redundant if all other literals of its reason are in the learnt clause or fixed at the root
+    private boolean isRedundant(final int literal) {
+        Clause reason = reasons[literal >> 1];
+        if (reason == null) {
+            return false;
+        }
+
+        for (int other : reason.literals) {
+            int var = other >> 1;
+            if (var != literal >> 1 && !seen[var] && levels[var] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int literalBlockDistance(final int[] literals) {
+        Set<Integer> distinctLevels = new HashSet<>();
+        for (int literal : literals) {
+            distinctLevels.add(levels[literal >> 1]);
+        }
+        return distinctLevels.size();
+    }
+
+    // deletes the worse half of the learnt clauses, binary clauses and reasons of assignments are kept
+    private void reduceLearnts() {
+        cancelUntil(0);
+        learnts.sort(Comparator.comparingInt((Clause clause) -> clause.literalBlockDistance)
+                .thenComparingInt(clause -> clause.literals.length));
+
+        List<Clause> kept = new ArrayList<>(learnts.subList(0, learnts.size() / 2));
+        for (Clause clause : learnts.subList(learnts.size() / 2, learnts.size())) {
+            if (clause.literals.length <= 2 || reasons[clause.literals[0] >> 1] == clause) {
+                kept.add(clause);
+            } else {
+                clause.deleted = true;
+            }
+        }
+
+        learnts.clear();
+        learnts.addAll(kept);
+        learntLimit *= LEARNT_LIMIT_GROWTH;
+    }
+
+    private int backjumpLevel(final int[] learnt) {
+        return learnt.length == 1 ? 0 : levels[learnt[1] >> 1];
+    }
+
+    private int pickBranchLiteral() {
+        while (!order.isEmpty()) {
+            int var = order.removeMax();
+            if (values[var] == UNDEF) {
+                return 2 * var + (phases[var] ? 0 : 1);
+            }
+        }
+        return -1;
+    }
+
+    private void attach(final Clause clause) {
+        watches.get(clause.literals[0]).add(clause);
+        watches.get(clause.literals[1]).add(clause);
+    }
+
+    private void enqueue(final int literal, final Clause reason) {
+        int var = literal >> 1;
+        values[var] = (literal & 1) == 0 ? TRUE : FALSE;
+        levels[var] = decisionLevel;
+        reasons[var] = reason;
+        if (trailSize == trail.length) {
+            trail = Arrays.copyOf(trail, trail.length * 2);
+        }
+        trail[trailSize++] = literal;
+    }
+
+    private void newDecisionLevel() {
+        if (decisionLevel == trailLimits.length) {
+            trailLimits = Arrays.copyOf(trailLimits, trailLimits.length * 2);
+        }
+        trailLimits[decisionLevel++] = trailSize;
+    }
+
+    private void cancelUntil(final int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+
+        for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+            int var = trail[i] >> 1;
+            phases[var] = values[var] == TRUE;
+            values[var] = UNDEF;
+            reasons[var] = null;
+            order.insert(var);
+        }
+        trailSize = trailLimits[level];
+        propagationHead = trailSize;
+        decisionLevel = level;
+    }
+
+    private void saveModel() {
+        model = new boolean[numVars + 1];
+        for (int var = 1; var <= numVars; var++) {
+            model[var] = values[var] == TRUE;
+        }
+    }
+
+    private void bumpActivity(final int var) {
+        activity[var] += varIncrement;
+        if (activity[var] > RESCALE_LIMIT) {
+            for (int v = 1; v <= numVars; v++) {
+                activity[v] *= 1 / RESCALE_LIMIT;
+            }
+            varIncrement *= 1 / RESCALE_LIMIT;
+        }
+        order.increased(var);
+    }
+
+    private byte valueOf(final int literal) {
+        byte value = values[literal >> 1];
+        return (literal & 1) == 0 ? value : (byte) -value;
+    }
+
+    private int toCode(final int dimacsLiteral) {
+        int var = Math.abs(dimacsLiteral);
+        if (dimacsLiteral == 0 || var > numVars) {
+            throw new IllegalArgumentException("unknown literal " + dimacsLiteral + " for " + numVars + " variables");
+        }
+        return 2 * var + (dimacsLiteral < 0 ? 1 : 0);
+    }
+
+    private void ensureCapacity(final int var) {
+        if (var < values.length) {
+            return;
+        }
+
+        int capacity = Math.max(var + 1, values.length * 2);
+        values = Arrays.copyOf(values, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        reasons = Arrays.copyOf(reasons, capacity);
+        activity = Arrays.copyOf(activity, capacity);
+        phases = Arrays.copyOf(phases, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        if (trail.length < capacity) {
+            trail = Arrays.copyOf(trail, capacity);
+        }
+    }
+
+    private static boolean contains(final int[] literals, final int size, final int literal) {
+        for (int i = 0; i < size; i++) {
+            if (literals[i] == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+    private static long luby(final int index) {
+        int size = 1;
+        int sequence = 0;
+        while (size < index + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+
+        int x = index;
+        while (size - 1 != x) {
+            size = (size - 1) >> 1;
+            sequence--;
+            x = x % size;
+        }
+
+        return 1L << sequence;
+    }
+
+    // binary max heap of the unassigned variables ordered by activity
+    private final class VarOrder {
+        private int[] heap = new int[16];
+        private int[] positions = new int[16];
+        private int size = 0;
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void insert(final int var) {
+            if (var >= positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(var + 1, positions.length * 2));
+            }
+            if (positions[var] > 0) {
+                return;
+            }
+            if (size + 1 >= heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            heap[++size] = var;
+            positions[var] = size;
+            siftUp(size);
+        }
+
+        private int removeMax() {
+            int max = heap[1];
+            positions[max] = 0;
+            heap[1] = heap[size];
+            size--;
+            if (size > 0) {
+                positions[heap[1]] = 1;
+                siftDown(1);
+            }
+            return max;
+        }
+
+        private void increased(final int var) {
+            if (var < positions.length && positions[var] > 0) {
+                siftUp(positions[var]);
+            }
+        }
+
+        private void siftUp(int index) {
+            int var = heap[index];
+            while (index > 1 && activity[heap[index >> 1]] < activity[var]) {
+                heap[index] = heap[index >> 1];
+                positions[heap[index]] = index;
+                index >>= 1;
+            }
+            heap[index] = var;
+            positions[var] = index;
+        }
+
+        private void siftDown(int index) {
+            int var = heap[index];
+            while (2 * index <= size) {
+                int child = 2 * index;
+                if (child + 1 <= size && activity[heap[child + 1]] > activity[heap[child]]) {
+                    child++;
+                }
+                if (activity[heap[child]] <= activity[var]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                positions[heap[index]] = index;
+                index = child;
+            }
+            heap[index] = var;
+            positions[var] = index;
+        }
+    }
+}
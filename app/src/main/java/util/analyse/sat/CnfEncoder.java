@@ -0,0 +1,306 @@
+package util.analyse.sat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.choco.ConstraintKey;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.BinaryConstraint;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.constraints.NotConstraint;
+import model.recreate.constraints.OrNegationConstraint;
+import model.recreate.feature.Feature;
+
+/*
+ * Translates a {@link RecreationModel} into a {@link CnfFormula} with the same semantics as the
+ * {@link util.ChocoTranslator} encoding.
+ *
+ * - cross tree constraints are encoded with Tseitin variables in full equivalence
+ * - group cardinalities are encoded with a sequential counter, s(i, j) ⇔ "at least j of the first i children",
+ *   which is fully defined as s(i, j) ⇔ s(i - 1, j) ∨ (s(i - 1, j - 1) ∧ x_i)
+ * - contextualization is encoded as region → φ, contextualized groups are gated inside like in the translator
+ *
+ * Because every auxiliary variable is fully defined, the number of models of the formula is the number
+ * of feature configurations, exactly as the solution count of the Choco model.
+ */
+public class CnfEncoder {
+    private static final Logger logger = LogManager.getLogger(CnfEncoder.class);
+
+    private final CnfFormula cnf = new CnfFormula();
+    private final Map<ConstraintKey, Integer> constraintLiterals = new HashMap<>();
+    private int trueLiteral = 0;
+
+    private CnfEncoder() {
+    }
+
+    public static CnfFormula encode(final RecreationModel recModel) {
+        final CnfEncoder encoder = new CnfEncoder();
+
+        if (recModel.getFeatures().isEmpty() || recModel.getConstraints().isEmpty()) {
+            // same as the translator, an empty model has exactly one (empty) solution
+            return encoder.cnf;
+        }
+
+        for (Feature feature : recModel.getFeatures().values()) {
+            encoder.cnf.addFeature(feature.getName());
+        }
+        encoder.cnf.addClause(encoder.getFeatureLiteral(recModel.getRootFeature().getName()));
+
+        for (AbstractConstraint constraint : recModel.getConstraints()) {
+            encoder.processConstraint(constraint);
+        }
+
+        logger.trace("[encode] encoded model {} with {} variables and {} clauses", recModel.getRegionString(),
+                encoder.cnf.getNumberOfVars(), encoder.cnf.getNumberOfClauses());
+        return encoder.cnf;
+    }
+
+    private void processConstraint(final AbstractConstraint constraint) {
+        Integer regionLiteral = getRegionLiteral(constraint);
+        int constraintLiteral = getConstraintLiteral(constraint, regionLiteral);
+
+        if (constraint.isContextualized()) {
+            // group constraints are gated by their region inside the group encoding
+            if (!(constraint instanceof GroupConstraint)) {
+                cnf.addClause(-regionLiteral, constraintLiteral);
+            }
+        } else {
+            cnf.addClause(constraintLiteral);
+        }
+    }
+
+    // literal of a top level constraint including its negation
+    private int getConstraintLiteral(final AbstractConstraint constraint, final Integer regionLiteral) {
+        final ConstraintKey key = ConstraintKey.of(constraint,
+                regionLiteral == null ? null : constraint.getContextualizationValue());
+        Integer literal = key == null ? null : constraintLiterals.get(key);
+
+        if (literal == null) {
+            literal = switch (constraint) {
+                case GroupConstraint gc -> encodeGroup(gc, regionLiteral);
+                case BinaryConstraint bc -> encodeBinary(bc);
+                case NotConstraint nc -> -getNestedLiteral(nc.getInner());
+                case FeatureReferenceConstraint frc -> getFeatureLiteral(frc.getFeature().getName());
+                case OrNegationConstraint onc -> encodeOrNegation(onc);
+                default -> throw new UnsupportedOperationException(
+                        "Unsupported constraint type: " + constraint.getClass().getSimpleName());
+            };
+            if (key != null) {
+                constraintLiterals.put(key, literal);
+            }
+        }
+
+        return constraint.isNegation() ? -literal : literal;
+    }
+
+    // literal of a nested constraint, nested constraints ignore their negation and contextualization
+    private int getNestedLiteral(final AbstractConstraint constraint) {
+        final ConstraintKey key = ConstraintKey.of(constraint, null);
+        Integer literal = key == null ? null : constraintLiterals.get(key);
+        if (literal != null) {
+            return literal;
+        }
+
+        literal = switch (constraint) {
+            case FeatureReferenceConstraint frc -> getFeatureLiteral(frc.getFeature().getName());
+            case NotConstraint nc -> -getNestedLiteral(nc.getInner());
+            case BinaryConstraint bc -> encodeBinary(bc);
+            case GroupConstraint gc -> encodeGroup(gc, null);
+            case OrNegationConstraint onc -> encodeOrNegation(onc);
+            default -> throw new UnsupportedOperationException(
+                    "Unsupported constraint type encountered: " + constraint.getClass().getSimpleName());
+        };
+        if (key != null) {
+            constraintLiterals.put(key, literal);
+        }
+
+        return literal;
+    }
+
+    private int encodeBinary(final BinaryConstraint bc) {
+        int antecedent = getNestedLiteral((AbstractConstraint) bc.getAntecedent());
+        int consequent = getNestedLiteral((AbstractConstraint) bc.getConsequent());
+
+        return switch (bc.getOperator()) {
+            case AND -> and(antecedent, consequent);
+            case OR -> or(antecedent, consequent);
+            case IMPLIES -> or(-antecedent, consequent);
+            case IFF -> iff(antecedent, consequent);
+        };
+    }
+
+    private int encodeGroup(final GroupConstraint gc, final Integer regionLiteral) {
+        int parent = getFeatureLiteral(gc.getParent().getName());
+        int groupLogic = encodeGroupLogic(gc);
+
+        if (regionLiteral != null) {
+            // Contextualized: group logic and child -> parent implications only when the region is active
+            cnf.addClause(-regionLiteral, groupLogic);
+            for (Feature child : gc.getChildren()) {
+                cnf.addClause(-regionLiteral, -getFeatureLiteral(child.getName()), parent);
+            }
+            return or(-regionLiteral, groupLogic);
+        }
+
+        for (Feature child : gc.getChildren()) {
+            cnf.addClause(-getFeatureLiteral(child.getName()), parent);
+        }
+        return groupLogic;
+    }
+
+    // logic ⇔ (parent ∧ lower <= Σ children <= upper) ∨ (¬parent ∧ Σ children = 0)
+    private int encodeGroupLogic(final GroupConstraint gc) {
+        final ConstraintKey key = ConstraintKey.ofGroupLogic(gc);
+        Integer cached = constraintLiterals.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int parent = getFeatureLiteral(gc.getParent().getName());
+        int[] children = gc.getChildren().stream().mapToInt(child -> getFeatureLiteral(child.getName())).toArray();
+        int n = children.length;
+        int lower = gc.getLowerCardinality();
+        int upper = gc.getUpperCardinality();
+
+        int cardinality;
+        if (lower > upper || lower > n || upper < 0) {
+            cardinality = -getTrueLiteral();
+        } else if (lower <= 0 && upper >= n) {
+            cardinality = getTrueLiteral();
+        } else if (lower == n) {
+            cardinality = and(children);
+        } else {
+            int[] atLeast = encodeSequentialCounter(children, Math.max(lower, upper < n ? upper + 1 : 0));
+            cardinality = and(lower <= 0 ? getTrueLiteral() : atLeast[lower],
+                    upper >= n ? getTrueLiteral() : -atLeast[upper + 1]);
+        }
+
+        int childrenAreZero = -or(children);
+        int groupLogic = or(and(parent, cardinality), and(-parent, childrenAreZero));
+
+        constraintLiterals.put(key, groupLogic);
+        return groupLogic;
+    }
+
+    // returns literals atLeast[j] ⇔ "at least j of the children are selected" for j = 0..k
+    private int[] encodeSequentialCounter(final int[] children, final int k) {
+        int[] previous = new int[k + 1];
+        previous[0] = getTrueLiteral();
+        for (int j = 1; j <= k; j++) {
+            previous[j] = -getTrueLiteral();
+        }
+
+        for (int i = 1; i <= children.length; i++) {
+            int[] current = new int[k + 1];
+            current[0] = getTrueLiteral();
+            for (int j = 1; j <= k; j++) {
+                current[j] = j > i ? -getTrueLiteral() : or(previous[j], and(previous[j - 1], children[i - 1]));
+            }
+            previous = current;
+        }
+
+        return previous;
+    }
+
+    private int encodeOrNegation(final OrNegationConstraint onc) {
+        if (onc.getConstraints().isEmpty()) {
+            return -getTrueLiteral();
+        }
+
+        // violation indicators: bad_i ⇔ ¬c_i or (region_i ∧ ¬c_i) if contextualized
+        int[] violations = new int[onc.getConstraints().size()];
+        // iterate instead of indexing, the constraints may be the linked constraint list of a model
+        int i = 0;
+        for (AbstractConstraint c : onc.getConstraints()) {
+            if (c.isContextualized()) {
+                Integer regionLiteral = getRegionLiteral(c);
+                violations[i] = and(regionLiteral, -getConstraintLiteral(c, regionLiteral));
+            } else {
+                violations[i] = -getConstraintLiteral(c, null);
+            }
+            i++;
+        }
+
+        return or(violations);
+    }
+
+    // fully defined conjunction, constants are folded
+    private int and(final int... literals) {
+        int[] operands = new int[literals.length];
+        int size = 0;
+        for (int literal : literals) {
+            if (trueLiteral != 0 && literal == -trueLiteral) {
+                return literal;
+            }
+            if (trueLiteral != 0 && literal == trueLiteral) {
+                continue;
+            }
+            operands[size++] = literal;
+        }
+
+        if (size == 0) {
+            return getTrueLiteral();
+        }
+        if (size == 1) {
+            return operands[0];
+        }
+
+        int result = cnf.newVar();
+        int[] definition = new int[size + 1];
+        definition[0] = result;
+        for (int i = 0; i < size; i++) {
+            cnf.addClause(-result, operands[i]);
+            definition[i + 1] = -operands[i];
+        }
+        cnf.addClause(definition);
+
+        return result;
+    }
+
+    private int or(final int... literals) {
+        int[] negated = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            negated[i] = -literals[i];
+        }
+        return -and(negated);
+    }
+
+    private int iff(final int a, final int b) {
+        int result = cnf.newVar();
+        cnf.addClause(-result, -a, b);
+        cnf.addClause(-result, a, -b);
+        cnf.addClause(result, a, b);
+        cnf.addClause(result, -a, -b);
+        return result;
+    }
+
+    private int getTrueLiteral() {
+        if (trueLiteral == 0) {
+            trueLiteral = cnf.newVar();
+            cnf.addClause(trueLiteral);
+        }
+        return trueLiteral;
+    }
+
+    private int getFeatureLiteral(final String name) {
+        Integer literal = cnf.getFeatureVar(name);
+        if (literal == null) {
+            throw new IllegalStateException("feature " + name + " is not part of the model");
+        }
+        return literal;
+    }
+
+    private Integer getRegionLiteral(final AbstractConstraint constraint) {
+        if (!constraint.isContextualized()) {
+            return null;
+        }
+
+        return getFeatureLiteral(Region.byId(constraint.getContextualizationValue()).getRegionString());
+    }
+}
@@ -0,0 +1,87 @@
+package util.analyse.sat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Clausal representation of a feature model in DIMACS convention.
+ * Every feature has its own variable, all other variables are auxiliary Tseitin variables that are
+ * functionally determined by the features, so the models of the formula projected on the feature
+ * variables are exactly the configurations of the feature model.
+ */
+public class CnfFormula {
+
+    private int numberOfVars = 0;
+    private final List<int[]> clauses = new ArrayList<>();
+    private final Map<String, Integer> featureVars = new LinkedHashMap<>();
+
+    public int newVar() {
+        return ++numberOfVars;
+    }
+
+    public int addFeature(final String name) {
+        return featureVars.computeIfAbsent(name, n -> newVar());
+    }
+
+    public Integer getFeatureVar(final String name) {
+        return featureVars.get(name);
+    }
+
+    public Map<String, Integer> getFeatureVars() {
+        return Collections.unmodifiableMap(featureVars);
+    }
+
+    public void addClause(final int... literals) {
+        clauses.add(literals.clone());
+    }
+
+    public List<int[]> getClauses() {
+        return Collections.unmodifiableList(clauses);
+    }
+
+    public int getNumberOfVars() {
+        return numberOfVars;
+    }
+
+    public int getNumberOfClauses() {
+        return clauses.size();
+    }
+
+    // creates a solver that contains all variables and clauses of this formula
+    public CdclSolver toSolver() {
+        CdclSolver solver = new CdclSolver();
+        for (int i = 0; i < numberOfVars; i++) {
+            solver.newVar();
+        }
+        for (int[] clause : clauses) {
+            if (!solver.addClause(clause)) {
+                break;
+            }
+        }
+        return solver;
+    }
+
+    // writes the formula in DIMACS format, features are listed as comments "c <var> <name>"
+    public void writeDimacs(final Writer writer) throws IOException {
+        for (Map.Entry<String, Integer> feature : featureVars.entrySet()) {
+            writer.write("c " + feature.getValue() + " " + feature.getKey() + "\n");
+        }
+        writer.write("p cnf " + numberOfVars + " " + clauses.size() + "\n");
+
+        StringBuilder line = new StringBuilder();
+        for (int[] clause : clauses) {
+            line.setLength(0);
+            for (int literal : clause) {
+                line.append(literal).append(' ');
+            }
+            line.append("0\n");
+            writer.write(line.toString());
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,119 @@
+package util.analyse.sat;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import lombok.experimental.UtilityClass;
+import model.recreate.RecreationModel;
+import util.analyse.ddnnf.DdnnfCompiler;
+
+/*
+ * Counts the configurations shared by several models without enumerating the solutions of any single model.
+ *
+ * All models are encoded into one product CNF: the common features get one shared variable, every other
+ * variable of a model gets its own private copy. A model of the product is a common configuration together
+ * with one extension per model, so the shared configurations are the models of the product projected on the
+ * common features.
+ *
+ * - if no model has private features, every variable is defined by the common features and the product is
+ *   counted exactly on its d-DNNF compilation
+ * - otherwise the projected solutions are enumerated in the product, blocking only the common features
+ */
+@UtilityClass
+public class IntersectionCounter {
+    private static final Logger logger = LogManager.getLogger(IntersectionCounter.class);
+
+    // number of configurations of the common features that every model allows
+    public static long countProjectedIntersection(final RecreationModel... models) {
+        if (models == null || models.length < 2) {
+            throw new IllegalArgumentException("countProjectedIntersection requires at least 2 models");
+        }
+
+        final Set<String> common = new LinkedHashSet<>(models[0].getFeatures().keySet());
+        boolean hasPrivateFeatures = false;
+        for (RecreationModel model : models) {
+            hasPrivateFeatures |= !common.equals(model.getFeatures().keySet());
+            common.retainAll(model.getFeatures().keySet());
+        }
+        if (common.isEmpty()) {
+            logger.warn("[intersection] no common features across {} models, intersection is empty", models.length);
+            return 0;
+        }
+
+        final CnfFormula product = createProduct(common, models);
+        final long solutions = hasPrivateFeatures
+                ? countProjected(product, common)
+                : DdnnfCompiler.compile(product).count().longValueExact();
+
+        logger.info("[intersection] found {} intersection solutions across {} models (projected on {} common features)",
+                solutions, models.length, common.size());
+        return solutions;
+    }
+
+    // number of configurations both models allow, models with different features have no common configuration
+    public static long countIntersection(final RecreationModel modelA, final RecreationModel modelB) {
+        if (!modelA.getFeatures().keySet().equals(modelB.getFeatures().keySet())) {
+            logger.info("[intersection] models {} and {} have different features, intersection is empty",
+                    modelA.getRegionString(), modelB.getRegionString());
+            return 0;
+        }
+        return countProjectedIntersection(modelA, modelB);
+    }
+
+    // conjunction of all models, the common features are shared and all other variables are renamed apart
+    private static CnfFormula createProduct(final Set<String> common, final RecreationModel... models) {
+        final CnfFormula product = new CnfFormula();
+        for (String feature : common) {
+            product.addFeature(feature);
+        }
+
+        for (RecreationModel model : models) {
+            CnfFormula cnf = CnfEncoder.encode(model);
+
+            int[] renaming = new int[cnf.getNumberOfVars() + 1];
+            Map<Integer, String> featuresByVar = new HashMap<>();
+            cnf.getFeatureVars().forEach((name, var) -> featuresByVar.put(var, name));
+            for (int var = 1; var <= cnf.getNumberOfVars(); var++) {
+                String feature = featuresByVar.get(var);
+                renaming[var] = feature != null && common.contains(feature)
+                        ? product.getFeatureVar(feature)
+                        : product.newVar();
+            }
+
+            for (int[] clause : cnf.getClauses()) {
+                int[] renamed = new int[clause.length];
+                for (int i = 0; i < clause.length; i++) {
+                    int var = renaming[Math.abs(clause[i])];
+                    renamed[i] = clause[i] > 0 ? var : -var;
+                }
+                product.addClause(renamed);
+            }
+        }
+        return product;
+    }
+
+    // enumerates the models of the product, every found common configuration is blocked on the common features only
+    private static long countProjected(final CnfFormula product, final Set<String> common) {
+        final CdclSolver solver = product.toSolver();
+        final List<Integer> commonVars = common.stream().map(product::getFeatureVar).toList();
+
+        long solutions = 0;
+        while (solver.solve()) {
+            solutions++;
+
+            int[] blockingClause = commonVars.stream()
+                    .mapToInt(var -> solver.value(var) ? -var : var)
+                    .toArray();
+            if (!solver.addClause(blockingClause)) {
+                break;
+            }
+        }
+        return solutions;
+    }
+}
@@ -0,0 +1,51 @@
+package util.analyse.solution;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Writes solutions into a compact binary file.
+ *
+ * Format (big endian):
+ * - int magic "SOL1", int number of features, int number of words per solution
+ * - the feature names as modified UTF-8 strings in layout order
+ * - every solution as its packed words, bit i of the solution is the i-th feature
+ */
+public final class BitsetSolutionSink implements SolutionSink {
+    public static final int MAGIC = 0x534F4C31;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final DataOutputStream output;
+    private int words;
+
+    public BitsetSolutionSink(final Path file) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    @Override
+    public void open(final SolutionLayout layout) throws IOException {
+        this.words = layout.getNumberOfWords();
+        output.writeInt(MAGIC);
+        output.writeInt(layout.getNumberOfFeatures());
+        output.writeInt(words);
+        for (int i = 0; i < layout.getNumberOfFeatures(); i++) {
+            output.writeUTF(layout.getFeatureName(i));
+        }
+    }
+
+    @Override
+    public boolean accept(final long[] solution) throws IOException {
+        for (int i = 0; i < words; i++) {
+            output.writeLong(solution[i]);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
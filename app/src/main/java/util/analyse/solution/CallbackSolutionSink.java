@@ -0,0 +1,93 @@
+package util.analyse.solution;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Hands the solutions to a callback that runs on its own thread.
+ *
+ * The solver and the callback are decoupled by a bounded queue: the solver blocks as soon as the callback
+ * falls behind by more than the capacity, so a slow consumer throttles the enumeration instead of the
+ * solutions piling up on the heap. The callback returns false to stop the enumeration.
+ */
+public final class CallbackSolutionSink implements SolutionSink {
+    private static final long[] END = new long[0];
+
+    @FunctionalInterface
+    public interface SolutionCallback {
+        boolean onSolution(SolutionLayout layout, long[] solution) throws Exception;
+    }
+
+    private final BlockingQueue<long[]> queue;
+    private final SolutionCallback callback;
+    private volatile boolean stopped = false;
+    private volatile Exception failure;
+    private Thread worker;
+
+    public CallbackSolutionSink(final int capacity, final SolutionCallback callback) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.callback = callback;
+    }
+
+    @Override
+    public void open(final SolutionLayout layout) {
+        worker = new Thread(() -> consume(layout), "solution-callback");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public boolean accept(final long[] solution) throws IOException {
+        if (stopped) {
+            return false;
+        }
+        try {
+            queue.put(solution.clone());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the solution callback");
+        }
+        return !stopped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (worker == null) {
+            return;
+        }
+        try {
+            // the worker drains the queue until the end marker, unless it already stopped
+            while (!queue.offer(END, 10, TimeUnit.MILLISECONDS)) {
+                if (!worker.isAlive()) {
+                    break;
+                }
+            }
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the solution callback");
+        }
+        if (failure != null) {
+            throw new IOException("Solution callback failed", failure);
+        }
+    }
+
+    private void consume(final SolutionLayout layout) {
+        try {
+            while (true) {
+                long[] solution = queue.take();
+                if (solution == END || !callback.onSolution(layout, solution)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            stopped = true;
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package util.analyse.solution;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Writes solutions as CSV: a header row with the feature names and one row of 0/1 values per solution.
+ * Rows are written through a buffered writer as they arrive, no column widths are computed up front.
+ * Feature names with a separator, quote or line break are quoted as in RFC 4180.
+ */
+public final class CsvSolutionSink implements SolutionSink {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+    private final boolean closeWriter;
+    private SolutionLayout layout;
+    private char[] row;
+
+    public CsvSolutionSink(final Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8), true);
+    }
+
+    private CsvSolutionSink(final Writer writer, final boolean closeWriter) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, BUFFER_SIZE);
+        this.closeWriter = closeWriter;
+    }
+
+    // writes to the given writer and leaves it open on close
+    public static CsvSolutionSink to(final Writer writer) {
+        return new CsvSolutionSink(writer, false);
+    }
+
+    public static CsvSolutionSink toStandardOutput() {
+        return new CsvSolutionSink(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), false);
+    }
+
+    @Override
+    public void open(final SolutionLayout layout) throws IOException {
+        this.layout = layout;
+        for (int i = 0; i < layout.getNumberOfFeatures(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(layout.getFeatureName(i));
+        }
+        writer.write('\n');
+
+        // one digit and one separator per feature, the last separator is the line break
+        this.row = new char[layout.getNumberOfFeatures() * 2];
+        for (int i = 1; i < row.length; i += 2) {
+            row[i] = ',';
+        }
+        if (row.length > 0) {
+            row[row.length - 1] = '\n';
+        }
+    }
+
+    @Override
+    public boolean accept(final long[] solution) throws IOException {
+        for (int i = 0; i < layout.getNumberOfFeatures(); i++) {
+            row[i * 2] = SolutionLayout.isSelected(solution, i) ? '1' : '0';
+        }
+        writer.write(row);
+        return true;
+    }
+
+    // quoted if it contains a separator, quote or line break, embedded quotes are doubled
+    private void writeField(final String field) throws IOException {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\r') < 0 && field.indexOf('\n') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closeWriter) {
+            writer.close();
+        } else {
+            writer.flush();
+        }
+    }
+}
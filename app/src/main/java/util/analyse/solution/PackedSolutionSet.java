@@ -0,0 +1,141 @@
+package util.analyse.solution;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+ * Set of bit packed solutions of one {@link SolutionLayout}.
+ *
+ * All solutions are stored back to back in one long[] arena, a primitive open addressing table with linear
+ * probing maps hashes to solution indices. A solution costs its words plus two table ints instead of a
+ * BitSet object with its own array and a hash set entry.
+ */
+public final class PackedSolutionSet {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final int words;
+    private long[] arena;
+    private int[] table; // solution index + 1, 0 is an empty slot
+    private int size = 0;
+
+    public PackedSolutionSet(final SolutionLayout layout) {
+        this(layout.getNumberOfWords());
+    }
+
+    public PackedSolutionSet(final int words) {
+        this.words = words;
+        this.arena = new long[INITIAL_CAPACITY * words];
+        this.table = new int[INITIAL_CAPACITY * 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getNumberOfWords() {
+        return words;
+    }
+
+    // adds a copy of the solution, returns false if it is already part of the set
+    public boolean add(final long[] solution) {
+        int slot = findSlot(solution);
+        if (table[slot] != 0) {
+            return false;
+        }
+
+        if ((size + 1) * words > arena.length) {
+            arena = Arrays.copyOf(arena, arena.length * 2);
+        }
+        System.arraycopy(solution, 0, arena, size * words, words);
+        table[slot] = ++size;
+
+        // keep the load factor below one half
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(final long[] solution) {
+        return table[findSlot(solution)] != 0;
+    }
+
+    // returns the solutions of this set that are also part of the other set
+    public PackedSolutionSet intersect(final PackedSolutionSet other) {
+        if (other.words != words) {
+            throw new IllegalArgumentException("Solution sets have different layouts");
+        }
+
+        PackedSolutionSet smaller = size <= other.size ? this : other;
+        PackedSolutionSet larger = smaller == this ? other : this;
+        PackedSolutionSet intersection = new PackedSolutionSet(words);
+        smaller.forEach(solution -> {
+            if (larger.contains(solution)) {
+                intersection.add(solution);
+            }
+        });
+        return intersection;
+    }
+
+    // visits all solutions in insertion order, the visited array is reused between calls
+    public void forEach(final Consumer<long[]> consumer) {
+        long[] solution = new long[words];
+        for (int index = 0; index < size; index++) {
+            System.arraycopy(arena, index * words, solution, 0, words);
+            consumer.accept(solution);
+        }
+    }
+
+    // approximate heap usage of the stored solutions and the table in bytes
+    public long getMemoryUsage() {
+        return (long) arena.length * Long.BYTES + (long) table.length * Integer.BYTES;
+    }
+
+    private int findSlot(final long[] solution) {
+        int mask = table.length - 1;
+        int slot = hash(solution, 0) & mask;
+        while (table[slot] != 0 && !equalsAt(table[slot] - 1, solution)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean equalsAt(final int index, final long[] solution) {
+        int offset = index * words;
+        for (int i = 0; i < words; i++) {
+            if (arena[offset + i] != solution[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(final int capacity) {
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashAt(index) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+    }
+
+    private int hashAt(final int index) {
+        return hash(arena, index * words);
+    }
+
+    private int hash(final long[] data, final int offset) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < words; i++) {
+            h = (h ^ data[offset + i]) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+}
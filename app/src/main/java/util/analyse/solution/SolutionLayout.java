@@ -0,0 +1,53 @@
+package util.analyse.solution;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import model.choco.ChocoModel;
+import model.recreate.feature.FeatureIds;
+
+/*
+ * Canonical bit layout of packed solutions: bit i of a solution is the value of the i-th feature id
+ * in ascending order. Solutions of different models packed with the same layout are directly comparable.
+ */
+public final class SolutionLayout {
+
+    private final int[] featureIds;
+    private final int words;
+
+    public SolutionLayout(final BitSet featureIds) {
+        this.featureIds = featureIds.stream().toArray();
+        this.words = Math.max(1, (this.featureIds.length + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    public int getNumberOfFeatures() {
+        return featureIds.length;
+    }
+
+    public int getNumberOfWords() {
+        return words;
+    }
+
+    public int getFeatureId(final int index) {
+        return featureIds[index];
+    }
+
+    public String getFeatureName(final int index) {
+        return FeatureIds.nameOf(featureIds[index]);
+    }
+
+    // packs the features of the current solution of the model into the given words
+    public long[] pack(final ChocoModel model, final long[] solution) {
+        Arrays.fill(solution, 0L);
+        for (int i = 0; i < featureIds.length; i++) {
+            if (model.getFeature(featureIds[i]).getValue() == 1) {
+                solution[i >>> 6] |= 1L << i;
+            }
+        }
+        return solution;
+    }
+
+    public static boolean isSelected(final long[] solution, final int index) {
+        return (solution[index >>> 6] & (1L << index)) != 0;
+    }
+}
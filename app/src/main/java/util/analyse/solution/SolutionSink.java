@@ -0,0 +1,19 @@
+package util.analyse.solution;
+
+import java.io.IOException;
+
+/*
+ * Receives the solutions of a SolutionStream as they are found.
+ * open() is called once with the layout of the packed solutions before the first solution, close() once
+ * after the last one. accept() returns false to stop the enumeration early.
+ */
+public interface SolutionSink extends AutoCloseable {
+
+    void open(SolutionLayout layout) throws IOException;
+
+    // the solution array is reused by the stream, sinks that keep a solution must copy it
+    boolean accept(long[] solution) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
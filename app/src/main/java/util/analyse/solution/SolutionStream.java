@@ -0,0 +1,62 @@
+package util.analyse.solution;
+
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.choco.ChocoModel;
+import util.analyse.impl.ChocoAnalyser;
+
+/*
+ * Pushes the solutions of a Choco model into a SolutionSink while the solver finds them.
+ * Solutions are packed with the layout of all features of the model, so nothing is kept or formatted
+ * on the way and the sink alone decides how a solution is written.
+ */
+public final class SolutionStream {
+    private static final Logger logger = LogManager.getLogger(SolutionStream.class);
+
+    private final ChocoModel model;
+    private final SolutionLayout layout;
+    private long limit = Long.MAX_VALUE;
+
+    public SolutionStream(final ChocoModel model) {
+        this.model = model;
+        this.layout = new SolutionLayout(model.getFeatureIds());
+    }
+
+    public SolutionLayout getLayout() {
+        return layout;
+    }
+
+    // stops after the given number of solutions
+    public SolutionStream limit(final long maxSolutions) {
+        if (maxSolutions < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + maxSolutions);
+        }
+        this.limit = maxSolutions;
+        return this;
+    }
+
+    // streams the solutions into the sink and closes it, returns the number of solutions handed to the sink
+    public long to(final SolutionSink sink) throws IOException {
+        final long[] solution = new long[layout.getNumberOfWords()];
+        long solutions = 0;
+
+        try (sink) {
+            sink.open(layout);
+            ChocoAnalyser.resetForEnumeration(model);
+            while (solutions < limit && model.getModel().getSolver().solve()) {
+                solutions++;
+                if (!sink.accept(layout.pack(model, solution))) {
+                    break;
+                }
+            }
+        } finally {
+            model.getModel().getSolver().reset();
+        }
+
+        logger.info("[stream] streamed {} solutions of model {}", solutions, model.getRegionString());
+        return solutions;
+    }
+}
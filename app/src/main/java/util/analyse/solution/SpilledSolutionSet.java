@@ -0,0 +1,453 @@
+package util.analyse.solution;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*
+ * External memory set of bit packed solutions for solution spaces that do not fit into the heap.
+ *
+ * Added solutions are buffered up to the heap budget, the buffer starts small and doubles until it reaches
+ * the budget, so small solution spaces do not hold the whole budget. A full buffer is sorted, deduplicated
+ * and written as a sorted run into a temp file. Reading merges all runs with a k-way merge, so the set is
+ * visited as one sorted stream without duplicates, and several sets are intersected or united with a
+ * merge-join over their streams. Only the buffer and one read buffer per run live on the heap. A set that
+ * never filled its buffer is read from the buffer and does not touch the disk.
+ *
+ * Projected solutions repeat a lot, so the buffer is sorted with a three-way partition that puts all
+ * solutions equal to the pivot in place in one pass.
+ *
+ * The temp directory of a set is created with the first run. The runs, the open readers and the directory,
+ * if it is empty, are released on {@link #close()}.
+ */
+public final class SpilledSolutionSet implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(SpilledSolutionSet.class);
+
+    public static final long DEFAULT_HEAP_BUDGET = 64L << 20;
+    private static final long MAX_BUFFER_BYTES = 1L << 30;
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    private static final int INITIAL_BUFFER_SOLUTIONS = 1 << 10;
+
+    private final int words;
+    private Path directory;
+    private final int capacity; // solutions the heap budget allows to buffer
+    private long[] buffer;
+    private int buffered = 0;
+    private boolean sorted = true;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<RunCursor> openCursors = new ArrayList<>();
+
+    // the temp directory is created with the first run
+    public SpilledSolutionSet(final SolutionLayout layout, final long heapBudgetBytes) {
+        this(layout.getNumberOfWords(), heapBudgetBytes, null);
+    }
+
+    public SpilledSolutionSet(final int words, final long heapBudgetBytes, final Path directory) {
+        if (heapBudgetBytes < (long) words * Long.BYTES) {
+            throw new IllegalArgumentException("Heap budget is smaller than a single solution: " + heapBudgetBytes);
+        }
+        this.words = words;
+        this.directory = directory;
+        this.capacity = (int) (Math.min(heapBudgetBytes, MAX_BUFFER_BYTES) / ((long) words * Long.BYTES));
+        this.buffer = new long[Math.min(capacity, INITIAL_BUFFER_SOLUTIONS) * words];
+    }
+
+    public int getNumberOfWords() {
+        return words;
+    }
+
+    public int getNumberOfRuns() {
+        return runs.size();
+    }
+
+    // adds a copy of the solution, duplicates are removed when the runs are written and merged
+    public void add(final long[] solution) {
+        if (buffered * words == buffer.length) {
+            if (buffered < capacity) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffered * 2, capacity) * words);
+            } else {
+                spill();
+            }
+        }
+        System.arraycopy(solution, 0, buffer, buffered * words, words);
+        buffered++;
+        sorted = false;
+    }
+
+    // sorted stream of all distinct solutions, the buffer is spilled first if there are runs
+    public SolutionCursor cursor() {
+        if (runs.isEmpty()) {
+            sortBuffer();
+            return new BufferCursor(this);
+        }
+        spill();
+        return new MergedCursor(this);
+    }
+
+    // number of distinct solutions
+    public long count() {
+        long count = 0;
+        SolutionCursor cursor = cursor();
+        while (cursor.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    // number of solutions that are part of every set, merge-join of the sorted streams
+    public static long countIntersection(final List<SpilledSolutionSet> sets) {
+        if (sets.isEmpty()) {
+            return 0;
+        }
+
+        final SolutionCursor[] cursors = new SolutionCursor[sets.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = sets.get(i).cursor();
+            if (!cursors[i].next()) {
+                return 0;
+            }
+        }
+
+        long count = 0;
+        while (true) {
+            // advance every cursor up to the largest current solution
+            long[] largest = cursors[0].current();
+            for (SolutionCursor cursor : cursors) {
+                if (compare(cursor.current(), largest) > 0) {
+                    largest = cursor.current();
+                }
+            }
+            largest = largest.clone();
+
+            boolean allEqual = true;
+            for (SolutionCursor cursor : cursors) {
+                while (compare(cursor.current(), largest) < 0) {
+                    if (!cursor.next()) {
+                        return count;
+                    }
+                }
+                allEqual &= compare(cursor.current(), largest) == 0;
+            }
+
+            if (allEqual) {
+                count++;
+                for (SolutionCursor cursor : cursors) {
+                    if (!cursor.next()) {
+                        return count;
+                    }
+                }
+            }
+        }
+    }
+
+    // number of solutions that are part of at least one set, k-way merge of the sorted streams
+    public static long countUnion(final List<SpilledSolutionSet> sets) {
+        final PriorityQueue<SolutionCursor> queue = new PriorityQueue<>(
+                (a, b) -> compare(a.current(), b.current()));
+        for (SpilledSolutionSet set : sets) {
+            SolutionCursor cursor = set.cursor();
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+
+        long count = 0;
+        long[] last = null;
+        while (!queue.isEmpty()) {
+            SolutionCursor cursor = queue.poll();
+            if (last == null || compare(cursor.current(), last) != 0) {
+                count++;
+                last = cursor.current().clone();
+            }
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RunCursor cursor : new ArrayList<>(openCursors)) {
+            cursor.close();
+        }
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+        buffered = 0;
+        if (directory != null && Files.isDirectory(directory)) {
+            try (var files = Files.list(directory)) {
+                if (files.findAny().isEmpty()) {
+                    Files.deleteIfExists(directory);
+                }
+            }
+        }
+    }
+
+    // sorts and deduplicates the buffer and writes it as a new run
+    private void spill() {
+        if (buffered == 0) {
+            return;
+        }
+
+        sortBuffer();
+        try {
+            if (directory == null) {
+                directory = Files.createTempDirectory("solutions");
+            }
+            Path run = Files.createTempFile(directory, "run", ".bin");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(run), READ_BUFFER_BYTES))) {
+                for (int i = 0; i < buffered * words; i++) {
+                    out.writeLong(buffer[i]);
+                }
+            }
+            runs.add(run);
+            logger.debug("\t[spill] wrote run {} with {} solutions", runs.size(), buffered);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write solution run", e);
+        }
+        buffered = 0;
+    }
+
+    // sorts the buffered solutions and removes duplicates
+    private void sortBuffer() {
+        if (sorted) {
+            return;
+        }
+
+        sort(0, buffered - 1, new long[words]);
+        int distinct = 0;
+        for (int i = 0; i < buffered; i++) {
+            if (distinct == 0 || compareRecords(i, distinct - 1) != 0) {
+                System.arraycopy(buffer, i * words, buffer, distinct * words, words);
+                distinct++;
+            }
+        }
+        buffered = distinct;
+        sorted = true;
+    }
+
+    // in place quicksort of the buffered solutions with a three-way partition around a copy of the pivot
+    private void sort(int low, int high, final long[] pivot) {
+        while (low < high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    for (int j = i; j > low && compareRecords(j - 1, j) > 0; j--) {
+                        swap(j - 1, j);
+                    }
+                }
+                return;
+            }
+
+            System.arraycopy(buffer, ((low + high) >>> 1) * words, pivot, 0, words);
+            // [low, lt) < pivot, [lt, i) == pivot, (gt, high] > pivot
+            int lt = low;
+            int i = low;
+            int gt = high;
+            while (i <= gt) {
+                int c = compareToPivot(i, pivot);
+                if (c < 0) {
+                    swap(lt++, i++);
+                } else if (c > 0) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // recurse into the smaller part to bound the stack depth
+            if (lt - low < high - gt) {
+                sort(low, lt - 1, pivot);
+                low = gt + 1;
+            } else {
+                sort(gt + 1, high, pivot);
+                high = lt - 1;
+            }
+        }
+    }
+
+    private int compareToPivot(final int a, final long[] pivot) {
+        for (int i = 0; i < words; i++) {
+            int c = Long.compare(buffer[a * words + i], pivot[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private int compareRecords(final int a, final int b) {
+        for (int i = 0; i < words; i++) {
+            int c = Long.compare(buffer[a * words + i], buffer[b * words + i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private void swap(final int a, final int b) {
+        for (int i = 0; i < words; i++) {
+            long tmp = buffer[a * words + i];
+            buffer[a * words + i] = buffer[b * words + i];
+            buffer[b * words + i] = tmp;
+        }
+    }
+
+    static int compare(final long[] a, final long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int c = Long.compare(a[i], b[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * Sorted stream of solutions, current() is valid after next() returned true and is reused between calls.
+     */
+    public interface SolutionCursor {
+        boolean next();
+
+        long[] current();
+    }
+
+    // cursor over the sorted and deduplicated buffer of a set without runs
+    private static final class BufferCursor implements SolutionCursor {
+        private final SpilledSolutionSet set;
+        private final long[] current;
+        private int position = 0;
+
+        private BufferCursor(final SpilledSolutionSet set) {
+            this.set = set;
+            this.current = new long[set.words];
+        }
+
+        @Override
+        public boolean next() {
+            if (position >= set.buffered) {
+                return false;
+            }
+            System.arraycopy(set.buffer, position++ * set.words, current, 0, current.length);
+            return true;
+        }
+
+        @Override
+        public long[] current() {
+            return current;
+        }
+    }
+
+    // cursor over one run, the file is closed when the run is exhausted or the set is closed
+    private static final class RunCursor implements SolutionCursor {
+        private final SpilledSolutionSet set;
+        private final DataInputStream in;
+        private final long[] current;
+        private boolean open = true;
+
+        private RunCursor(final SpilledSolutionSet set, final Path path) {
+            try {
+                this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), READ_BUFFER_BYTES));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read solution run", e);
+            }
+            this.set = set;
+            this.current = new long[set.words];
+            set.openCursors.add(this);
+        }
+
+        @Override
+        public boolean next() {
+            if (!open) {
+                return false;
+            }
+            try {
+                for (int i = 0; i < current.length; i++) {
+                    current[i] = in.readLong();
+                }
+                return true;
+            } catch (EOFException e) {
+                close();
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read solution run", e);
+            }
+        }
+
+        @Override
+        public long[] current() {
+            return current;
+        }
+
+        private void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            set.openCursors.remove(this);
+            try {
+                in.close();
+            } catch (IOException e) {
+                logger.warn("[spill] could not close solution run: {}", e.getMessage());
+            }
+        }
+    }
+
+    // k-way merge of all runs of a set without duplicates
+    private static final class MergedCursor implements SolutionCursor {
+        private final PriorityQueue<RunCursor> queue = new PriorityQueue<>(
+                (a, b) -> compare(a.current(), b.current()));
+        private final long[] current;
+        private boolean started = false;
+
+        private MergedCursor(final SpilledSolutionSet set) {
+            this.current = new long[set.words];
+            for (Path run : set.runs) {
+                RunCursor cursor = new RunCursor(set, run);
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean next() {
+            while (!queue.isEmpty()) {
+                RunCursor cursor = queue.poll();
+                boolean duplicate = started && compare(cursor.current(), current) == 0;
+                if (!duplicate) {
+                    System.arraycopy(cursor.current(), 0, current, 0, current.length);
+                    started = true;
+                }
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+                if (!duplicate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long[] current() {
+            return current;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package util.helper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.choco.EncodingMode;
+import model.choco.SolverProfile;
+import model.recreate.ConstraintList;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.feature.Feature;
+import util.analyse.impl.ConsistencySession;
+
+/*
+ * Cone-of-influence slices for the consistency checks of the inconsistency check and the cleanup.
+ *
+ * The slicer keeps a snapshot {@link ConstraintList} of the model and walks the constraint/feature incidence
+ * graph through its feature and group indexes, the merge may remove constraints from the model itself while it
+ * checks them. The cone of a candidate constraint starts with its features and the region features and is
+ * closed under
+ *
+ * - the features of every cross-tree constraint that shares a feature with the cone
+ * - the parent of every feature of the cone, so the feature tree path up to the root is part of it
+ *
+ * The slice consists of the cone features and every constraint that touches one of them, in the state it
+ * has in the full check: decontextualized constraints stay decontextualized, removed constraints are left out.
+ *
+ * A slice only drops constraints and never changes one, so it is a relaxation of the full model. If the slice
+ * is inconsistent with the negated candidate, so is the full model. A consistent slice is not conclusive,
+ * a slice solution does not have to extend to the features outside the cone (e.g. a mandatory child of a
+ * cone feature that is dead), so the caller confirms it on the full model.
+ *
+ * Candidates with the same cone have the same slice, so the translated slice sessions are cached per cone
+ * (least recently used first out). The cached sessions follow decontextualize and remove, a removed constraint
+ * is deactivated in them. Slices with more than half of the constraints of the model are not checked, they
+ * would cost nearly a full translation and solve without saving the check on the full model.
+ */
+public class ConeOfInfluenceSlicer {
+    private static final Logger logger = LogManager.getLogger(ConeOfInfluenceSlicer.class);
+    private static final int MAX_CACHED_SESSIONS = 32;
+    private static final int MAX_SLICE_SHARE_PERCENT = 50;
+
+    private final RecreationModel model;
+    private final EncodingMode encodingMode;
+    private final SolverProfile profile;
+
+    // constraints of the model that were not removed, order of the model
+    private final ConstraintList constraints;
+    private final Map<AbstractConstraint, Integer> positions = new IdentityHashMap<>();
+    private final List<Feature> regionFeatures = new ArrayList<>();
+
+    private final Set<AbstractConstraint> decontextualized = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // translated slice per cone, null if the slice is too large to be checked
+    private final Map<BitSet, SliceSession> sessionsByCone = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<BitSet, SliceSession> eldest) {
+            return size() > MAX_CACHED_SESSIONS;
+        }
+    };
+
+    private record SliceSession(ConsistencySession session, int size) {
+    }
+
+    private long checks = 0;
+    private long refutations = 0;
+    private long slicedConstraints = 0;
+    private long translations = 0;
+    private long skipped = 0;
+
+    public ConeOfInfluenceSlicer(final RecreationModel model, final EncodingMode encodingMode,
+            final SolverProfile profile) {
+        this.model = model;
+        this.encodingMode = encodingMode;
+        this.profile = profile;
+
+        BitSet regionFeatureIds = MergerHelper.collectRegionFeatureIds(model);
+        for (Feature feature : model.getFeatures().values()) {
+            if (feature.getId() >= 0 && regionFeatureIds.get(feature.getId())) {
+                regionFeatures.add(feature);
+            }
+        }
+
+        this.constraints = new ConstraintList(model.getConstraints());
+        for (AbstractConstraint constraint : constraints) {
+            positions.put(constraint, positions.size());
+        }
+
+        logger.debug("\t[slicer] took {} constraints of model {}", constraints.size(), model.getRegionString());
+    }
+
+    // the constraint has to hold in every region in all following checks
+    public void decontextualize(final AbstractConstraint constraint) {
+        decontextualized.add(constraint);
+        for (SliceSession cached : sessionsByCone.values()) {
+            if (cached != null && cached.session().manages(constraint)) {
+                cached.session().decontextualize(constraint);
+            }
+        }
+    }
+
+    // the constraint is no longer part of the model in all following checks
+    public void remove(final AbstractConstraint constraint) {
+        constraints.remove(constraint);
+        for (SliceSession cached : sessionsByCone.values()) {
+            if (cached != null && cached.session().manages(constraint)) {
+                cached.session().deactivate(constraint);
+            }
+        }
+    }
+
+    /*
+     * Inconsistency check: true if the model is inconsistent with the negated and decontextualized candidate
+     * already on the slice, false if the slice does not decide it.
+     */
+    public boolean isInconsistentWithNegation(final AbstractConstraint candidate) {
+        ConsistencySession session = findSession(candidate);
+        return session != null && countCheck(!session.isConsistentWithNegation(candidate));
+    }
+
+    /*
+     * Cleanup: true if the model with the negated candidate is inconsistent already on the slice,
+     * false if the slice does not decide it.
+     */
+    public boolean isInconsistentWhenNegated(final AbstractConstraint candidate) {
+        ConsistencySession session = findSession(candidate);
+        if (session == null) {
+            return false;
+        }
+        session.negate(candidate);
+        try {
+            return countCheck(!session.isConsistent());
+        } finally {
+            session.activate(candidate);
+        }
+    }
+
+    // slice of the model for the candidate, the constraints keep their order in the model
+    public RecreationModel slice(final AbstractConstraint candidate) {
+        return slice(candidate, findCone(candidate));
+    }
+
+    private RecreationModel slice(final AbstractConstraint candidate, final BitSet cone) {
+        final List<AbstractConstraint> sliced = new ArrayList<>();
+        final Set<AbstractConstraint> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(candidate);
+        sliced.add(candidate);
+        for (int id = cone.nextSetBit(0); id >= 0; id = cone.nextSetBit(id + 1)) {
+            for (AbstractConstraint constraint : constraints.getConstraintsReferencing(id)) {
+                if (seen.add(constraint)) {
+                    sliced.add(constraint);
+                }
+            }
+        }
+        sliced.sort((a, b) -> Integer.compare(positions.getOrDefault(a, -1), positions.getOrDefault(b, -1)));
+
+        final RecreationModel slice = new RecreationModel(model.getRegion());
+        slice.setRootFeature(model.getRootFeature());
+        if (model.getRootFeature() != null) {
+            addFeature(slice, model.getRootFeature());
+        }
+        for (AbstractConstraint constraint : sliced) {
+            for (Feature feature : ConstraintList.featuresOf(constraint)) {
+                addFeature(slice, feature);
+            }
+            slice.addConstraint(constraint);
+        }
+        for (Feature feature : regionFeatures) {
+            addFeature(slice, feature);
+        }
+
+        return slice;
+    }
+
+    public long getChecks() {
+        return checks;
+    }
+
+    public long getRefutations() {
+        return refutations;
+    }
+
+    public long getAverageSliceSize() {
+        return checks == 0 ? 0 : slicedConstraints / checks;
+    }
+
+    public long getTranslations() {
+        return translations;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    // cached or newly translated session of the slice of the candidate, null if the slice is too large
+    private ConsistencySession findSession(final AbstractConstraint candidate) {
+        final BitSet cone = findCone(candidate);
+
+        final boolean known = sessionsByCone.containsKey(cone);
+        SliceSession cached = sessionsByCone.get(cone);
+        // a candidate without features shares the cone of the region features but is not part of its slice
+        if (!known || cached != null && !cached.session().manages(candidate)) {
+            cached = createSession(candidate, cone);
+            sessionsByCone.put(cone, cached);
+        }
+
+        if (cached == null) {
+            skipped++;
+            return null;
+        }
+        slicedConstraints += cached.size();
+        return cached.session();
+    }
+
+    private SliceSession createSession(final AbstractConstraint candidate, final BitSet cone) {
+        RecreationModel slice = slice(candidate, cone);
+        int size = slice.getConstraints().size();
+        if (size * 100L > (long) constraints.size() * MAX_SLICE_SHARE_PERCENT) {
+            return null;
+        }
+
+        translations++;
+        ConsistencySession session = new ConsistencySession(slice, encodingMode, profile);
+        for (AbstractConstraint constraint : slice.getConstraints()) {
+            if (decontextualized.contains(constraint)) {
+                session.decontextualize(constraint);
+            }
+        }
+        return new SliceSession(session, size);
+    }
+
+    private boolean countCheck(final boolean refuted) {
+        checks++;
+        if (refuted) {
+            refutations++;
+        }
+        return refuted;
+    }
+
+    // features of the candidate and the region features, closed under cross-tree constraints and parents
+    private BitSet findCone(final AbstractConstraint candidate) {
+        final BitSet cone = new BitSet();
+        final Deque<Integer> queue = new ArrayDeque<>();
+
+        if (constraints.contains(candidate)) {
+            for (int id : constraints.getFeatureIds(candidate)) {
+                enqueue(id, cone, queue);
+            }
+        } else {
+            for (Feature feature : ConstraintList.featuresOf(candidate)) {
+                enqueue(feature.getId(), cone, queue);
+            }
+        }
+        for (Feature feature : regionFeatures) {
+            enqueue(feature.getId(), cone, queue);
+        }
+
+        while (!queue.isEmpty()) {
+            int id = queue.poll();
+            for (GroupConstraint group : constraints.getGroupConstraintsByChild(id)) {
+                if (group.getParent() != null) {
+                    enqueue(group.getParent().getId(), cone, queue);
+                }
+            }
+            for (AbstractConstraint constraint : constraints.getConstraintsReferencing(id)) {
+                if (constraint.isFeatureTreeConstraint() || constraint.isCustomConstraint()) {
+                    continue;
+                }
+                for (int featureId : constraints.getFeatureIds(constraint)) {
+                    enqueue(featureId, cone, queue);
+                }
+            }
+        }
+
+        return cone;
+    }
+
+    private static void enqueue(final int id, final BitSet cone, final Deque<Integer> queue) {
+        if (!cone.get(id)) {
+            cone.set(id);
+            queue.add(id);
+        }
+    }
+
+    // the slice shares the feature objects of the model, referenced features missing in it are added as they are
+    private void addFeature(final RecreationModel slice, final Feature feature) {
+        if (feature == null || slice.getFeatures().containsKey(feature.getName())) {
+            return;
+        }
+        slice.getFeatures().put(feature.getName(), model.getFeatures().getOrDefault(feature.getName(), feature));
+    }
+}
@@ -1,5 +1,8 @@
 package util.helper;
 
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
 import java.util.List;
 import java.util.Set;
 import java.util.ArrayList;
@@ -8,7 +11,7 @@ import java.util.HashSet;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.EnumMap;
+import java.util.TreeMap;
 
 import lombok.experimental.UtilityClass;
 import org.apache.logging.log4j.LogManager;
@@ -81,15 +84,127 @@ public class MergerHelper {
         unionModel.addConstraint(regionGc);
         logger.debug("\t[handleRegionFeature] constrain region root and contextualization features with {}", regionGc);
 
-        // Add region implications for unique features
+        // Add region implications for unique features, region features of the merged models are not constrained
+        Set<String> regionNames = collectRegionNames(models);
         for (Map.Entry<RecreationModel, Set<String>> entry : uniqueFeaturesPerModel.entrySet()) {
             RecreationModel model = entry.getKey();
             Set<String> uniqueFeatures = entry.getValue();
             Feature regionSpecificFeature = unionModel.getFeatures().get(model.getRegion().getRegionString());
-            addUniqueFeatureRegionImplications(unionModel, regionSpecificFeature, uniqueFeatures);
+            addUniqueFeatureRegionImplications(unionModel, regionSpecificFeature, uniqueFeatures, regionNames);
         }
     }
 
+    /*
+     * Returns the names of the region features of the given models: the region of every model and the regions
+     * below the region root or below the feature of the model's own region, nested regions of merged subtrees
+     * included. Only the custom groups of the region structure are followed, so a user feature that happens to
+     * share its name with a region registered by another merge is not a region feature here.
+     */
+    public static Set<String> collectRegionNames(final RecreationModel... models) {
+        final Set<String> regionNames = new HashSet<>();
+        for (RecreationModel model : models) {
+            regionNames.add(model.getRegionString());
+
+            final Set<String> visited = new HashSet<>();
+            final Deque<Feature> queue = new ArrayDeque<>();
+            for (String name : List.of(Region.REGION_STRING, model.getRegionString())) {
+                Feature regionFeature = model.getFeatures().get(name);
+                if (regionFeature != null && visited.add(name)) {
+                    queue.add(regionFeature);
+                }
+            }
+            while (!queue.isEmpty()) {
+                for (GroupConstraint gc : model.getConstraints().getGroupConstraintsByParent(queue.poll())) {
+                    if (!gc.isCustomConstraint() || gc.getChildren() == null) {
+                        continue;
+                    }
+                    for (Feature child : gc.getChildren()) {
+                        if (visited.add(child.getName())) {
+                            regionNames.add(child.getName());
+                            queue.add(child);
+                        }
+                    }
+                }
+            }
+        }
+        return regionNames;
+    }
+
+    /*
+     * Returns the feature ids of the region root and the region features of the model, see
+     * {@link #collectRegionNames}. Names of regions that are not features of the model are skipped.
+     */
+    public static BitSet collectRegionFeatureIds(final RecreationModel model) {
+        final BitSet regionFeatureIds = new BitSet();
+        final Set<String> names = collectRegionNames(model);
+        names.add(Region.REGION_STRING);
+        for (String name : names) {
+            Feature feature = model.getFeatures().get(name);
+            if (feature != null && feature.getId() >= 0) {
+                regionFeatureIds.set(feature.getId());
+            }
+        }
+        return regionFeatureIds;
+    }
+
+    /*
+     * Returns true for the custom group that hangs the regions of a merged subtree under the feature of
+     * the subtree's intermediate region (created by {@link #recontextualizeMergedModel}), the region names
+     * are the ones of the model the constraint belongs to.
+     */
+    public static boolean isNestedRegionGroup(final AbstractConstraint constraint, final Set<String> regionNames) {
+        return constraint instanceof GroupConstraint gc
+                && constraint.isCustomConstraint()
+                && regionNames.contains(gc.getParent().getName());
+    }
+
+    /*
+     * Prepares a merged model as input of the next level of a hierarchical merge.
+     * The model gets the given intermediate region, which is true iff one of the merged regions is selected:
+     * - the region root group of the merged model becomes a custom group below the intermediate region feature
+     * - nested region groups of lower levels are kept, the root to region root group is recreated by the union
+     * - decontextualized constraints only hold in the merged regions, so they are contextualized with the
+     *   intermediate region, constraints that are contextualized with a merged region stay as they are
+     */
+    public static RecreationModel recontextualizeMergedModel(final RecreationModel mergedModel, final Region region) {
+        logger.debug("[recontextualizeMergedModel] contextualize merged model with intermediate region {}",
+                region.getRegionString());
+
+        final RecreationModel model = new RecreationModel(region);
+        model.getFeatures().putAll(mergedModel.getFeatures());
+        model.setRootFeature(mergedModel.getRootFeature());
+
+        Feature intermediateRegionFeature = new Feature(region.getRegionString());
+        model.getFeatures().put(region.getRegionString(), intermediateRegionFeature);
+
+        final Set<String> regionNames = collectRegionNames(mergedModel);
+
+        for (AbstractConstraint constraint : mergedModel.getConstraints()) {
+            if (constraint.isCustomConstraint()) {
+                if (constraint instanceof GroupConstraint gc
+                        && Region.REGION_STRING.equals(gc.getParent().getName())) {
+                    GroupConstraint nestedRegionGc = gc.copy();
+                    nestedRegionGc.setParent(intermediateRegionFeature);
+                    model.addConstraint(nestedRegionGc);
+                    logger.debug("\t[recontextualizeMergedModel] constrain intermediate region and merged regions with {}",
+                            nestedRegionGc);
+                } else if (isNestedRegionGroup(constraint, regionNames)) {
+                    model.addConstraint(constraint.view());
+                }
+                continue;
+            }
+
+            // views share the operands with the merged model, only the context differs
+            model.addConstraint(constraint.isContextualized()
+                    ? constraint.view()
+                    : constraint.contextualizedWith(region.ordinal()));
+        }
+
+        logger.debug("\t[recontextualizeMergedModel] finished with {} features and {} constraints",
+                model.getFeatures().size(), model.getConstraints().size());
+        return model;
+    }
+
     public static void handleRootFeature(final RecreationModel unionModel,
             final RecreationModel... models) {
         // Set root feature for union model
@@ -113,25 +228,20 @@ public class MergerHelper {
         // -> GroupConstraint]]
         Map<String, Map<String, GroupConstraint>> featuresWithMultipleParents = new HashMap<>();
 
-        // First, identify features with multiple parents
-        for (AbstractConstraint c1 : model.getConstraints()) {
-            if (!(c1 instanceof GroupConstraint) || !c1.isContextualized()) {
-                continue;
-            }
-
-            GroupConstraint gc1 = (GroupConstraint) c1;
-
-            for (Feature child : gc1.getChildren()) {
-                String childName = child.getName();
+        // Region features of the model, a clone is never one of them
+        final Set<String> regionNames = collectRegionNames(model);
 
-                // Initialize the map entry if this is the first time we see this feature
-                if (!featuresWithMultipleParents.containsKey(childName)) {
-                    featuresWithMultipleParents.put(childName, new HashMap<>());
+        // First, identify features with multiple parents through the group index of the constraint list
+        for (Feature child : model.getFeatures().values()) {
+            for (GroupConstraint gc1 : model.getConstraints().getGroupConstraintsByChild(child)) {
+                if (!gc1.isContextualized()) {
+                    continue;
                 }
 
                 // Add parent to the map
                 String parentName = gc1.getParent().getName();
-                featuresWithMultipleParents.get(childName).put(parentName, gc1);
+                featuresWithMultipleParents.computeIfAbsent(child.getName(), name -> new HashMap<>())
+                        .put(parentName, gc1);
             }
         }
 
@@ -163,7 +273,7 @@ public class MergerHelper {
                     String cloneName;
                     if (gc.isContextualized()) {
                         int contextValue = gc.getContextualizationValue();
-                        Region region = Region.values()[contextValue];
+                        Region region = Region.byId(contextValue);
                         cloneName = featureName + "_" + region.getRegionString();
                     } else {
                         // Fallback to parent name if not contextualized
@@ -195,7 +305,7 @@ public class MergerHelper {
                     GroupConstraint newGc = gc.copy();
                     newGc.setChildren(new ArrayList<>(updatedChildren));
 
-                    // Remove the old constraint and add the new one
+                    // Remove the old constraint and add the new one, the indexed constraint list removes in O(1)
                     model.getConstraints().remove(gc);
                     model.addConstraint(newGc);
 
@@ -205,15 +315,16 @@ public class MergerHelper {
                     // Add region implication for the clone if this is a contextualized constraint
                     if (gc.isContextualized()) {
                         int contextValue = gc.getContextualizationValue();
-                        // Get region directly by ordinal value
-                        Region region = Region.values()[contextValue];
+                        // Get region directly by its id
+                        Region region = Region.byId(contextValue);
                         Feature regionFeature = model.getFeatures().get(region.getRegionString());
                         if (regionFeature != null) {
                             // Call the existing method to add region implications, but use a new set to
                             // avoid reference issues
                             Set<String> singleFeature = new HashSet<>();
                             singleFeature.add(cloneName);
-                            addUniqueFeatureRegionImplications(model, regionFeature, new HashSet<>(singleFeature));
+                            addUniqueFeatureRegionImplications(model, regionFeature, new HashSet<>(singleFeature),
+                                    regionNames);
                             logger.debug("\t[splitFeatures] added region implication constraint for {} → {}",
                                     cloneName, region.getRegionString());
                         }
@@ -254,16 +365,17 @@ public class MergerHelper {
         }
     }
 
+    /*
+     * Adds feature → region for every unique feature, the root, the region root and the given region
+     * features of the merge are excluded.
+     */
     public static void addUniqueFeatureRegionImplications(final RecreationModel unionModel,
-            final Feature regionFeature, final Set<String> uniqueFeatureNames) {
+            final Feature regionFeature, final Set<String> uniqueFeatureNames, final Set<String> regionNames) {
 
         // Get special features that should be excluded
-        Set<String> excludedFeatures = new HashSet<>();
+        Set<String> excludedFeatures = new HashSet<>(regionNames);
         excludedFeatures.add(unionModel.getRootFeature().getName());
         excludedFeatures.add(Region.REGION_STRING);
-        for (Region r : Region.values()) {
-            excludedFeatures.add(r.getRegionString());
-        }
 
         // For each unique feature
         for (String featureName : uniqueFeatureNames) {
@@ -289,8 +401,8 @@ public class MergerHelper {
             final RecreationModel... sourceModelsToMerge) {
         Map<RecreationModel, Set<String>> uniqueFeaturesPerModel = RecreationAnalyser
                 .analyseSharedFeatures(sourceModelsToMerge);
-        Map<Region, Integer> uniqueFeaturesMap = new java.util.EnumMap<>(Region.class);
-        Map<Region, Set<String>> uniqueFeatureNamesMap = new java.util.EnumMap<>(Region.class);
+        Map<Region, Integer> uniqueFeaturesMap = new TreeMap<>();
+        Map<Region, Set<String>> uniqueFeatureNamesMap = new TreeMap<>();
 
         for (RecreationModel sourceModel : sourceModelsToMerge) {
             Set<String> uniqueFeatureNames = uniqueFeaturesPerModel.get(sourceModel);
@@ -308,6 +420,13 @@ public class MergerHelper {
         mergeStatistics.setUniqueFeaturesPerModel(uniqueFeatureNamesMap);
     }
 
+    // contextualized copies of the source models, the source models are only read
+    public static RecreationModel[] contextualizedCopies(final RecreationModel... models) {
+        return Arrays.stream(models)
+                .map(RecreationModel::contextualizedCopy)
+                .toArray(RecreationModel[]::new);
+    }
+
     public static String buildRegionString(final String separator, final RecreationModel... models) {
         return Arrays.stream(models)
                 .map(RecreationModel::getRegion)
@@ -325,23 +444,19 @@ public class MergerHelper {
      */
     public static Map<Region, Integer> analyzeContextualizedConstraintsPerRegion(final RecreationModel mergedModel, 
             final RecreationModel... sourceModels) {
-        Map<Region, Integer> contextualizedConstraintsPerRegion = new EnumMap<>(Region.class);
+        Map<Region, Integer> contextualizedConstraintsPerRegion = new TreeMap<>();
         
         // Initialize counts for all source model regions
         for (RecreationModel sourceModel : sourceModels) {
             contextualizedConstraintsPerRegion.put(sourceModel.getRegion(), 0);
         }
         
-        // Count contextualized constraints per region (excluding custom and feature tree constraints)
-        for (AbstractConstraint constraint : mergedModel.getConstraints()) {
-            if (constraint.isContextualized()) {
-                Integer contextValue = constraint.getContextualizationValue();
-                if (contextValue != null && contextValue < Region.values().length) {
-                    Region region = Region.values()[contextValue];
-                    contextualizedConstraintsPerRegion.merge(region, 1, Integer::sum);
-                }
+        // Count contextualized constraints per region from the constraint index
+        mergedModel.getConstraints().getContextualizedConstraintsPerRegion().forEach((contextValue, count) -> {
+            if (Region.isRegistered(contextValue)) {
+                contextualizedConstraintsPerRegion.merge(Region.byId(contextValue), count, Integer::sum);
             }
-        }
+        });
         
         return contextualizedConstraintsPerRegion;
     }
@@ -357,24 +472,20 @@ public class MergerHelper {
      */
     public static Map<Region, Integer> analyzeContextualizedCrossTreeConstraintsPerRegion(final RecreationModel mergedModel, 
             final RecreationModel... sourceModels) {
-        Map<Region, Integer> contextualizedCrossTreeConstraintsPerRegion = new EnumMap<>(Region.class);
+        Map<Region, Integer> contextualizedCrossTreeConstraintsPerRegion = new TreeMap<>();
         
         // Initialize counts for all source model regions
         for (RecreationModel sourceModel : sourceModels) {
             contextualizedCrossTreeConstraintsPerRegion.put(sourceModel.getRegion(), 0);
         }
         
-        // Count contextualized cross-tree constraints per region
+        // Count contextualized cross-tree constraints per region from the constraint index
         // Cross-tree constraints are those that are not feature tree constraints and not custom constraints
-        for (AbstractConstraint constraint : mergedModel.getConstraints()) {
-            if (constraint.isContextualized() && !constraint.isFeatureTreeConstraint() && !constraint.isCustomConstraint()) {
-                Integer contextValue = constraint.getContextualizationValue();
-                if (contextValue != null && contextValue < Region.values().length) {
-                    Region region = Region.values()[contextValue];
-                    contextualizedCrossTreeConstraintsPerRegion.merge(region, 1, Integer::sum);
-                }
+        mergedModel.getConstraints().getContextualizedCrossTreeConstraintsPerRegion().forEach((contextValue, count) -> {
+            if (Region.isRegistered(contextValue)) {
+                contextualizedCrossTreeConstraintsPerRegion.merge(Region.byId(contextValue), count, Integer::sum);
             }
-        }
+        });
         
         return contextualizedCrossTreeConstraintsPerRegion;
     }
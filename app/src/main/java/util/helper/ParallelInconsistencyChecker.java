@@ -0,0 +1,176 @@
+package util.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import model.choco.EncodingMode;
+import model.choco.SolverProfile;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import util.analyse.impl.ConsistencySession;
+
+/*
+ * Parallel variant of the inconsistency check (line 6-12 in pseudocode) with the same outcome as the
+ * sequential loop.
+ *
+ * Every thread owns a replica of the union model as {@link ConsistencySession}. The candidates are checked
+ * in speculative batches, assuming that all earlier constraints of the same batch stay contextualized.
+ * The results are then reconciled in order:
+ *
+ * - inconsistent verdicts are always valid, a decontextualization only strengthens the model, so a
+ *   model that is already inconsistent with the negated constraint stays inconsistent
+ * - consistent verdicts are valid until the first constraint of the batch got decontextualized,
+ *   everything from the first invalid verdict on is checked again in the next batch
+ *
+ * Decontextualized constraints are committed in order and replayed on every replica before its next check.
+ */
+public class ParallelInconsistencyChecker implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ParallelInconsistencyChecker.class);
+
+    // number of speculative checks per thread and batch
+    private static final int CHECKS_PER_THREAD = 4;
+
+    private final int threads;
+    private final ExecutorService executor;
+    private final BlockingQueue<Replica> replicas;
+    private final List<AbstractConstraint> committedDecontextualized = new ArrayList<>();
+
+    private static final class Replica {
+        private final ConsistencySession session;
+        private int appliedDecontextualizations = 0;
+
+        private Replica(final ConsistencySession session) {
+            this.session = session;
+        }
+
+        // replays all decontextualizations that were committed since the last check
+        private void sync(final List<AbstractConstraint> committedDecontextualized) {
+            while (appliedDecontextualizations < committedDecontextualized.size()) {
+                session.decontextualize(committedDecontextualized.get(appliedDecontextualizations++));
+            }
+        }
+    }
+
+    public ParallelInconsistencyChecker(final RecreationModel unionModel, final int threads) {
+        this(unionModel, threads, EncodingMode.REIFIED, SolverProfile.defaultProfile());
+    }
+
+    public ParallelInconsistencyChecker(final RecreationModel unionModel, final int threads,
+            final EncodingMode encodingMode, final SolverProfile profile) {
+        this.threads = threads;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.replicas = new ArrayBlockingQueue<>(threads);
+
+        List<Callable<ConsistencySession>> replicaTasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            replicaTasks.add(() -> new ConsistencySession(unionModel, encodingMode, profile));
+        }
+
+        // the checker is not returned if a replica fails, so the pool is shut down here
+        try {
+            for (Future<ConsistencySession> session : invokeAll(replicaTasks)) {
+                replicas.add(new Replica(await(session)));
+            }
+        } catch (RuntimeException | Error e) {
+            executor.shutdownNow();
+            throw e;
+        }
+
+        logger.debug("\t[parallelInconsistencyCheck] created {} replicas of model {}", threads,
+                unionModel.getRegionString());
+    }
+
+    /*
+     * Checks the candidates in the given order and returns the constraints that have to be decontextualized.
+     */
+    public Set<AbstractConstraint> findDecontextualizedConstraints(final List<AbstractConstraint> candidates) {
+        final Set<AbstractConstraint> decontextualized = Collections.newSetFromMap(new IdentityHashMap<>());
+        final int batchSize = threads * CHECKS_PER_THREAD;
+
+        int position = 0;
+        int rechecks = 0;
+        while (position < candidates.size()) {
+            List<AbstractConstraint> batch = candidates.subList(position,
+                    Math.min(position + batchSize, candidates.size()));
+
+            List<Callable<Boolean>> checks = new ArrayList<>();
+            for (AbstractConstraint constraint : batch) {
+                checks.add(() -> isInconsistentWithNegatedConstraint(constraint));
+            }
+            List<Future<Boolean>> verdicts = invokeAll(checks);
+
+            boolean batchDecontextualized = false;
+            int accepted = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                boolean inconsistent = await(verdicts.get(i));
+
+                if (inconsistent) {
+                    decontextualized.add(batch.get(i));
+                    committedDecontextualized.add(batch.get(i));
+                    batchDecontextualized = true;
+                } else if (batchDecontextualized) {
+                    // checked without the earlier decontextualizations of this batch
+                    break;
+                }
+                accepted++;
+            }
+
+            rechecks += batch.size() - accepted;
+            position += accepted;
+        }
+
+        logger.debug("\t[parallelInconsistencyCheck] checked {} constraints with {} threads, {} checks repeated",
+                candidates.size(), threads, rechecks);
+
+        return decontextualized;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private boolean isInconsistentWithNegatedConstraint(final AbstractConstraint constraint)
+            throws InterruptedException {
+        Replica replica = replicas.take();
+        try {
+            replica.sync(committedDecontextualized);
+            return !replica.session.isConsistentWithNegation(constraint);
+        } finally {
+            replicas.put(replica);
+        }
+    }
+
+    private <T> List<Future<T>> invokeAll(final List<Callable<T>> tasks) {
+        try {
+            return executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MergerException("parallel inconsistency check was interrupted", e);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MergerException("parallel inconsistency check was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new MergerException("parallel inconsistency check failed", e.getCause());
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package util.helper;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import model.choco.ChocoModel;
 import model.choco.Region;
+import model.choco.SolverProfile;
 import model.recreate.RecreationModel;
 import model.recreate.constraints.AbstractConstraint;
 import model.recreate.constraints.FeatureReferenceConstraint;
@@ -16,6 +19,7 @@ import model.recreate.constraints.OrNegationConstraint;
 import model.recreate.feature.Feature;
 import util.ChocoTranslator;
 import util.analyse.Analyser;
+import util.analyse.SolverBackend;
 
 /**
  * Helper methods for merge validation.
@@ -57,6 +61,26 @@ public class ValidatorHelper {
      */
     public static boolean checkSimultaneousViolationsOrNegation(RecreationModel mergedKB,
             RecreationModel... sourceModels) {
+        return checkSimultaneousViolationsOrNegation(SolverProfile.defaultProfile(), mergedKB, sourceModels);
+    }
+
+    // Test Case 1 solved with the given solver profile
+    public static boolean checkSimultaneousViolationsOrNegation(SolverProfile profile, RecreationModel mergedKB,
+            RecreationModel... sourceModels) {
+        // Convert to Choco model and check satisfiability
+        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(createExtraSolutionsTestModel(mergedKB, sourceModels));
+        return isSatisfiable(chocoModel, profile);
+    }
+
+    // Test Case 1 solved with the given solver backend
+    public static boolean checkSimultaneousViolationsOrNegation(SolverBackend backend, RecreationModel mergedKB,
+            RecreationModel... sourceModels) {
+        return backend.isConsistent(createExtraSolutionsTestModel(mergedKB, sourceModels));
+    }
+
+    // test model of Test Case 1: KBMerge ∧ ¬KB₁ ∧ ... ∧ ¬KBₙ
+    private static RecreationModel createExtraSolutionsTestModel(RecreationModel mergedKB,
+            RecreationModel... sourceModels) {
         // Create a test model with the region set to TESTING
         RecreationModel testModel = new RecreationModel(Region.TESTING);
 
@@ -66,7 +90,7 @@ public class ValidatorHelper {
 
         // Add all constraints from the merged model
         for (AbstractConstraint constraint : mergedKB.getConstraints()) {
-            testModel.addConstraint(constraint.copy());
+            testModel.addConstraint(constraint);
         }
 
         for (RecreationModel sourceModel : sourceModels) {
@@ -74,10 +98,7 @@ public class ValidatorHelper {
                 testModel.addConstraint(new OrNegationConstraint(sourceModel.getConstraints()));
             }
         }
-
-        // Convert to Choco model and check satisfiability
-        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(testModel);
-        return Analyser.isConsistent(chocoModel);
+        return testModel;
     }
 
     /**
@@ -124,28 +145,23 @@ public class ValidatorHelper {
 
         // Add all constraints from the original KB
         for (AbstractConstraint constraint : originalKB.getConstraints()) {
-            testModel.addConstraint(constraint.copy());
+            testModel.addConstraint(constraint);
         }
 
         // Identify features that exist in the merged model but not in the current
         // region
         // These represent "foreign" features that should be forced to false during
         // testing
-        Set<String> forbidden = new HashSet<>(mergedKB.getFeatures().keySet()); // all merged vars
-        forbidden.removeAll(originalKB.getFeatures().keySet()); // keep only unknowns
-        forbidden.remove(originalKB.getRegion().getRegionString()); // never forbid region markers
-        forbidden.remove(originalKBNotTesting.getRegion().getRegionString());
+        BitSet known = featureIdsOf(originalKB); // features of the tested region
+        known.set(originalKB.getRegion().getFeatureId()); // never forbid region markers
+        known.set(originalKBNotTesting.getRegion().getFeatureId());
 
         // FEATURE ISOLATION: Force foreign features (unknown to tested region) to false
-        for (String uniqueFeatureName : forbidden) {
-            Feature uniqueFeature = testModel.getFeatures().get(uniqueFeatureName);
-            if (uniqueFeature != null) {
-                NotConstraint forceFalseConstraint = new NotConstraint();
-                FeatureReferenceConstraint featureRef = new FeatureReferenceConstraint(uniqueFeature);
-                forceFalseConstraint.setInner(featureRef);
-                testModel.addConstraint(forceFalseConstraint);
+        for (Feature mergedFeature : mergedKB.getFeatures().values()) {
+            if (!known.get(mergedFeature.getId())) {
+                forceFalse(testModel, mergedFeature);
                 logger.trace("\t[checkMissingSolutions] forcing unique feature {} from {} to false",
-                        uniqueFeatureName, originalKBNotTesting.getRegion().getRegionString());
+                        mergedFeature.getName(), originalKBNotTesting.getRegion().getRegionString());
             }
         }
 
@@ -156,7 +172,7 @@ public class ValidatorHelper {
 
         // Convert to Choco model and check satisfiability
         ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(testModel);
-        boolean isSatisfiable = Analyser.isConsistent(chocoModel);
+        boolean isSatisfiable = isSatisfiable(chocoModel, SolverProfile.defaultProfile());
 
         if (isSatisfiable) {
             logger.warn(
@@ -190,8 +206,33 @@ public class ValidatorHelper {
      */
     public static boolean checkMissingSolutionsMultiple(RecreationModel mergedKB, RecreationModel originalKB,
             RecreationModel[] otherKBs) {
+        return checkMissingSolutionsMultiple(mergedKB, originalKB, otherKBs, SolverProfile.defaultProfile());
+    }
+
+    // Test Case 2 against multiple other knowledge bases solved with the given solver profile
+    public static boolean checkMissingSolutionsMultiple(RecreationModel mergedKB, RecreationModel originalKB,
+            RecreationModel[] otherKBs, SolverProfile profile) {
         logger.info("\t[checkMissingSolutionsMultiple] Checking for missing solutions in {}", originalKB.getRegionString());
 
+        // Convert to Choco model and check satisfiability
+        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(
+                createMissingSolutionsTestModel(mergedKB, originalKB, otherKBs));
+        return logMissingSolutionsResult(originalKB, isSatisfiable(chocoModel, profile));
+    }
+
+    // Test Case 2 against multiple other knowledge bases solved with the given solver backend
+    public static boolean checkMissingSolutionsMultiple(RecreationModel mergedKB, RecreationModel originalKB,
+            RecreationModel[] otherKBs, SolverBackend backend) {
+        logger.info("\t[checkMissingSolutionsMultiple] Checking for missing solutions in {} with {}",
+                originalKB.getRegionString(), backend.getName());
+
+        RecreationModel testModel = createMissingSolutionsTestModel(mergedKB, originalKB, otherKBs);
+        return logMissingSolutionsResult(originalKB, backend.isConsistent(testModel));
+    }
+
+    // test model of Test Case 2: ¬KBMerge ∧ originalKB with the region and feature isolation
+    private static RecreationModel createMissingSolutionsTestModel(RecreationModel mergedKB, RecreationModel originalKB,
+            RecreationModel[] otherKBs) {
         // Create a test model with the region set to TESTING
         RecreationModel testModel = new RecreationModel(Region.TESTING);
 
@@ -218,40 +259,36 @@ public class ValidatorHelper {
 
         // Add all constraints from the original KB
         for (AbstractConstraint constraint : originalKB.getConstraints()) {
-            testModel.addConstraint(constraint.copy());
+            testModel.addConstraint(constraint);
         }
 
         // Identify features that exist in the merged model but not in the current region
         // These represent "foreign" features that should be forced to false during testing
-        Set<String> forbidden = new HashSet<>(mergedKB.getFeatures().keySet()); // all merged vars
-        forbidden.removeAll(originalKB.getFeatures().keySet()); // keep only unknowns
-        forbidden.remove(originalKB.getRegion().getRegionString()); // never forbid tested region marker
-        
-        // Remove all other region markers from forbidden set
-        for (RecreationModel otherKB : otherKBs) {
-            forbidden.remove(otherKB.getRegion().getRegionString());
-        }
+        BitSet known = featureIdsOf(originalKB); // features of the tested region
+
+        // Region markers of the tested and the other KBs are never forbidden, this includes the intermediate
+        // regions of a hierarchical merge below the region root of the merged model, which are determined by
+        // the source regions
+        RecreationModel[] regionModels = Arrays.copyOf(otherKBs, otherKBs.length + 2);
+        regionModels[otherKBs.length] = originalKB;
+        regionModels[otherKBs.length + 1] = mergedKB;
+        Set<String> regionNames = MergerHelper.collectRegionNames(regionModels);
 
         // FEATURE ISOLATION: Force foreign features (unknown to tested region) to false
-        for (String uniqueFeatureName : forbidden) {
-            Feature uniqueFeature = testModel.getFeatures().get(uniqueFeatureName);
-            if (uniqueFeature != null) {
-                NotConstraint forceFalseConstraint = new NotConstraint();
-                FeatureReferenceConstraint featureRef = new FeatureReferenceConstraint(uniqueFeature);
-                forceFalseConstraint.setInner(featureRef);
-                testModel.addConstraint(forceFalseConstraint);
-                logger.trace("\t[checkMissingSolutionsMultiple] forcing unique feature {} to false", uniqueFeatureName);
+        for (Feature mergedFeature : mergedKB.getFeatures().values()) {
+            if (!known.get(mergedFeature.getId()) && !regionNames.contains(mergedFeature.getName())) {
+                forceFalse(testModel, mergedFeature);
+                logger.trace("\t[checkMissingSolutionsMultiple] forcing unique feature {} to false", mergedFeature.getName());
             }
         }
 
         // TEST FORMULA: ¬KBMerge ∧ originalKB
         // Add ¬KBMerge using OrNegationConstraint (at least one merged constraint violated)
         testModel.addConstraint(new OrNegationConstraint(mergedKB.getConstraints()));
+        return testModel;
+    }
 
-        // Convert to Choco model and check satisfiability
-        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(testModel);
-        boolean isSatisfiable = Analyser.isConsistent(chocoModel);
-
+    private static boolean logMissingSolutionsResult(RecreationModel originalKB, boolean isSatisfiable) {
         if (isSatisfiable) {
             logger.warn(
                     "\t[checkMissingSolutionsMultiple] Test Case 2 for {} FAILED: KBMerge excludes valid configurations (merge too strict)",
@@ -265,4 +302,28 @@ public class ValidatorHelper {
         }
     }
 
+    // solves a test model, a test that got cancelled by a concurrent validation stops its search and throws
+    private static boolean isSatisfiable(ChocoModel chocoModel, SolverProfile profile) {
+        boolean satisfiable = Analyser.isConsistentUnlessInterrupted(chocoModel, profile);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("validation test was cancelled");
+        }
+        return satisfiable;
+    }
+
+    // returns the ids of all features of the given model
+    private static BitSet featureIdsOf(RecreationModel model) {
+        BitSet ids = new BitSet();
+        for (Feature feature : model.getFeatures().values()) {
+            ids.set(feature.getId());
+        }
+        return ids;
+    }
+
+    // adds the constraint forcing the given feature to false
+    private static void forceFalse(RecreationModel testModel, Feature feature) {
+        NotConstraint forceFalseConstraint = new NotConstraint();
+        forceFalseConstraint.setInner(new FeatureReferenceConstraint(feature));
+        testModel.addConstraint(forceFalseConstraint);
+    }
 }
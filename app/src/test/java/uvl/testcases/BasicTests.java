@@ -1,6 +1,10 @@
 package uvl.testcases;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.Test;
 
 import util.Merger;
@@ -13,10 +17,10 @@ import model.recreate.RecreationModel;
 
 class BasicTests {
 
-    private record TestCase(String filename, long expectedSolutions) {
+    record TestCase(String filename, long expectedSolutions) {
     }
 
-    private final TestCase[] testCasesFeatureTree = {
+    static final TestCase[] testCasesFeatureTree = {
             new TestCase("uvl/testcases/featureTree1.uvl", 1),
             new TestCase("uvl/testcases/featureTree2.uvl", 2),
             new TestCase("uvl/testcases/featureTree3.uvl", 7),
@@ -25,10 +29,11 @@ class BasicTests {
             new TestCase("uvl/testcases/featureTree6.uvl", 18),
             new TestCase("uvl/testcases/featureTree7.uvl", 480),
             new TestCase("uvl/testcases/featureTree8.uvl", 336),
-            new TestCase("uvl/testcases/featureTree9.uvl", 1944000)
+            new TestCase("uvl/testcases/featureTree9.uvl", 1944000),
+            new TestCase("uvl/testcases/groupShapes.uvl", 3520)
     };
 
-    private final TestCase[] testCasesCrossTree = {
+    static final TestCase[] testCasesCrossTree = {
             new TestCase("uvl/testcases/crossTree1.uvl", 340),
             new TestCase("uvl/testcases/crossTree2.uvl", 72),
             new TestCase("uvl/testcases/crossTree3.uvl", 18),
@@ -40,23 +45,29 @@ class BasicTests {
             new TestCase("uvl/testcases/crossTree9.uvl", 311616)
     };
 
-    private final TestCase[] testCasesPaper = {
+    static final TestCase[] testCasesPaper = {
             new TestCase("uvl/paper_test_models/original/us.uvl", 288),
             new TestCase("uvl/paper_test_models/original/ger.uvl", 324)
     };
 
-    private final TestCase[] testCasesFish = {
+    static final TestCase[] testCasesFish = {
             new TestCase("uvl/testcases/featureTreeFish.uvl", 13824),
             new TestCase("uvl/testcases/crossTreeFish.uvl", 448)
     };
 
-    private final TestCase[] testCasesRandom = {
+    static final TestCase[] testCasesRandom = {
             new TestCase("uvl/testcases/model_test1.uvl", 24516),
             new TestCase("uvl/testcases/model_test2.uvl", 18300),
             // new TestCase("uvl/testcases/model_test3.uvl", 234), //61
             new TestCase("uvl/testcases/model_test4.uvl", 5004)
     };
 
+    // all fixtures of this class, shared with the backend tests
+    static Stream<TestCase> allTestCases() {
+        return Stream.of(testCasesFeatureTree, testCasesCrossTree, testCasesPaper, testCasesFish, testCasesRandom)
+                .flatMap(Arrays::stream);
+    }
+
     private long getSolutionCount(String filename) throws Exception {
         RecreationModel recModel = UVLParser.parseUVLFile(filename);
         recModel.setRegion(Region.A);
@@ -0,0 +1,66 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+import util.analyse.Analyser;
+import util.analyse.SolverBackend;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class BddTest {
+
+        @Test
+        void testContextualizedBddSolutionCounts() {
+                for (BasicTests.TestCase testCase : BasicTests.testCasesPaper) {
+                        try {
+                                RecreationModel model = UVLParser.parseUVLFile(testCase.filename(), Region.A);
+                                model.contextualizeAllConstraints();
+
+                                // contextualized constraints are gated by the region node in the BDD
+                                assertEquals(testCase.expectedSolutions(),
+                                                Analyser.returnNumberOfSolutions(model, SolverBackend.bdd()),
+                                                "Solution count mismatch for contextualized " + testCase.filename());
+                        } catch (Exception e) {
+                                throw new AssertionError("testContextualizedBddSolutionCounts failed for "
+                                                + testCase.filename(), e);
+                        }
+                }
+        }
+
+        @Test
+        void testEquivalenceByNodeComparison() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel otherUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.B);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+
+                        assertTrue(Analyser.areEquivalent(modelUs, otherUs));
+                        assertFalse(Analyser.areEquivalent(modelUs, modelGer));
+                } catch (Exception e) {
+                        throw new AssertionError("testEquivalenceByNodeComparison failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testValidateMergeWithBdd() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+                        RecreationModel mergedModel = Merger.fullMerge(modelUs, modelGer).mergedModel();
+
+                        assertEquals(288 + 324, Analyser.returnNumberOfSolutions(mergedModel, SolverBackend.bdd()));
+                        assertEquals(0, Validator.validateMerge(SolverBackend.bdd(), mergedModel, modelUs, modelGer));
+                        assertEquals(Validator.validateMerge(mergedModel, modelUs, modelGer),
+                                        Validator.validateMerge(SolverBackend.bdd(), mergedModel, modelUs, modelGer));
+                } catch (Exception e) {
+                        throw new AssertionError("testValidateMergeWithBdd failed: " + e.getMessage(), e);
+                }
+        }
+}
@@ -0,0 +1,73 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import util.Merger;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.SolverBackend;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.feature.Feature;
+
+class ComponentDecomposerTest {
+
+        @Test
+        void testComponentsPartitionFeatures() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/busybox/busybox_1.uvl", Region.A);
+                        List<RecreationModel> components = Analyser.decompose(model);
+
+                        // every feature except the root is part of exactly one component
+                        Set<String> features = new HashSet<>();
+                        int featureCount = 0;
+                        for (RecreationModel component : components) {
+                                assertEquals(model.getRootFeature(), component.getRootFeature());
+                                features.addAll(component.getFeatures().keySet());
+                                featureCount += component.getFeatures().size() - 1;
+                        }
+                        assertEquals(model.getFeatures().keySet(), features);
+                        assertEquals(model.getFeatures().size() - 1, featureCount);
+                        assertTrue(Analyser.isConsistent(model, SolverBackend.decomposed(SolverBackend.sat(), 2)));
+                } catch (Exception e) {
+                        throw new AssertionError("testComponentsPartitionFeatures failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testFreeFeaturesAreCounted() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        // features without any constraint may be selected or not
+                        model.getFeatures().put("decompose_free_1", new Feature("decompose_free_1"));
+                        model.getFeatures().put("decompose_free_2", new Feature("decompose_free_2"));
+
+                        assertEquals(288 * 4, Analyser.returnNumberOfSolutions(model, SolverBackend.ddnnf()));
+                        assertEquals(288 * 4, Analyser.returnNumberOfSolutions(model,
+                                        SolverBackend.decomposed(SolverBackend.ddnnf())));
+                } catch (Exception e) {
+                        throw new AssertionError("testFreeFeaturesAreCounted failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testDecomposedCountOnMergedModel() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+                        RecreationModel mergedModel = Merger.fullMerge(modelUs, modelGer).mergedModel();
+
+                        assertEquals(288 + 324, Analyser.returnNumberOfSolutions(mergedModel,
+                                        SolverBackend.decomposed(SolverBackend.ddnnf())));
+                } catch (Exception e) {
+                        throw new AssertionError("testDecomposedCountOnMergedModel failed: " + e.getMessage(), e);
+                }
+        }
+}
@@ -0,0 +1,82 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+
+class ConcurrentValidatorTest {
+
+    private static final String FILENAME_A = "uvl/smartwatch/miband2.uvl";
+    private static final String FILENAME_B = "uvl/smartwatch/miband3.uvl";
+
+    @Test
+    void testValidMerge() {
+        try {
+            RecreationModel modelA = UVLParser.parseUVLFile(FILENAME_A, Region.A);
+            RecreationModel modelB = UVLParser.parseUVLFile(FILENAME_B, Region.B);
+            RecreationModel mergedModel = Merger.fullMerge(modelA, modelB).mergedModel();
+
+            assertEquals(0, Validator.validateMergeConcurrently(mergedModel, modelA, modelB));
+        } catch (Exception e) {
+            throw new AssertionError("testValidMerge failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void testCase1ExpectedToFail() {
+        try {
+            RecreationModel modelA = UVLParser.parseUVLFile(FILENAME_A, Region.A);
+            RecreationModel modelB = UVLParser.parseUVLFile(FILENAME_B, Region.B);
+            RecreationModel mergedModel = Merger.fullMerge(modelA, modelB).mergedModel();
+
+            mergedModel.getConstraints().remove(36);
+
+            assertEquals(1, Validator.validateMergeConcurrently(mergedModel, modelA, modelB));
+        } catch (Exception e) {
+            throw new AssertionError("testCase1ExpectedToFail failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void testCase2AExpectedToFail() {
+        try {
+            RecreationModel modelA = UVLParser.parseUVLFile(FILENAME_A, Region.A);
+            RecreationModel modelB = UVLParser.parseUVLFile(FILENAME_B, Region.B);
+            RecreationModel mergedModel = Merger.fullMerge(modelA, modelB).mergedModel();
+
+            FeatureReferenceConstraint constraint = new FeatureReferenceConstraint();
+            constraint.setFeature(mergedModel.getFeatures().get("MovementFilter"));
+            constraint.doContextualize(Region.A.ordinal());
+            mergedModel.addConstraint(constraint);
+
+            assertEquals(2, Validator.validateMergeConcurrently(mergedModel, modelA, modelB));
+        } catch (Exception e) {
+            throw new AssertionError("testCase2AExpectedToFail failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Test
+    void testCase2BExpectedToFail() {
+        try {
+            RecreationModel modelA = UVLParser.parseUVLFile(FILENAME_A, Region.A);
+            RecreationModel modelB = UVLParser.parseUVLFile(FILENAME_B, Region.B);
+            RecreationModel mergedModel = Merger.fullMerge(modelA, modelB).mergedModel();
+
+            FeatureReferenceConstraint constraint = new FeatureReferenceConstraint();
+            constraint.setFeature(mergedModel.getFeatures().get("TouchScreen"));
+            constraint.doContextualize(Region.B.ordinal());
+            mergedModel.addConstraint(constraint);
+
+            assertEquals(3, Validator.validateMergeConcurrently(mergedModel, modelA, modelB));
+        } catch (Exception e) {
+            throw new AssertionError("testCase2BExpectedToFail failed: " + e.getMessage(), e);
+        }
+    }
+}
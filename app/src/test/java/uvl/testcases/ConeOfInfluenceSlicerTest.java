@@ -0,0 +1,88 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import util.MergeOptions;
+import util.Merger;
+import util.Merger.MergeResult;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.statistics.MergeStatistics;
+import util.helper.ConeOfInfluenceSlicer;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+
+class ConeOfInfluenceSlicerTest {
+
+        private final String[][] modelSets = {
+                        { "uvl/paper_test_models/original/us.uvl", "uvl/paper_test_models/original/ger.uvl" },
+                        { "uvl/smartwatch/miband1.uvl", "uvl/smartwatch/miband1s.uvl", "uvl/smartwatch/miband2.uvl" }
+        };
+
+        private final Region[] regions = { Region.A, Region.B, Region.C };
+
+        @Test
+        void testSlicedMergeEqualsFullMerge() {
+                for (String[] filenames : modelSets) {
+                        try {
+                                MergeResult sliced = Merger.fullMerge(MergeOptions.sequential().withSlicing(true),
+                                                parse(filenames));
+                                MergeResult full = Merger.fullMerge(MergeOptions.sequential().withSlicing(false),
+                                                parse(filenames));
+
+                                MergeStatistics slicedStatistics = sliced.mergedStatistics();
+                                MergeStatistics fullStatistics = full.mergedStatistics();
+                                assertEquals(fullStatistics.getInconsistencyNonContextualizedCounter(),
+                                                slicedStatistics.getInconsistencyNonContextualizedCounter());
+                                assertEquals(fullStatistics.getCleanupRemovedCounter(),
+                                                slicedStatistics.getCleanupRemovedCounter());
+                                assertEquals(full.mergedModel().getConstraints().size(),
+                                                sliced.mergedModel().getConstraints().size());
+                                assertEquals(Analyser.returnNumberOfSolutions(full.mergedModel()),
+                                                Analyser.returnNumberOfSolutions(sliced.mergedModel()));
+                        } catch (Exception e) {
+                                throw new AssertionError("testSlicedMergeEqualsFullMerge failed for "
+                                                + String.join(", ", filenames), e);
+                        }
+                }
+        }
+
+        @Test
+        void testSliceContainsCandidateAndRegions() {
+                try {
+                        RecreationModel[] models = parse(modelSets[0]);
+                        for (int i = 0; i < models.length; i++) {
+                                models[i] = models[i].contextualizedCopy();
+                        }
+                        RecreationModel unionModel = Merger.union(new MergeStatistics(), models);
+                        ConeOfInfluenceSlicer slicer = new ConeOfInfluenceSlicer(unionModel,
+                                        MergeOptions.sequential().encodingMode(),
+                                        MergeOptions.sequential().inconsistencyCheckProfile());
+
+                        for (AbstractConstraint constraint : unionModel.getConstraints()) {
+                                if (constraint.isSpecialConstraint()) {
+                                        continue;
+                                }
+                                RecreationModel slice = slicer.slice(constraint);
+                                assertTrue(slice.getConstraints().contains(constraint));
+                                assertTrue(slice.getConstraints().size() <= unionModel.getConstraints().size());
+                                assertTrue(slice.getFeatures().containsKey(Region.A.getRegionString()));
+                                assertTrue(slice.getFeatures().containsKey(Region.B.getRegionString()));
+                        }
+                } catch (Exception e) {
+                        throw new AssertionError("testSliceContainsCandidateAndRegions failed: " + e.getMessage(), e);
+                }
+        }
+
+        private RecreationModel[] parse(final String[] filenames) {
+                RecreationModel[] models = new RecreationModel[filenames.length];
+                for (int i = 0; i < filenames.length; i++) {
+                        models[i] = UVLParser.parseUVLFile(filenames[i], regions[i]);
+                }
+                return models;
+        }
+}
@@ -0,0 +1,141 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import util.Merger;
+import util.UVLParser;
+import util.analyse.Analyser;
+import model.choco.Region;
+import model.recreate.ConstraintList;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.GroupConstraint;
+import model.recreate.feature.Feature;
+
+class ConstraintListTest {
+
+        @Test
+        void testIndexesMatchScans() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/busybox/busybox_1.uvl", Region.A);
+                        assertIndexesMatchScans(model);
+
+                        // removing through the iterator keeps the indexes up to date
+                        Iterator<AbstractConstraint> iterator = model.getConstraints().iterator();
+                        int position = 0;
+                        while (iterator.hasNext()) {
+                                iterator.next();
+                                if (position++ % 3 == 0) {
+                                        iterator.remove();
+                                }
+                        }
+                        assertIndexesMatchScans(model);
+
+                        model.contextualizeAllConstraints();
+                        assertIndexesMatchScans(model);
+                        assertEquals(Integer.valueOf(model.getConstraints().size() - 2),
+                                        model.getConstraints().getContextualizedConstraintsPerRegion().get(Region.A.ordinal()));
+                } catch (Exception e) {
+                        throw new AssertionError("testIndexesMatchScans failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testRemoveKeepsOrder() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        ConstraintList constraints = model.getConstraints();
+                        List<AbstractConstraint> expected = new ArrayList<>(constraints);
+
+                        AbstractConstraint removed = expected.remove(expected.size() / 2);
+                        assertTrue(constraints.remove(removed));
+                        assertFalse(constraints.contains(removed));
+                        assertEquals(expected, constraints);
+                        for (int i = 0; i < expected.size(); i++) {
+                                assertSame(expected.get(i), constraints.get(i), "Constraint mismatch at index " + i);
+                        }
+                } catch (Exception e) {
+                        throw new AssertionError("testRemoveKeepsOrder failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testSetAgainRecountsFlagChanges() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        ConstraintList constraints = model.getConstraints();
+                        assertIndexesMatchScans(model);
+
+                        // flags changed in place after the constraint was added are counted once it is set again
+                        int index = constraints.size() / 2;
+                        AbstractConstraint constraint = constraints.get(index);
+                        constraint.setFeatureTreeConstraint(!constraint.isFeatureTreeConstraint());
+                        constraint.doContextualize(Region.B.ordinal());
+                        constraints.set(index, constraint);
+
+                        assertIndexesMatchScans(model);
+                        assertEquals(Integer.valueOf(1),
+                                        constraints.getContextualizedConstraintsPerRegion().get(Region.B.ordinal()));
+                } catch (Exception e) {
+                        throw new AssertionError("testSetAgainRecountsFlagChanges failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testMergeStatisticsFromIndexes() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+                        Merger.MergeResult result = Merger.fullMerge(modelUs, modelGer);
+                        RecreationModel mergedModel = result.mergedModel();
+
+                        assertIndexesMatchScans(mergedModel);
+                        assertEquals(mergedModel.getConstraints().stream()
+                                        .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint()).count(),
+                                        result.mergedStatistics().getNumberOfCrossTreeConstraintsAfterMerge());
+                        assertEquals(288 + 324, Analyser.returnNumberOfSolutions(mergedModel));
+                } catch (Exception e) {
+                        throw new AssertionError("testMergeStatisticsFromIndexes failed: " + e.getMessage(), e);
+                }
+        }
+
+        private void assertIndexesMatchScans(RecreationModel model) {
+                ConstraintList constraints = model.getConstraints();
+
+                assertEquals(constraints.stream().filter(AbstractConstraint::isFeatureTreeConstraint).count(),
+                                constraints.countFeatureTreeConstraints());
+                assertEquals(constraints.stream().filter(AbstractConstraint::isCustomConstraint).count(),
+                                constraints.countCustomConstraints());
+                assertEquals(constraints.stream()
+                                .filter(c -> !c.isFeatureTreeConstraint() && !c.isCustomConstraint()).count(),
+                                constraints.countCrossTreeConstraints());
+
+                for (Feature feature : model.getFeatures().values()) {
+                        List<GroupConstraint> expectedByParent = constraints.stream()
+                                        .filter(c -> c instanceof GroupConstraint gc && gc.getParent() != null
+                                                        && gc.getParent().getId() == feature.getId())
+                                        .map(c -> (GroupConstraint) c)
+                                        .toList();
+                        assertEquals(expectedByParent, constraints.getGroupConstraintsByParent(feature),
+                                        "Group index mismatch for parent " + feature.getName());
+
+                        for (AbstractConstraint constraint : constraints.getConstraintsReferencing(feature)) {
+                                assertTrue(constraints.contains(constraint),
+                                                "Feature index contains a removed constraint for " + feature.getName());
+                        }
+                        for (GroupConstraint group : constraints.getGroupConstraintsByChild(feature)) {
+                                assertTrue(group.getChildren().stream().anyMatch(child -> child.getId() == feature.getId()),
+                                                "Group index mismatch for child " + feature.getName());
+                        }
+                }
+        }
+}
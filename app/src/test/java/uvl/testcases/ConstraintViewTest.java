@@ -0,0 +1,77 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+import util.analyse.Analyser;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+import model.recreate.constraints.BinaryConstraint;
+import model.recreate.constraints.BinaryConstraint.LogicalOperator;
+import model.recreate.constraints.FeatureReferenceConstraint;
+import model.recreate.feature.Feature;
+
+class ConstraintViewTest {
+
+        @Test
+        void testViewsShareOperands() {
+                try {
+                        BinaryConstraint constraint = new BinaryConstraint(
+                                        new FeatureReferenceConstraint(new Feature("GPS")), LogicalOperator.IMPLIES,
+                                        new FeatureReferenceConstraint(new Feature("Bluetooth")));
+
+                        BinaryConstraint contextualized = (BinaryConstraint) constraint.contextualizedWith(Region.B.ordinal());
+                        assertNotSame(constraint, contextualized);
+                        assertSame(constraint.getAntecedent(), contextualized.getAntecedent());
+                        assertSame(constraint.getConsequent(), contextualized.getConsequent());
+                        assertTrue(contextualized.isContextualized());
+                        assertEquals(Integer.valueOf(Region.B.ordinal()), contextualized.getContextualizationValue());
+                        assertFalse(constraint.isContextualized(), "Original constraint was contextualized");
+
+                        AbstractConstraint negated = contextualized.negated();
+                        assertTrue(negated.isNegation());
+                        assertTrue(negated.isContextualized());
+                        assertFalse(contextualized.isNegation(), "Contextualized view was negated");
+
+                        AbstractConstraint decontextualized = contextualized.decontextualized();
+                        assertFalse(decontextualized.isContextualized());
+                        assertTrue(contextualized.isContextualized(), "Contextualized view was decontextualized");
+                } catch (Exception e) {
+                        throw new AssertionError("testViewsShareOperands failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testMergeKeepsSourceConstraints() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+                        modelUs.contextualizeAllConstraints();
+                        List<AbstractConstraint> usConstraints = new ArrayList<>(modelUs.getConstraints());
+
+                        RecreationModel mergedModel = Merger.fullMerge(modelUs, modelGer).mergedModel();
+
+                        // the merge decontextualizes views, the constraints of the source model stay contextualized
+                        for (AbstractConstraint constraint : usConstraints) {
+                                assertTrue(constraint.isContextualized(), "Source constraint was changed by the merge");
+                                assertEquals(Integer.valueOf(Region.A.ordinal()), constraint.getContextualizationValue());
+                        }
+                        assertEquals(288 + 324, Analyser.returnNumberOfSolutions(mergedModel));
+                        assertEquals(0, Validator.validateMerge(mergedModel, modelUs, modelGer));
+                } catch (Exception e) {
+                        throw new AssertionError("testMergeKeepsSourceConstraints failed: " + e.getMessage(), e);
+                }
+        }
+}
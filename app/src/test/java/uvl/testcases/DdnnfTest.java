@@ -0,0 +1,105 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import util.Merger;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.ddnnf.Ddnnf;
+import util.analyse.ddnnf.DdnnfCompiler;
+import util.analyse.sat.CnfFormula;
+import util.analyse.statistics.MergeStatistics;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class DdnnfTest {
+
+        @Test
+        void testCountPerRegionFromOneCompilation() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl",
+                                        Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl",
+                                        Region.B);
+                        modelUs.contextualizeAllConstraints();
+                        modelGer.contextualizeAllConstraints();
+                        RecreationModel unionModel = Merger.union(new MergeStatistics(), modelUs, modelGer);
+
+                        Ddnnf ddnnf = Analyser.compileSolutionSpace(unionModel);
+                        Map<Region, BigInteger> counts = ddnnf.countPerRegion(List.of(Region.A, Region.B));
+
+                        assertEquals(BigInteger.valueOf(288), counts.get(Region.A));
+                        assertEquals(BigInteger.valueOf(324), counts.get(Region.B));
+                        assertEquals(BigInteger.valueOf(288 + 324), ddnnf.count());
+                        assertEquals(BigInteger.ZERO, ddnnf.count(Map.of("A", true, "B", true)));
+                        assertEquals(BigInteger.ZERO, ddnnf.countSelected("ddnnf_test_unknown"));
+
+                        // selecting and deselecting a feature splits the total count
+                        for (String feature : ddnnf.getFeatureVars().keySet()) {
+                                BigInteger selected = ddnnf.countSelected(feature);
+                                BigInteger deselected = ddnnf.count(Map.of(feature, false));
+                                assertEquals(ddnnf.count(), selected.add(deselected),
+                                                "Selection split mismatch for " + feature);
+                        }
+                } catch (Exception e) {
+                        throw new AssertionError("testCountPerRegionFromOneCompilation failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testCountsLargeModelsWithoutEnumeration() {
+                String[] filenames = { "uvl/busybox/busybox_1.uvl", "uvl/finance/finance_2.uvl" };
+                for (String filename : filenames) {
+                        try {
+                                RecreationModel model = UVLParser.parseUVLFile(filename, Region.A);
+                                BigInteger solutions = Analyser.countSolutions(model);
+
+                                assertEquals(Analyser.isConsistent(model), solutions.signum() > 0,
+                                                "Consistency mismatch for " + filename);
+                                assertEquals(solutions, Analyser.compileSolutionSpace(model)
+                                                .countSelected(model.getRootFeature().getName()),
+                                                "Root selection mismatch for " + filename);
+                        } catch (Exception e) {
+                                throw new AssertionError("testCountsLargeModelsWithoutEnumeration failed for " + filename,
+                                                e);
+                        }
+                }
+        }
+
+        @Test
+        void testDeepDecisionChainOnSmallStack() {
+                try {
+                        // x1 -> x2 -> ... -> xn does not decompose, every deselection leaves the rest of the chain
+                        int numberOfVars = 3_000;
+                        CnfFormula cnf = new CnfFormula();
+                        for (int i = 0; i < numberOfVars; i++) {
+                                cnf.addFeature("chain_" + i);
+                        }
+                        for (int var = 1; var < numberOfVars; var++) {
+                                cnf.addClause(-var, var + 1);
+                        }
+
+                        AtomicReference<Object> result = new AtomicReference<>();
+                        Thread thread = new Thread(null, () -> {
+                                try {
+                                        result.set(DdnnfCompiler.compile(cnf).count());
+                                } catch (Throwable t) {
+                                        result.set(t);
+                                }
+                        }, "ddnnf-small-stack", 256 * 1024);
+                        thread.start();
+                        thread.join();
+
+                        assertEquals(BigInteger.valueOf(numberOfVars + 1), result.get());
+                } catch (Exception e) {
+                        throw new AssertionError("testDeepDecisionChainOnSmallStack failed: " + e.getMessage(), e);
+                }
+        }
+}
@@ -0,0 +1,86 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import util.MergeOptions;
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+import util.analyse.Analyser;
+import util.analyse.SolverBackend;
+import model.choco.EncodingMode;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class EncodingModeTest {
+
+        private final String[] filenames = {
+                        "uvl/testcases/featureTree3.uvl",
+                        "uvl/testcases/featureTree4.uvl",
+                        "uvl/testcases/featureTree8.uvl",
+                        "uvl/testcases/crossTree1.uvl",
+                        "uvl/testcases/crossTree2.uvl",
+                        "uvl/paper_test_models/original/us.uvl",
+                        "uvl/smartwatch/miband1.uvl"
+        };
+
+        private final SolverBackend clausal = SolverBackend.choco(EncodingMode.CLAUSAL);
+
+        @Test
+        void testClausalEncodingSolutionCounts() {
+                for (String filename : filenames) {
+                        try {
+                                RecreationModel model = UVLParser.parseUVLFile(filename, Region.A);
+
+                                assertEquals(Analyser.returnNumberOfSolutions(model),
+                                                Analyser.returnNumberOfSolutions(model, clausal),
+                                                "Solution count mismatch for " + filename);
+
+                                model.contextualizeAllConstraints();
+                                assertEquals(Analyser.returnNumberOfSolutions(model),
+                                                Analyser.returnNumberOfSolutions(model, clausal),
+                                                "Solution count mismatch for contextualized " + filename);
+                        } catch (Exception e) {
+                                throw new AssertionError("testClausalEncodingSolutionCounts failed for " + filename, e);
+                        }
+                }
+        }
+
+        @Test
+        void testGroupShapeSolutionCounts() {
+                String filename = "uvl/testcases/groupShapes.uvl";
+                try {
+                        // alternative of 8 (ladder) * optional or of 3 * optional [0..1] of 3 * optional [2..3] of 4
+                        long expectedSolutions = 8 * 8 * 5 * 11;
+                        RecreationModel model = UVLParser.parseUVLFile(filename, Region.A);
+
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(model));
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(model, clausal));
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(model, SolverBackend.sat()));
+                } catch (Exception e) {
+                        throw new AssertionError("testGroupShapeSolutionCounts failed for " + filename, e);
+                }
+        }
+
+        @Test
+        void testClausalEncodingMerge() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+                        long expectedSolutions = Analyser.returnNumberOfSolutions(modelUs)
+                                        + Analyser.returnNumberOfSolutions(modelGer);
+
+                        RecreationModel mergedModel = Merger.fullMerge(
+                                        MergeOptions.sequential().withEncodingMode(EncodingMode.CLAUSAL),
+                                        modelUs, modelGer).mergedModel();
+
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(mergedModel, clausal));
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(mergedModel));
+                        assertEquals(0, Validator.validateMerge(mergedModel, modelUs, modelGer));
+                } catch (Exception e) {
+                        throw new AssertionError("testClausalEncodingMerge failed: " + e.getMessage(), e);
+                }
+        }
+}
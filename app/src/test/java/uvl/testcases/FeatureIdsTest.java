@@ -0,0 +1,58 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.choco.ChocoModel;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.feature.Feature;
+import model.recreate.feature.FeatureIds;
+import util.ChocoTranslator;
+import util.UVLParser;
+
+class FeatureIdsTest {
+
+        @Test
+        void testEqualNamesShareOneId() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+
+                        for (Feature feature : modelUs.getFeatures().values()) {
+                                assertEquals(FeatureIds.of(feature.getName()), feature.getId());
+                                assertSame(feature.getName(), FeatureIds.nameOf(feature.getId()));
+
+                                Feature other = modelGer.getFeatures().get(feature.getName());
+                                if (other != null) {
+                                        assertEquals(feature.getId(), other.getId());
+                                }
+                        }
+                        assertEquals(Region.A.getFeatureId(), FeatureIds.find("A"));
+                        assertTrue(Region.isRegionFeature(Region.B.getFeatureId()));
+                } catch (Exception e) {
+                        throw new AssertionError("testEqualNamesShareOneId failed", e);
+                }
+        }
+
+        @Test
+        void testChocoModelIsIndexedByFeatureId() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/smartwatch/miband1.uvl", Region.A);
+                        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(model);
+
+                        assertEquals(model.getFeatures().size(), chocoModel.getNumberOfFeatures());
+                        for (Feature feature : model.getFeatures().values()) {
+                                assertSame(chocoModel.getFeature(feature.getId()), chocoModel.getFeature(feature.getName()));
+                                assertEquals(feature.getName(), chocoModel.getFeature(feature).getName());
+                        }
+                        assertNull(chocoModel.getFeature("feature_ids_test_unknown"));
+                } catch (Exception e) {
+                        throw new AssertionError("testChocoModelIsIndexedByFeatureId failed", e);
+                }
+        }
+}
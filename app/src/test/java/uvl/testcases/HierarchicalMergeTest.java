@@ -0,0 +1,80 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import util.MergeOptions;
+import util.Merger;
+import util.UVLParser;
+import util.analyse.Analyser;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class HierarchicalMergeTest {
+
+        private final String[][] testCases = {
+                        { "uvl/paper_test_models/union_multiple/us.uvl",
+                                        "uvl/paper_test_models/union_multiple/ger.uvl",
+                                        "uvl/paper_test_models/union_multiple/ozeania.uvl" },
+                        { "uvl/smartwatch/miband1.uvl", "uvl/smartwatch/miband1s.uvl",
+                                        "uvl/smartwatch/miband2.uvl", "uvl/smartwatch/miband3.uvl" }
+        };
+
+        private RecreationModel[] parseModels(String[] filenames) throws Exception {
+                Region[] regions = { Region.A, Region.B, Region.C, Region.D, Region.E, Region.F };
+                RecreationModel[] models = new RecreationModel[filenames.length];
+                for (int i = 0; i < filenames.length; i++) {
+                        models[i] = UVLParser.parseUVLFile(filenames[i], regions[i]);
+                }
+                return models;
+        }
+
+        @Test
+        void testHierarchicalMergeKeepsAllSolutions() {
+                for (String[] filenames : testCases) {
+                        try {
+                                RecreationModel[] models = parseModels(filenames);
+                                long expectedSolutions = 0;
+                                for (RecreationModel model : models) {
+                                        expectedSolutions += Analyser.returnNumberOfSolutions(model);
+                                }
+
+                                for (int threads : new int[] { 1, 4 }) {
+                                        RecreationModel mergedModel = Merger
+                                                        .hierarchicalMerge(MergeOptions.parallel(threads),
+                                                                        parseModels(filenames))
+                                                        .mergedModel();
+
+                                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(mergedModel),
+                                                        "Solution count mismatch for " + filenames[0] + " with "
+                                                                        + threads + " threads");
+                                }
+                        } catch (Exception e) {
+                                throw new AssertionError(
+                                                "testHierarchicalMergeKeepsAllSolutions failed for " + filenames[0], e);
+                        }
+                }
+        }
+
+        @Test
+        void testIntermediateRegionsAreCreated() {
+                try {
+                        RecreationModel mergedModel = Merger
+                                        .hierarchicalMerge(parseModels(testCases[1]))
+                                        .mergedModel();
+
+                        assertTrue(mergedModel.getFeatures().containsKey("A_B"));
+                        assertTrue(mergedModel.getFeatures().containsKey("C_D"));
+                } catch (Exception e) {
+                        throw new AssertionError("testIntermediateRegionsAreCreated failed", e);
+                }
+        }
+
+        @Test
+        void testHierarchicalMergeNeedsTwoModels() {
+                assertThrows(IllegalArgumentException.class, () -> Merger.hierarchicalMerge(new RecreationModel[0]));
+        }
+}
@@ -0,0 +1,60 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import util.ChocoTranslator;
+import util.UVLParser;
+import util.analyse.Analyser;
+import model.choco.ChocoModel;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class IntersectionCounterTest {
+
+        private final String[][] modelSets = {
+                        { "uvl/paper_test_models/original/us.uvl", "uvl/paper_test_models/original/ger.uvl" },
+                        { "uvl/paper_test_models/union_multiple/us.uvl", "uvl/paper_test_models/union_multiple/ger.uvl",
+                                        "uvl/paper_test_models/union_multiple/ozeania.uvl" },
+                        { "uvl/smartwatch/miband1.uvl", "uvl/smartwatch/miband1s.uvl", "uvl/smartwatch/miband2.uvl" }
+        };
+
+        private final Region[] regions = { Region.A, Region.B, Region.C };
+
+        @Test
+        void testProjectedIntersectionEqualsEnumeration() {
+                for (String[] filenames : modelSets) {
+                        try {
+                                RecreationModel[] models = new RecreationModel[filenames.length];
+                                ChocoModel[] chocoModels = new ChocoModel[filenames.length];
+                                for (int i = 0; i < filenames.length; i++) {
+                                        models[i] = UVLParser.parseUVLFile(filenames[i], regions[i]);
+                                        chocoModels[i] = ChocoTranslator.convertToChocoModel(models[i]);
+                                }
+
+                                assertEquals(Analyser.findIntersectionSolutions(chocoModels),
+                                                Analyser.findIntersectionSolutions(models),
+                                                "Intersection mismatch for " + String.join(", ", filenames));
+                        } catch (Exception e) {
+                                throw new AssertionError("testProjectedIntersectionEqualsEnumeration failed for "
+                                                + String.join(", ", filenames), e);
+                        }
+                }
+        }
+
+        @Test
+        void testIntersectionOfTwoModels() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+                        RecreationModel modelMiband = UVLParser.parseUVLFile("uvl/smartwatch/miband1.uvl", Region.C);
+
+                        assertEquals(126, Analyser.findIntersectionSolutions(modelUs, modelGer));
+                        assertEquals(288, Analyser.findIntersectionSolutions(modelUs, modelUs));
+                        assertEquals(0, Analyser.findIntersectionSolutions(modelUs, modelMiband));
+                } catch (Exception e) {
+                        throw new AssertionError("testIntersectionOfTwoModels failed: " + e.getMessage(), e);
+                }
+        }
+}
@@ -0,0 +1,56 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import util.ChocoTranslator;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.solution.PackedSolutionSet;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class PackedSolutionSetTest {
+
+        @Test
+        void testAddContainsAndIntersect() {
+                try {
+                        PackedSolutionSet evens = new PackedSolutionSet(2);
+                        PackedSolutionSet multiplesOfThree = new PackedSolutionSet(2);
+                        for (long i = 0; i < 10_000; i++) {
+                                evens.add(new long[] { i * 2, ~(i * 2) });
+                                multiplesOfThree.add(new long[] { i * 3, ~(i * 3) });
+                        }
+
+                        assertEquals(10_000, evens.size());
+                        assertFalse(evens.add(new long[] { 4, ~4L }), "Duplicate solution was added");
+                        assertTrue(evens.contains(new long[] { 4, ~4L }));
+                        assertFalse(evens.contains(new long[] { 4, 4 }));
+
+                        // common solutions are the multiples of six below 20000
+                        assertEquals(3_334, evens.intersect(multiplesOfThree).size());
+                } catch (Exception e) {
+                        throw new AssertionError("testAddContainsAndIntersect failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testChocoIntersectionWithPackedSolutions() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+
+                        assertEquals(126, Analyser.findIntersectionSolutions(
+                                        ChocoTranslator.convertToChocoModel(modelUs),
+                                        ChocoTranslator.convertToChocoModel(modelGer)));
+                        assertEquals(288, Analyser.findIntersectionSolutions(
+                                        ChocoTranslator.convertToChocoModel(modelUs),
+                                        ChocoTranslator.convertToChocoModel(modelUs)));
+                } catch (Exception e) {
+                        throw new AssertionError("testChocoIntersectionWithPackedSolutions failed: " + e.getMessage(), e);
+                }
+        }
+}
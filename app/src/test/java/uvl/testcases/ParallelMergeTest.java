@@ -0,0 +1,137 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import util.MergeOptions;
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+import util.analyse.Analyser;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.constraints.AbstractConstraint;
+
+class ParallelMergeTest {
+        private record TestCase(String filenameA, String filenameB, String filenameC) {
+        }
+
+        private final TestCase[] testCases = {
+                        new TestCase("uvl/paper_test_models/original/us.uvl",
+                                        "uvl/paper_test_models/original/ger.uvl", null),
+                        new TestCase("uvl/smartwatch/miband1.uvl", "uvl/smartwatch/miband2.uvl",
+                                        "uvl/smartwatch/miband3.uvl")
+        };
+
+        private RecreationModel[] parseModels(TestCase testCase) throws Exception {
+                if (testCase.filenameC == null) {
+                        return new RecreationModel[] {
+                                        UVLParser.parseUVLFile(testCase.filenameA, Region.A),
+                                        UVLParser.parseUVLFile(testCase.filenameB, Region.B) };
+                }
+
+                return new RecreationModel[] {
+                                UVLParser.parseUVLFile(testCase.filenameA, Region.A),
+                                UVLParser.parseUVLFile(testCase.filenameB, Region.B),
+                                UVLParser.parseUVLFile(testCase.filenameC, Region.C) };
+        }
+
+        @Test
+        void testParallelMergeEqualsSequentialMerge() {
+                for (TestCase testCase : testCases) {
+                        try {
+                                RecreationModel sequentialModel = Merger
+                                                .fullMerge(MergeOptions.sequential(), parseModels(testCase))
+                                                .mergedModel();
+
+                                for (int threads : new int[] { 2, 4 }) {
+                                        RecreationModel parallelModel = Merger
+                                                        .fullMerge(MergeOptions.parallel(threads), parseModels(testCase))
+                                                        .mergedModel();
+
+                                        assertConstraintsEqual(sequentialModel.getConstraints(),
+                                                        parallelModel.getConstraints(), testCase.filenameA);
+                                        assertEquals(Analyser.returnNumberOfSolutions(sequentialModel),
+                                                        Analyser.returnNumberOfSolutions(parallelModel),
+                                                        "Solution count mismatch for " + testCase.filenameA
+                                                                        + " with " + threads + " threads");
+                                }
+                        } catch (Exception e) {
+                                throw new AssertionError(
+                                                "testParallelMergeEqualsSequentialMerge failed for " + testCase.filenameA,
+                                                e);
+                        }
+                }
+        }
+
+        @Test
+        void testConcurrentMergesOfSharedSourceModels() {
+                try {
+                        RecreationModel[] sourceModels = parseModels(testCases[1]);
+                        int[] constraintCounts = new int[sourceModels.length];
+                        int[] featureCounts = new int[sourceModels.length];
+                        for (int i = 0; i < sourceModels.length; i++) {
+                                constraintCounts[i] = sourceModels[i].getConstraints().size();
+                                featureCounts[i] = sourceModels[i].getFeatures().size();
+                        }
+
+                        RecreationModel sequentialModel = Merger.fullMerge(sourceModels).mergedModel();
+                        long expectedSolutions = Analyser.returnNumberOfSolutions(sequentialModel);
+
+                        // every merge reads the same source model instances
+                        ExecutorService executor = Executors.newFixedThreadPool(4);
+                        try {
+                                List<Future<RecreationModel>> merges = new ArrayList<>();
+                                for (int i = 0; i < 8; i++) {
+                                        merges.add(executor.submit(() -> Merger.fullMerge(sourceModels).mergedModel()));
+                                }
+                                for (Future<RecreationModel> merge : merges) {
+                                        RecreationModel mergedModel = merge.get();
+                                        assertConstraintsEqual(sequentialModel.getConstraints(),
+                                                        mergedModel.getConstraints(), testCases[1].filenameA);
+                                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(mergedModel));
+                                }
+                        } finally {
+                                executor.shutdown();
+                        }
+
+                        for (int i = 0; i < sourceModels.length; i++) {
+                                assertEquals(constraintCounts[i], sourceModels[i].getConstraints().size(),
+                                                "Merge changed the constraints of source model " + i);
+                                assertEquals(featureCounts[i], sourceModels[i].getFeatures().size(),
+                                                "Merge changed the features of source model " + i);
+                                assertFalse(sourceModels[i].isContextualized(),
+                                                "Merge contextualized source model " + i);
+                        }
+                        assertEquals(0, Validator.validateMerge(sequentialModel, sourceModels));
+                } catch (Exception e) {
+                        throw new AssertionError("testConcurrentMergesOfSharedSourceModels failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testInvalidNumberOfThreads() {
+                assertThrows(IllegalArgumentException.class, () -> MergeOptions.parallel(0));
+        }
+
+        private void assertConstraintsEqual(List<AbstractConstraint> expected, List<AbstractConstraint> actual,
+                        String filename) {
+                assertEquals(expected.size(), actual.size(), "Constraint count mismatch for " + filename);
+
+                for (int i = 0; i < expected.size(); i++) {
+                        assertEquals(expected.get(i).isContextualized(), actual.get(i).isContextualized(),
+                                        "Contextualization mismatch of constraint " + i + " for " + filename);
+                        assertEquals(expected.get(i).toString(), actual.get(i).toString(),
+                                        "Constraint mismatch at index " + i + " for " + filename);
+                }
+        }
+}
@@ -0,0 +1,142 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.choco.ChocoModel;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import model.recreate.feature.FeatureIds;
+import util.ChocoTranslator;
+import util.MergeOptions;
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+import util.analyse.Analyser;
+import util.analyse.SolverBackend;
+import util.analyse.statistics.MergeStatistics;
+import util.helper.MergerHelper;
+
+class RegionRegistryTest {
+
+        private static final int NUMBER_OF_MODELS = 12;
+
+        @Test
+        void testPredefinedRegionsKeepTheirIds() {
+                assertEquals(0, Region.A.ordinal());
+                assertEquals(8, Region.I.ordinal());
+                assertEquals(11, Region.MERGED.getValue());
+                assertSame(Region.B, Region.byId(1));
+                assertSame(Region.C, Region.of("C"));
+                assertEquals("UNION", Region.UNION.getRegionString());
+        }
+
+        @Test
+        void testRegionsAreInterned() {
+                Region region = Region.of("registry_test");
+
+                assertSame(region, Region.of("registry_test"));
+                assertSame(region, Region.byId(region.ordinal()));
+                assertEquals(region, Region.values().get(region.ordinal()));
+                assertThrows(IllegalArgumentException.class, () -> Region.of(Region.REGION_STRING));
+                assertThrows(IllegalArgumentException.class, () -> Region.byId(-1));
+        }
+
+        @Test
+        void testUnionOfMoreThanNineModels() {
+                try {
+                        RecreationModel[] models = new RecreationModel[NUMBER_OF_MODELS];
+                        long expectedSolutions = 0;
+                        for (int i = 0; i < NUMBER_OF_MODELS; i++) {
+                                String filename = i % 2 == 0 ? "uvl/paper_test_models/original/us.uvl"
+                                                : "uvl/paper_test_models/original/ger.uvl";
+                                models[i] = UVLParser.parseUVLFile(filename, Region.of("variant_" + i));
+                                expectedSolutions += Analyser.returnNumberOfSolutions(models[i]);
+                                models[i] = models[i].contextualizedCopy();
+                        }
+
+                        RecreationModel unionModel = Merger.union(new MergeStatistics(), models);
+
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(unionModel));
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(unionModel, SolverBackend.sat()));
+                } catch (Exception e) {
+                        throw new RuntimeException(e);
+                }
+        }
+
+        @Test
+        void testFeatureNamedLikeAnotherRegionIsStillRestricted() {
+                try {
+                        // a region of another merge with the name of a feature only one of these models has
+                        Region.of("HeartRateSensor");
+                        RecreationModel modelOne = UVLParser.parseUVLFile("uvl/smartwatch/miband1.uvl", Region.A);
+                        RecreationModel modelTwo = UVLParser.parseUVLFile("uvl/smartwatch/miband2.uvl", Region.B);
+                        long expectedSolutions = Analyser.returnNumberOfSolutions(modelOne)
+                                        + Analyser.returnNumberOfSolutions(modelTwo);
+
+                        RecreationModel unionModel = Merger.union(new MergeStatistics(), modelOne.contextualizedCopy(),
+                                        modelTwo.contextualizedCopy());
+
+                        assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(unionModel));
+                } catch (Exception e) {
+                        throw new RuntimeException(e);
+                }
+        }
+
+        @Test
+        void testValidatorForcesFeatureNamedLikeAnotherRegion() {
+                try {
+                        // a region of another merge with the name of a feature only the second model has
+                        Region.of("NFC");
+                        RecreationModel modelA = UVLParser.parseUVLFile("uvl/smartwatch/miband2.uvl", Region.A);
+                        RecreationModel modelB = UVLParser.parseUVLFile("uvl/smartwatch/miband3.uvl", Region.B);
+                        RecreationModel mergedModel = Merger.fullMerge(modelA, modelB).mergedModel();
+
+                        assertEquals(0, Validator.validateMerge(mergedModel, modelA, modelB));
+                } catch (Exception e) {
+                        throw new RuntimeException(e);
+                }
+        }
+
+        @Test
+        void testTranslationIgnoresFeatureNamedLikeAnotherRegion() {
+                try {
+                        // a region of another merge with the name of a feature only the second model has
+                        Region.of("TouchScreen");
+                        RecreationModel modelB = UVLParser.parseUVLFile("uvl/smartwatch/miband3.uvl", Region.B);
+                        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(modelB.contextualizedCopy());
+
+                        assertFalse(chocoModel.getRegionFeatureIds().get(FeatureIds.find("TouchScreen")));
+
+                        RecreationModel modelA = UVLParser.parseUVLFile("uvl/smartwatch/miband2.uvl", Region.A);
+                        RecreationModel sliced = Merger.fullMerge(MergeOptions.sequential().withSlicing(true), modelA,
+                                        modelB).mergedModel();
+                        RecreationModel full = Merger.fullMerge(MergeOptions.sequential().withSlicing(false), modelA,
+                                        modelB).mergedModel();
+
+                        assertTrue(MergerHelper.collectRegionFeatureIds(full).get(Region.B.getFeatureId()));
+                        assertEquals(full.getConstraints().size(), sliced.getConstraints().size());
+                        assertEquals(0, Validator.validateMerge(sliced, modelA, modelB));
+                } catch (Exception e) {
+                        throw new RuntimeException(e);
+                }
+        }
+
+        @Test
+        void testUnionRejectsDuplicateRegions() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.A);
+
+                        assertThrows(IllegalArgumentException.class,
+                                        () -> Merger.union(new MergeStatistics(), modelUs, modelGer));
+                } catch (Exception e) {
+                        throw new RuntimeException(e);
+                }
+        }
+}
@@ -0,0 +1,108 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import util.ChocoTranslator;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.solution.BitsetSolutionSink;
+import util.analyse.solution.CallbackSolutionSink;
+import util.analyse.solution.CsvSolutionSink;
+import util.analyse.solution.SolutionLayout;
+import util.analyse.solution.SolutionStream;
+import model.choco.ChocoModel;
+import model.choco.Region;
+import model.recreate.feature.FeatureIds;
+import model.recreate.RecreationModel;
+
+class SolutionStreamTest {
+
+        @Test
+        void testCsvAndBitsetExport() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        ChocoModel chocoModel = ChocoTranslator.convertToChocoModel(modelUs);
+
+                        Path csv = Files.createTempFile("solutions", ".csv");
+                        assertEquals(288, Analyser.streamSolutions(chocoModel).to(new CsvSolutionSink(csv)));
+                        List<String> lines = Files.readAllLines(csv);
+                        int features = chocoModel.getFeatureIds().cardinality();
+                        assertEquals(1 + 288, lines.size());
+                        assertEquals(features, lines.get(0).split(",").length);
+                        assertEquals(features * 2 - 1, lines.get(1).length());
+
+                        Path binary = Files.createTempFile("solutions", ".bin");
+                        SolutionStream stream = Analyser.streamSolutions(chocoModel);
+                        assertEquals(288, stream.to(new BitsetSolutionSink(binary)));
+                        long headerSize = Files.size(binary) - 288L * stream.getLayout().getNumberOfWords() * Long.BYTES;
+                        try (DataInputStream input = new DataInputStream(Files.newInputStream(binary))) {
+                                assertEquals(BitsetSolutionSink.MAGIC, input.readInt());
+                        }
+                        assertTrue(headerSize > 12, "Feature names are missing in the header");
+
+                        Files.delete(csv);
+                        Files.delete(binary);
+                } catch (Exception e) {
+                        throw new AssertionError("testCsvAndBitsetExport failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testCsvQuotesFeatureNames() {
+                try {
+                        BitSet featureIds = new BitSet();
+                        featureIds.set(FeatureIds.of("csv_plain"));
+                        featureIds.set(FeatureIds.of("csv_a,b"));
+                        featureIds.set(FeatureIds.of("csv_\"quoted\""));
+                        featureIds.set(FeatureIds.of("csv_line\nbreak"));
+                        SolutionLayout layout = new SolutionLayout(featureIds);
+
+                        StringWriter writer = new StringWriter();
+                        try (CsvSolutionSink sink = CsvSolutionSink.to(writer)) {
+                                sink.open(layout);
+                                sink.accept(new long[] { 0b0101 });
+                        }
+
+                        // the layout orders the columns by feature id, the ids were registered in this order
+                        assertEquals("csv_plain,\"csv_a,b\",\"csv_\"\"quoted\"\"\",\"csv_line\nbreak\"\n1,0,1,0\n",
+                                        writer.toString());
+                } catch (Exception e) {
+                        throw new AssertionError("testCsvQuotesFeatureNames failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testCallbackStopsStream() {
+                try {
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+
+                        AtomicLong received = new AtomicLong();
+                        Analyser.streamSolutions(modelGer).to(new CallbackSolutionSink(8, (layout, solution) -> {
+                                received.incrementAndGet();
+                                return true;
+                        }));
+                        assertEquals(324, received.get());
+
+                        received.set(0);
+                        Analyser.streamSolutions(modelGer).to(new CallbackSolutionSink(8,
+                                        (layout, solution) -> received.incrementAndGet() < 10));
+                        assertEquals(10, received.get());
+
+                        assertEquals(5, Analyser.streamSolutions(modelGer).limit(5).to(new CallbackSolutionSink(8,
+                                        (layout, solution) -> true)));
+                } catch (Exception e) {
+                        throw new AssertionError("testCallbackStopsStream failed: " + e.getMessage(), e);
+                }
+        }
+}
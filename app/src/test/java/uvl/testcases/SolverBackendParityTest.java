@@ -0,0 +1,57 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.SolverBackend;
+import model.choco.EncodingMode;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+import uvl.testcases.BasicTests.TestCase;
+
+class SolverBackendParityTest {
+
+        // the SAT backend enumerates the solutions, larger fixtures are only counted by BasicTests
+        private static final long MAX_ENUMERATED_SOLUTIONS = 4_000;
+
+        static Stream<Named<SolverBackend>> backends() {
+                return Stream.of(
+                                SolverBackend.choco(),
+                                SolverBackend.choco(EncodingMode.CLAUSAL),
+                                SolverBackend.sat(),
+                                SolverBackend.ddnnf(),
+                                SolverBackend.bdd(),
+                                SolverBackend.decomposed(SolverBackend.ddnnf()),
+                                SolverBackend.decomposed(SolverBackend.choco()))
+                                .map(backend -> Named.of(backend.getName(), backend));
+        }
+
+        @ParameterizedTest
+        @MethodSource("backends")
+        void testSolutionCountsOfBasicTestModels(final SolverBackend backend) {
+                BasicTests.allTestCases()
+                                .filter(testCase -> testCase.expectedSolutions() <= MAX_ENUMERATED_SOLUTIONS)
+                                .forEach(testCase -> {
+                                        try {
+                                                RecreationModel model = UVLParser.parseUVLFile(testCase.filename(), Region.A);
+
+                                                assertEquals(testCase.expectedSolutions(),
+                                                                Analyser.returnNumberOfSolutions(model, backend),
+                                                                "Solution count mismatch for " + testCase.filename());
+                                                assertTrue(Analyser.isConsistent(model, backend),
+                                                                "Consistency mismatch for " + testCase.filename());
+                                        } catch (Exception e) {
+                                                throw new AssertionError("testSolutionCountsOfBasicTestModels failed for "
+                                                                + testCase.filename() + " with " + backend.getName(), e);
+                                        }
+                                });
+        }
+}
@@ -0,0 +1,52 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import util.Merger;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.SolverBackend;
+import util.analyse.sat.CnfEncoder;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class SolverBackendTest {
+
+        @Test
+        void testSatBackendOnMergedModel() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl",
+                                        Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl",
+                                        Region.B);
+
+                        RecreationModel mergedModel = Merger.fullMerge(modelUs, modelGer).mergedModel();
+
+                        assertTrue(Analyser.isConsistent(mergedModel, SolverBackend.sat()));
+                        assertEquals(Analyser.returnNumberOfSolutions(mergedModel, SolverBackend.choco()),
+                                        Analyser.returnNumberOfSolutions(mergedModel, SolverBackend.sat()));
+                        assertEquals(Analyser.returnNumberOfSolutions(modelUs, SolverBackend.choco()),
+                                        Analyser.returnNumberOfSolutions(modelUs, SolverBackend.sat()));
+                } catch (Exception e) {
+                        throw new AssertionError("testSatBackendOnMergedModel failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testDimacsExport() {
+                try {
+                        RecreationModel model = UVLParser.parseUVLFile("uvl/testcases/featureTree3.uvl", Region.A);
+                        StringWriter writer = new StringWriter();
+                        CnfEncoder.encode(model).writeDimacs(writer);
+
+                        assertTrue(writer.toString().contains("p cnf "), "DIMACS header missing");
+                } catch (Exception e) {
+                        throw new AssertionError("testDimacsExport failed: " + e.getMessage(), e);
+                }
+        }
+}
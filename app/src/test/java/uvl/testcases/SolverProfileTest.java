@@ -0,0 +1,109 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import util.ChocoTranslator;
+import util.MergeOptions;
+import util.Merger;
+import util.UVLParser;
+import util.Validator;
+import util.analyse.Analyser;
+import model.choco.ChocoModel;
+import model.choco.Region;
+import model.choco.SolverProfile;
+import model.recreate.RecreationModel;
+
+class SolverProfileTest {
+
+        private final String[] filenames = {
+                        "uvl/testcases/crossTree1.uvl",
+                        "uvl/testcases/crossTree4.uvl",
+                        "uvl/testcases/crossTree8.uvl",
+                        "uvl/testcases/groupShapes.uvl",
+                        "uvl/finance/finance_2.uvl"
+        };
+
+        private final SolverProfile[] profiles = {
+                        SolverProfile.featureTree(),
+                        SolverProfile.activity()
+        };
+
+        @Test
+        void testProfilesKeepConsistency() {
+                for (String filename : filenames) {
+                        try {
+                                boolean expected = Analyser.isConsistent(UVLParser.parseUVLFile(filename, Region.A));
+                                for (SolverProfile profile : profiles) {
+                                        RecreationModel model = UVLParser.parseUVLFile(filename, Region.A);
+                                        assertEquals(expected, Analyser.isConsistent(model, profile),
+                                                        "Consistency mismatch for " + filename + " with " + profile);
+                                }
+                        } catch (Exception e) {
+                                throw new AssertionError("testProfilesKeepConsistency failed for " + filename, e);
+                        }
+                }
+        }
+
+        @Test
+        void testPreferDeselectionRequiresFeatureTree() {
+                assertThrows(IllegalArgumentException.class,
+                                () -> new SolverProfile(SolverProfile.Branching.ACTIVITY, true, true, false));
+                assertThrows(IllegalArgumentException.class,
+                                () -> new SolverProfile(SolverProfile.Branching.DEFAULT, true, false, false));
+        }
+
+        @Test
+        void testCountAfterRestartingProfile() {
+                try {
+                        ChocoModel modelUs = ChocoTranslator.convertToChocoModel(
+                                        UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A));
+                        ChocoModel modelGer = ChocoTranslator.convertToChocoModel(
+                                        UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B));
+
+                        // the consistency checks leave the restarting search configured on the models
+                        assertTrue(Analyser.isConsistent(modelUs, SolverProfile.activity()));
+                        assertTrue(Analyser.isConsistent(modelGer, SolverProfile.activity()));
+
+                        assertEquals(288, Analyser.returnNumberOfSolutions(modelUs));
+                        assertEquals(126, Analyser.findIntersectionSolutions(modelUs, modelGer));
+                        assertTrue(Analyser.isConsistent(modelUs, SolverProfile.activity()));
+                        assertEquals(126, Analyser.findIntersectionSolutions(1024, modelUs, modelGer));
+                        assertNull(modelUs.getNogoodRecorder());
+                } catch (Exception e) {
+                        throw new AssertionError("testCountAfterRestartingProfile failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testMergeAndValidateWithProfiles() {
+                try {
+                        for (SolverProfile profile : profiles) {
+                                RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl",
+                                                Region.A);
+                                RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl",
+                                                Region.B);
+                                long expectedSolutions = Analyser.returnNumberOfSolutions(modelUs)
+                                                + Analyser.returnNumberOfSolutions(modelGer);
+
+                                MergeOptions mergeOptions = MergeOptions.sequential()
+                                                .withInconsistencyCheckProfile(profile)
+                                                .withCleanupProfile(profile);
+                                RecreationModel mergedModel = Merger.fullMerge(mergeOptions, modelUs, modelGer)
+                                                .mergedModel();
+
+                                assertEquals(expectedSolutions, Analyser.returnNumberOfSolutions(mergedModel),
+                                                "Solution count mismatch with " + profile);
+                                assertEquals(0, Validator.validateMerge(profile, mergedModel, modelUs, modelGer));
+                                assertEquals(0, Validator.validateMergeConcurrently(profile, mergedModel, modelUs,
+                                                modelGer));
+                        }
+                } catch (Exception e) {
+                        throw new AssertionError("testMergeAndValidateWithProfiles failed: " + e.getMessage(), e);
+                }
+        }
+}
@@ -0,0 +1,85 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import util.ChocoTranslator;
+import util.UVLParser;
+import util.analyse.Analyser;
+import util.analyse.solution.SpilledSolutionSet;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class SpilledSolutionSetTest {
+
+        @Test
+        void testMergeJoinOfSpilledRuns() {
+                try {
+                        Path directory = Files.createTempDirectory("spilled");
+                        // budget of 100 solutions, so every set is spilled into several runs
+                        try (SpilledSolutionSet evens = new SpilledSolutionSet(2, 100 * 2 * Long.BYTES, directory);
+                                        SpilledSolutionSet multiplesOfThree = new SpilledSolutionSet(2, 100 * 2 * Long.BYTES, directory)) {
+                                for (long i = 0; i < 10_000; i++) {
+                                        evens.add(new long[] { i * 2, ~(i * 2) });
+                                        evens.add(new long[] { i * 2, ~(i * 2) });
+                                        multiplesOfThree.add(new long[] { i * 3, ~(i * 3) });
+                                }
+
+                                assertTrue(evens.getNumberOfRuns() > 1, "Solutions were not spilled");
+                                assertEquals(10_000, evens.count());
+                                // common solutions are the multiples of six below 20000
+                                assertEquals(3_334, SpilledSolutionSet.countIntersection(List.of(evens, multiplesOfThree)));
+                                assertEquals(10_000 + 10_000 - 3_334,
+                                                SpilledSolutionSet.countUnion(List.of(evens, multiplesOfThree)));
+                        }
+                        assertTrue(Files.notExists(directory), "Temp files were not deleted");
+                } catch (Exception e) {
+                        throw new AssertionError("testMergeJoinOfSpilledRuns failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testRepeatedSolutions() {
+                try {
+                        Path directory = Files.createTempDirectory("spilled");
+                        try (SpilledSolutionSet repeated = new SpilledSolutionSet(1, 1_000 * Long.BYTES, directory);
+                                        SpilledSolutionSet buffered = new SpilledSolutionSet(1, 1_000 * Long.BYTES, directory)) {
+                                // projected solutions repeat, every buffer holds only two distinct solutions
+                                for (int i = 0; i < 100_000; i++) {
+                                        repeated.add(new long[] { i % 2 });
+                                }
+                                buffered.add(new long[] { 1 });
+
+                                assertEquals(2, repeated.count());
+                                assertEquals(0, buffered.getNumberOfRuns());
+                                assertEquals(1, SpilledSolutionSet.countIntersection(List.of(repeated, buffered)));
+                        }
+                        assertTrue(Files.notExists(directory), "Temp files were not deleted");
+                } catch (Exception e) {
+                        throw new AssertionError("testRepeatedSolutions failed: " + e.getMessage(), e);
+                }
+        }
+
+        @Test
+        void testSpilledChocoIntersection() {
+                try {
+                        RecreationModel modelUs = UVLParser.parseUVLFile("uvl/paper_test_models/original/us.uvl", Region.A);
+                        RecreationModel modelGer = UVLParser.parseUVLFile("uvl/paper_test_models/original/ger.uvl", Region.B);
+
+                        assertEquals(126, Analyser.findIntersectionSolutions(1024,
+                                        ChocoTranslator.convertToChocoModel(modelUs),
+                                        ChocoTranslator.convertToChocoModel(modelGer)));
+                        assertEquals(288 + 324 - 126, Analyser.findUnionSolutions(1024,
+                                        ChocoTranslator.convertToChocoModel(modelUs),
+                                        ChocoTranslator.convertToChocoModel(modelGer)));
+                } catch (Exception e) {
+                        throw new AssertionError("testSpilledChocoIntersection failed: " + e.getMessage(), e);
+                }
+        }
+}
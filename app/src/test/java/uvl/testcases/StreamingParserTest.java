@@ -0,0 +1,72 @@
+package uvl.testcases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+import util.UVLParser;
+import model.choco.Region;
+import model.recreate.RecreationModel;
+
+class StreamingParserTest {
+
+        private final String[] filenames = {
+                        "uvl/testcases/featureTree8.uvl",
+                        "uvl/testcases/crossTree1.uvl",
+                        "uvl/testcases/crossTreeParenthesis.uvl",
+                        "uvl/paper_test_models/original/us.uvl",
+                        "uvl/smartwatch/miband1.uvl",
+                        "uvl/busybox/busybox_1.uvl",
+                        "uvl/finance/finance_2.uvl"
+        };
+
+        @Test
+        void testStreamingParseEqualsTreeParse() {
+                for (String filename : filenames) {
+                        try {
+                                RecreationModel treeModel = UVLParser.parseUVLFile(filename, Region.A);
+                                RecreationModel streamingModel = UVLParser.parseUVLFileStreaming(filename, Region.A);
+
+                                assertModelsEqual(treeModel, streamingModel, filename);
+                        } catch (Exception e) {
+                                throw new AssertionError("testStreamingParseEqualsTreeParse failed for " + filename, e);
+                        }
+                }
+        }
+
+        @Test
+        void testParseFromPathAndInputStream() {
+                String filename = "uvl/paper_test_models/original/ger.uvl";
+                try {
+                        RecreationModel treeModel = UVLParser.parseUVLFile(filename, Region.B);
+
+                        Path path = Paths.get(getClass().getClassLoader().getResource(filename).toURI());
+                        assertModelsEqual(treeModel, UVLParser.parseUVLPath(path, Region.B), filename);
+
+                        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(filename)) {
+                                assertModelsEqual(treeModel, UVLParser.parseUVLStream(inputStream, filename, Region.B),
+                                                filename);
+                        }
+                } catch (Exception e) {
+                        throw new AssertionError("testParseFromPathAndInputStream failed for " + filename, e);
+                }
+        }
+
+        private void assertModelsEqual(RecreationModel expected, RecreationModel actual, String filename) {
+                assertEquals(expected.getRootFeature().getName(), actual.getRootFeature().getName(),
+                                "Root feature mismatch for " + filename);
+                assertEquals(expected.getFeatures().keySet(), actual.getFeatures().keySet(),
+                                "Feature mismatch for " + filename);
+                assertEquals(expected.getConstraints().size(), actual.getConstraints().size(),
+                                "Constraint count mismatch for " + filename);
+
+                for (int i = 0; i < expected.getConstraints().size(); i++) {
+                        assertEquals(expected.getConstraints().get(i).toString(), actual.getConstraints().get(i).toString(),
+                                        "Constraint mismatch at index " + i + " for " + filename);
+                }
+        }
+}